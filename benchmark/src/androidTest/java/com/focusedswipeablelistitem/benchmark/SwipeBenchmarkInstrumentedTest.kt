@@ -0,0 +1,99 @@
+package com.focusedswipeablelistitem.benchmark
+
+import android.content.Intent
+import androidx.test.InstrumentationRegistry
+import androidx.test.rule.ActivityTestRule
+import androidx.test.runner.AndroidJUnit4
+import com.focusedswipeablelistitem.core.SwipeableAdapter
+import org.junit.Assert.assertEquals
+import org.junit.Assert.assertTrue
+import org.junit.Rule
+import org.junit.Test
+import org.junit.runner.RunWith
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+/**
+ * Runs the benchmark deck on a device, one configuration per test so that each of them differs from [default] by
+ * a single setting. The results are reported as instrumentation status, e.g. with
+ * `./gradlew :benchmark:connectedAndroidTest` or `adb shell am instrument -w -r`
+ */
+@RunWith(AndroidJUnit4::class)
+class SwipeBenchmarkInstrumentedTest {
+
+    @get:Rule
+    val activityRule = ActivityTestRule(BenchmarkActivity::class.java, false, false)
+
+    @Volatile
+    private var result: SwipeBenchmarkResult? = null
+
+    @Test
+    fun default() {
+        measure("default", BenchmarkConfig(autoStart = false))
+    }
+
+    @Test
+    fun hardwareLayerNever() {
+        measure("hardwareLayerNever",
+                BenchmarkConfig(hardwareLayerPolicy = SwipeableAdapter.HARDWARE_LAYER_NEVER, autoStart = false))
+    }
+
+    @Test
+    fun hardwareLayerComplexCards() {
+        measure("hardwareLayerComplexCards",
+                BenchmarkConfig(hardwareLayerPolicy = SwipeableAdapter.HARDWARE_LAYER_COMPLEX_CARDS,
+                        autoStart = false))
+    }
+
+    @Test
+    fun staticBackStack() {
+        measure("staticBackStack", BenchmarkConfig(staticBackStack = true, autoStart = false))
+    }
+
+    @Test
+    fun prefetch() {
+        measure("prefetch", BenchmarkConfig(prefetchDepth = 2, autoStart = false))
+    }
+
+    @Test
+    fun overlappingExits() {
+        measure("overlappingExits", BenchmarkConfig(overlappingExits = true, autoStart = false))
+    }
+
+    /**
+     * Counting allocations slows the runtime down, its frame timings are not comparable with the other runs
+     */
+    @Test
+    fun allocations() {
+        measure("allocations", BenchmarkConfig(measureAllocations = true, autoStart = false))
+    }
+
+    private fun measure(name: String, config: BenchmarkConfig) {
+        val intent = Intent(Intent.ACTION_MAIN).putExtra(BenchmarkConfig.EXTRA_AUTO_START, false)
+        val activity = activityRule.launchActivity(intent)
+        val finished = CountDownLatch(1)
+
+        InstrumentationRegistry.getInstrumentation().runOnMainSync {
+            activity.runBenchmark(config, object : SwipeBenchmark.Listener {
+                override fun onBenchmarkFinished(result: SwipeBenchmarkResult) {
+                    this@SwipeBenchmarkInstrumentedTest.result = result
+                    finished.countDown()
+                }
+            })
+        }
+
+        assertTrue("$name did not finish", finished.await(RUN_TIMEOUT_SECONDS, TimeUnit.SECONDS))
+        val result = this.result!!
+        InstrumentationRegistry.getInstrumentation().sendStatus(STATUS_BENCHMARK_RESULT, result.toBundle(name))
+        assertEquals(config.swipeCount, result.swipeCount)
+    }
+
+    private companion object {
+        const val RUN_TIMEOUT_SECONDS = 300L
+
+        /**
+         * Outside of the codes the test runner uses for the start and the outcome of a test
+         */
+        const val STATUS_BENCHMARK_RESULT = 2
+    }
+}
@@ -0,0 +1,46 @@
+package com.focusedswipeablelistitem.benchmark
+
+import android.os.Debug
+
+/**
+ * Reads how much the current thread has allocated so far, the benchmark only uses the differences between readings
+ */
+interface AllocationMeter {
+
+    /**
+     * @return the bytes allocated by the current thread so far, -1 if it cannot be measured
+     */
+    fun threadAllocatedBytes(): Long
+
+    /**
+     * @return the objects allocated by the current thread so far, -1 if it cannot be measured
+     */
+    fun threadAllocationCount(): Long
+
+    /**
+     * Stops measuring, called once the run is over
+     */
+    fun release()
+}
+
+/**
+ * Counts the allocations of the current thread with the allocation counting of the runtime. The counting itself
+ * slows every allocation down, so the frame timings of a run measuring allocations are not representative
+ */
+@Suppress("DEPRECATION")
+class DebugAllocationMeter : AllocationMeter {
+
+    init {
+        Debug.resetThreadAllocCount()
+        Debug.resetThreadAllocSize()
+        Debug.startAllocCounting()
+    }
+
+    override fun threadAllocatedBytes(): Long = Debug.getThreadAllocSize().toLong()
+
+    override fun threadAllocationCount(): Long = Debug.getThreadAllocCount().toLong()
+
+    override fun release() {
+        Debug.stopAllocCounting()
+    }
+}
@@ -0,0 +1,75 @@
+package com.focusedswipeablelistitem.benchmark
+
+import android.os.Bundle
+import android.util.Log
+import android.widget.FrameLayout
+import android.widget.TextView
+import androidx.appcompat.app.AppCompatActivity
+
+/**
+ * Hosts the benchmark deck. Launched from the home screen it runs the configuration of its intent extras once
+ * laid out and shows the report, the instrumented tests drive it through [runBenchmark] instead
+ */
+class BenchmarkActivity : AppCompatActivity() {
+    private lateinit var frameLayoutDeck: FrameLayout
+    private lateinit var textViewReport: TextView
+    private var images: CardImages? = null
+    private var adapter: BenchmarkDeckAdapter? = null
+
+    override fun onCreate(savedInstanceState: Bundle?) {
+        super.onCreate(savedInstanceState)
+        setContentView(R.layout.activity_benchmark)
+        frameLayoutDeck = findViewById(R.id.frameLayoutDeck)
+        textViewReport = findViewById(R.id.textViewReport)
+
+        val config = BenchmarkConfig.fromIntent(intent)
+        if (config.autoStart) {
+            runBenchmark(config, null)
+        }
+    }
+
+    /**
+     * Builds a new deck for [config] and swipes through it, must be called on the main thread. The run starts once
+     * the deck is laid out and [listener] is told when it is over
+     */
+    fun runBenchmark(config: BenchmarkConfig, listener: SwipeBenchmark.Listener?) {
+        adapter?.release()
+        frameLayoutDeck.removeAllViews()
+        textViewReport.text = getString(R.string.benchmark_running)
+
+        val density = resources.displayMetrics.density
+        val cardImages = images?.takeIf { it.count == config.imageCount }
+                ?: CardImages(config.imageCount, (300 * density).toInt(), (320 * density).toInt())
+        images = cardImages
+        val deckAdapter = BenchmarkDeckAdapter(this, frameLayoutDeck,
+                BenchmarkDeck.create(config.cardCount, cardImages.count), cardImages)
+        config.applyTo(deckAdapter)
+        adapter = deckAdapter
+
+        // posted after the touch listener the adapter posts for the top card
+        frameLayoutDeck.post {
+            val benchmark = SwipeBenchmark(frameLayoutDeck, deckAdapter,
+                    FlingScript.standard(frameLayoutDeck.width * 0.9f, frameLayoutDeck.height * 0.6f),
+                    config.swipeCount,
+                    ChoreographerFrameSource(windowManager.defaultDisplay),
+                    if (config.measureAllocations) DebugAllocationMeter() else null)
+            benchmark.start(object : SwipeBenchmark.Listener {
+                override fun onBenchmarkFinished(result: SwipeBenchmarkResult) {
+                    Log.i(TAG, "$config\n$result")
+                    textViewReport.text = result.toString()
+                    listener?.onBenchmarkFinished(result)
+                }
+            })
+        }
+    }
+
+    override fun onDestroy() {
+        adapter?.release()
+        adapter = null
+        super.onDestroy()
+    }
+
+    private companion object {
+        const val TAG = "SwipeBenchmark"
+    }
+}
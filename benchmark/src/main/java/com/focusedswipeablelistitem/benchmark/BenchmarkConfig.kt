@@ -0,0 +1,59 @@
+package com.focusedswipeablelistitem.benchmark
+
+import android.content.Intent
+import com.focusedswipeablelistitem.core.SwipeableAdapter
+
+/**
+ * How a run sets the deck up. Each option maps to a setting of [SwipeableAdapter] so that runs differing by one
+ * option compare that setting alone
+ */
+data class BenchmarkConfig(val cardCount: Int = 5000,
+                           val swipeCount: Int = 500,
+                           val imageCount: Int = 16,
+                           val overlappingExits: Boolean = false,
+                           val hardwareLayerPolicy: Int = SwipeableAdapter.DEFAULT_HARDWARE_LAYER_POLICY,
+                           val staticBackStack: Boolean = false,
+                           val prefetchDepth: Int = 0,
+                           val measureAllocations: Boolean = false,
+                           val autoStart: Boolean = true) {
+
+    fun applyTo(adapter: SwipeableAdapter<*>) {
+        adapter.overlappingExits = overlappingExits
+        adapter.hardwareLayerPolicy = hardwareLayerPolicy
+        adapter.staticBackStack = staticBackStack
+        adapter.prefetchDepth = prefetchDepth
+    }
+
+    companion object {
+        const val EXTRA_CARD_COUNT = "cardCount"
+        const val EXTRA_SWIPE_COUNT = "swipeCount"
+        const val EXTRA_OVERLAPPING_EXITS = "overlappingExits"
+        const val EXTRA_HARDWARE_LAYER_POLICY = "hardwareLayerPolicy"
+        const val EXTRA_STATIC_BACK_STACK = "staticBackStack"
+        const val EXTRA_PREFETCH_DEPTH = "prefetchDepth"
+        const val EXTRA_MEASURE_ALLOCATIONS = "measureAllocations"
+        const val EXTRA_AUTO_START = "autoStart"
+
+        /**
+         * Reads a configuration from the extras of the launching intent, e.g.
+         * `adb shell am start -n com.focusedswipeablelistitem.benchmark/.BenchmarkActivity --ez overlappingExits true`
+         */
+        fun fromIntent(intent: Intent?): BenchmarkConfig {
+            val defaults = BenchmarkConfig()
+            if (intent == null) {
+                return defaults
+            }
+            return BenchmarkConfig(
+                    cardCount = intent.getIntExtra(EXTRA_CARD_COUNT, defaults.cardCount),
+                    swipeCount = intent.getIntExtra(EXTRA_SWIPE_COUNT, defaults.swipeCount),
+                    overlappingExits = intent.getBooleanExtra(EXTRA_OVERLAPPING_EXITS, defaults.overlappingExits),
+                    hardwareLayerPolicy = intent.getIntExtra(EXTRA_HARDWARE_LAYER_POLICY,
+                            defaults.hardwareLayerPolicy),
+                    staticBackStack = intent.getBooleanExtra(EXTRA_STATIC_BACK_STACK, defaults.staticBackStack),
+                    prefetchDepth = intent.getIntExtra(EXTRA_PREFETCH_DEPTH, defaults.prefetchDepth),
+                    measureAllocations = intent.getBooleanExtra(EXTRA_MEASURE_ALLOCATIONS,
+                            defaults.measureAllocations),
+                    autoStart = intent.getBooleanExtra(EXTRA_AUTO_START, defaults.autoStart))
+        }
+    }
+}
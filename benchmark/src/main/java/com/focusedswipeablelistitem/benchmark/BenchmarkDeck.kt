@@ -0,0 +1,40 @@
+package com.focusedswipeablelistitem.benchmark
+
+import java.util.Random
+
+/**
+ * One item of the benchmark deck, everything a card shows is computed when the deck is built so that binding
+ * a card during the run only sets what is already there
+ */
+class BenchmarkCard(val title: String, val description: String, val tags: Array<String>, val imageIndex: Int)
+
+object BenchmarkDeck {
+    private val WORDS = arrayOf("mountain", "river", "coffee", "street", "market", "harbour", "garden", "station",
+            "bakery", "museum", "bridge", "forest", "island", "valley", "library", "rooftop")
+    private val TAGS = arrayOf("nearby", "new", "popular", "open now", "free", "outdoor", "family", "late")
+
+    /**
+     * Builds the same deck for a given size on every run, so that runs can be compared
+     *
+     * @param imageCount the number of pictures the cards cycle through
+     */
+    fun create(cardCount: Int, imageCount: Int): List<BenchmarkCard> {
+        val random = Random(cardCount.toLong())
+        val cards = ArrayList<BenchmarkCard>(cardCount)
+        for (i in 0 until cardCount) {
+            val title = "${capitalize(pick(random, WORDS))} ${pick(random, WORDS)} #$i"
+            val description = buildString {
+                repeat(12 + random.nextInt(12)) {
+                    append(pick(random, WORDS)).append(' ')
+                }
+            }
+            val tags = arrayOf(pick(random, TAGS), pick(random, TAGS), pick(random, TAGS))
+            cards.add(BenchmarkCard(title, description, tags, i % imageCount))
+        }
+        return cards
+    }
+
+    private fun pick(random: Random, words: Array<String>): String = words[random.nextInt(words.size)]
+
+    private fun capitalize(word: String): String = word.substring(0, 1).toUpperCase() + word.substring(1)
+}
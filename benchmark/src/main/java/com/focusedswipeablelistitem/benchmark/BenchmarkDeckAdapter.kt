@@ -0,0 +1,47 @@
+package com.focusedswipeablelistitem.benchmark
+
+import android.content.Context
+import android.view.View
+import android.view.ViewGroup
+import android.widget.FrameLayout
+import android.widget.ImageView
+import android.widget.TextView
+import com.focusedswipeablelistitem.core.SwipeableAdapter
+
+/**
+ * A deck of [BenchmarkCard], inflated and bound the way an app would with a picture, two texts and three tags
+ */
+class BenchmarkDeckAdapter(context: Context, frameLayout: FrameLayout,
+                           private val cards: List<BenchmarkCard>,
+                           private val images: CardImages)
+    : SwipeableAdapter<BenchmarkDeckAdapter.CardViewHolder>(context, frameLayout) {
+
+    init {
+        setupAdapter()
+    }
+
+    override fun createViewHolder(parentView: ViewGroup, position: Int): CardViewHolder =
+            CardViewHolder(createView(R.layout.benchmark_card, parentView))
+
+    override fun getItemCount(): Int = cards.size
+
+    override fun onBindView(viewHolder: CardViewHolder, position: Int) {
+        val card = cards[position]
+        viewHolder.imageViewPicture.setImageBitmap(images[card.imageIndex])
+        viewHolder.textViewTitle.text = card.title
+        viewHolder.textViewDescription.text = card.description
+        for (i in 0 until viewHolder.textViewTags.size) {
+            viewHolder.textViewTags[i].text = card.tags[i]
+        }
+    }
+
+    override fun getViewPoolSize(): Int = minOf(3, getItemCount())
+
+    class CardViewHolder(itemView: View) : SwipeableAdapter.ViewHolder(itemView) {
+        val imageViewPicture: ImageView = itemView.findViewById(R.id.imageViewPicture)
+        val textViewTitle: TextView = itemView.findViewById(R.id.textViewTitle)
+        val textViewDescription: TextView = itemView.findViewById(R.id.textViewDescription)
+        val textViewTags: Array<TextView> = arrayOf<TextView>(itemView.findViewById(R.id.textViewTag1),
+                itemView.findViewById(R.id.textViewTag2), itemView.findViewById(R.id.textViewTag3))
+    }
+}
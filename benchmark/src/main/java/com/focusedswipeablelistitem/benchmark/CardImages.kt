@@ -0,0 +1,44 @@
+package com.focusedswipeablelistitem.benchmark
+
+import android.graphics.Bitmap
+import android.graphics.Canvas
+import android.graphics.Color
+import android.graphics.LinearGradient
+import android.graphics.Paint
+import android.graphics.Shader
+
+/**
+ * The pictures of the benchmark cards, drawn once up front. A few distinct bitmaps are enough for every card bound
+ * to upload a texture that differs from the card it replaces, like pictures loaded from the network would
+ */
+class CardImages(count: Int, width: Int, height: Int) {
+    private val bitmaps = Array(count) { index -> drawPicture(index, count, width, height) }
+
+    val count: Int
+        get() = bitmaps.size
+
+    operator fun get(index: Int): Bitmap = bitmaps[index % bitmaps.size]
+
+    private fun drawPicture(index: Int, count: Int, width: Int, height: Int): Bitmap {
+        val bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888)
+        val canvas = Canvas(bitmap)
+        val paint = Paint(Paint.ANTI_ALIAS_FLAG)
+        val hue = 360f * index / count
+        paint.shader = LinearGradient(0f, 0f, width.toFloat(), height.toFloat(),
+                hsv(hue, 0.6f, 0.9f), hsv((hue + 60) % 360, 0.8f, 0.5f), Shader.TileMode.CLAMP)
+        canvas.drawRect(0f, 0f, width.toFloat(), height.toFloat(), paint)
+
+        paint.shader = null
+        paint.color = hsv((hue + 180) % 360, 0.4f, 1f)
+        paint.alpha = 96
+        for (circle in 0 until 6) {
+            val radius = minOf(width, height) * (0.1f + 0.05f * circle)
+            canvas.drawCircle(width * ((circle * 37 + index * 11) % 100) / 100f,
+                    height * ((circle * 53 + index * 7) % 100) / 100f, radius, paint)
+        }
+        return bitmap
+    }
+
+    private fun hsv(hue: Float, saturation: Float, value: Float): Int =
+            Color.HSVToColor(floatArrayOf(hue, saturation, value))
+}
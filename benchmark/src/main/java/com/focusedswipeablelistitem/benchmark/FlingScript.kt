@@ -0,0 +1,43 @@
+package com.focusedswipeablelistitem.benchmark
+
+/**
+ * The gestures a benchmark run plays, one per swipe and starting over once they have all been played
+ */
+class FlingScript(private val gestures: Array<Gesture>) {
+
+    /**
+     * A drag from the middle of the top card by ([dx], [dy]) pixels, one move per frame over [frameCount] frames,
+     * then let go where it ends
+     */
+    class Gesture(val dx: Float, val dy: Float, val frameCount: Int)
+
+    init {
+        if (gestures.isEmpty()) {
+            throw IllegalArgumentException("A script needs at least one gesture")
+        }
+    }
+
+    val maxFrameCount: Int = gestures.map { it.frameCount }.max() ?: 0
+
+    fun gestureAt(swipeIndex: Int): Gesture = gestures[swipeIndex % gestures.size]
+
+    companion object {
+
+        /**
+         * Hard flings in every direction mixed with slow drags let go past the border, the way a user going
+         * through a deck quickly swipes
+         *
+         * @param distanceX how far the horizontal gestures go, e.g. most of the width of the deck
+         * @param distanceY how far the vertical gestures go
+         */
+        fun standard(distanceX: Float, distanceY: Float): FlingScript = FlingScript(arrayOf(
+                Gesture(distanceX, 0f, 5),
+                Gesture(-distanceX, 0f, 5),
+                Gesture(distanceX * 0.8f, distanceY * 0.1f, 20),
+                Gesture(0f, -distanceY, 6),
+                Gesture(-distanceX * 0.8f, -distanceY * 0.1f, 20),
+                Gesture(0f, distanceY, 6),
+                Gesture(distanceX, distanceY * 0.2f, 4),
+                Gesture(-distanceX, distanceY * 0.2f, 4)))
+    }
+}
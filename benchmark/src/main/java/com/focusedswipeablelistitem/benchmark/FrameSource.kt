@@ -0,0 +1,33 @@
+package com.focusedswipeablelistitem.benchmark
+
+import android.view.Choreographer
+import android.view.Display
+
+/**
+ * Where the frames of a benchmark run come from, the display on a device or a fixed rate clock on the JVM
+ */
+interface FrameSource {
+
+    /**
+     * The time between two frames when none is dropped, in nanoseconds
+     */
+    val frameIntervalNanos: Long
+
+    /**
+     * Calls the callback once on the next frame
+     */
+    fun postFrameCallback(callback: Choreographer.FrameCallback)
+}
+
+/**
+ * The frames of the display, each callback gets the vsync time of its frame
+ */
+class ChoreographerFrameSource(display: Display) : FrameSource {
+    private val choreographer = Choreographer.getInstance()
+
+    override val frameIntervalNanos: Long = (1_000_000_000 / display.refreshRate).toLong()
+
+    override fun postFrameCallback(callback: Choreographer.FrameCallback) {
+        choreographer.postFrameCallback(callback)
+    }
+}
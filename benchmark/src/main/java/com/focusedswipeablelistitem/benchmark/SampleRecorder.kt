@@ -0,0 +1,66 @@
+package com.focusedswipeablelistitem.benchmark
+
+/**
+ * Keeps up to [capacity] samples in an array allocated up front, so that recording during a run never allocates.
+ * Samples beyond the capacity are only counted
+ */
+class SampleRecorder(capacity: Int) {
+    private val samples = LongArray(capacity)
+
+    var count: Int = 0
+        private set
+
+    var droppedCount: Int = 0
+        private set
+
+    fun add(sample: Long) {
+        if (count < samples.size) {
+            samples[count++] = sample
+        } else {
+            droppedCount++
+        }
+    }
+
+    fun countAbove(threshold: Long): Int {
+        var above = 0
+        for (i in 0 until count) {
+            if (samples[i] > threshold) {
+                above++
+            }
+        }
+        return above
+    }
+
+    /**
+     * Sorts a copy of the samples, only meant to be called once the run is over
+     */
+    fun summarize(): SampleSummary {
+        if (count == 0) {
+            return SampleSummary(0, 0.0, 0, 0, 0, 0)
+        }
+        val sorted = samples.copyOf(count)
+        sorted.sort()
+        var sum = 0.0
+        for (sample in sorted) {
+            sum += sample
+        }
+        return SampleSummary(count, sum / count, percentile(sorted, 50), percentile(sorted, 90),
+                percentile(sorted, 99), sorted[count - 1])
+    }
+
+    private fun percentile(sorted: LongArray, percent: Int): Long =
+            sorted[minOf(sorted.size - 1, sorted.size * percent / 100)]
+}
+
+/**
+ * The distribution of the samples of a [SampleRecorder], in the unit they were recorded with
+ */
+class SampleSummary(val count: Int, val mean: Double, val p50: Long, val p90: Long, val p99: Long, val max: Long) {
+
+    /**
+     * Formats the distribution after dividing every value by [divisor], e.g. 1e6 for nanoseconds shown as milliseconds
+     */
+    fun format(divisor: Double): String =
+            String.format("p50 %.1f  p90 %.1f  p99 %.1f  max %.1f  mean %.1f",
+                    p50 / divisor, p90 / divisor, p99 / divisor, max / divisor, mean / divisor)
+}
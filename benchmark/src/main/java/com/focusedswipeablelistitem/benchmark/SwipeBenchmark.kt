@@ -0,0 +1,262 @@
+package com.focusedswipeablelistitem.benchmark
+
+import android.os.SystemClock
+import android.view.Choreographer
+import android.view.MotionEvent
+import android.view.View
+import android.widget.FrameLayout
+import com.focusedswipeablelistitem.api.FlingExitListener
+import com.focusedswipeablelistitem.api.SwipeCommitListener
+import com.focusedswipeablelistitem.core.SwipeableAdapter
+
+/**
+ * Swipes through a deck by playing a [FlingScript] on its top card, one touch event per frame, and records:
+ * - the time between consecutive frames and the frames that took longer than one and a half frame interval,
+ * - the time spent delivering the touch events, which includes committing a swipe and binding the next card,
+ * - the time to the next card, from letting a card go until the card below it takes touches,
+ * - the allocations of the thread, those of the touch events only and those of the whole run.
+ *
+ * The events are dispatched straight to the top card, so every gesture lands on it whatever the layout. The next
+ * gesture starts on the frame after the card below became touchable: once the exit is over, or as soon as the
+ * swipe is committed with [SwipeableAdapter.overlappingExits].
+ * The benchmark takes over [SwipeableAdapter.flingExitListener] and [SwipeableAdapter.swipeCommitListener] while
+ * it runs, the listeners set before are set back once it is over. Everything happens on the main thread
+ */
+class SwipeBenchmark(private val deckLayout: FrameLayout,
+                     private val adapter: SwipeableAdapter<*>,
+                     private val script: FlingScript,
+                     private val swipeCount: Int,
+                     private val frameSource: FrameSource,
+                     private val allocationMeter: AllocationMeter? = null) : Choreographer.FrameCallback {
+
+    /**
+     * Told once every gesture of the run has been played and every card has finished its exit
+     */
+    interface Listener {
+        fun onBenchmarkFinished(result: SwipeBenchmarkResult)
+    }
+
+    private val frameIntervals = SampleRecorder(swipeCount * (script.maxFrameCount + FRAMES_PER_EXIT))
+    private val inputCosts = SampleRecorder(swipeCount * (script.maxFrameCount + 1))
+    private val timesToNextCard = SampleRecorder(swipeCount)
+
+    private var listener: Listener? = null
+    private var previousCommitListener: SwipeCommitListener? = null
+    private var previousExitListener: FlingExitListener? = null
+    private var state = STATE_IDLE
+    private var startedSwipeCount = 0
+    private var committedCount = 0
+    private var exitedCount = 0
+    private var missedCount = 0
+
+    private var touchedCard: View? = null
+    private var gesture: FlingScript.Gesture? = null
+    private var gestureFrame = 0
+    private var downTime = 0L
+    private var downX = 0f
+    private var downY = 0f
+    private var releaseTime = 0L
+    private var waitedFrames = 0
+
+    private var lastFrameTimeNanos = 0L
+    private var startTime = 0L
+    private var startAllocatedBytes = 0L
+    private var startAllocationCount = 0L
+    private var inputAllocatedBytes = 0L
+    private var inputAllocationCount = 0L
+    private var measuresBytes = false
+    private var measuresCount = false
+
+    private val commitListener = SwipeCommitListener { _, _, _ ->
+        committedCount++
+        if (adapter.overlappingExits) {
+            onNextCardTouchable()
+        }
+    }
+
+    private val exitListener = object : FlingExitListener {
+        override fun onCardExited(view: View?, objectX: Float, objectY: Float, position: Int) {
+            exitedCount++
+            if (!adapter.overlappingExits) {
+                onNextCardTouchable()
+            }
+        }
+
+        override fun leftExit(view: View?, dataObject: Any?, position: Int) {}
+
+        override fun rightExit(view: View?, dataObject: Any?, position: Int) {}
+
+        override fun topExit(view: View?, dataObject: Any?, position: Int) {}
+
+        override fun bottomExit(view: View?, dataObject: Any?, position: Int) {}
+
+        override fun onScroll(view: View?, scrollProgressPercentX: Float, scrollProgressPercentY: Float,
+                              position: Int) {
+        }
+    }
+
+    /**
+     * Starts the run on the next frame, the top card must already take touches
+     */
+    fun start(listener: Listener) {
+        if (state != STATE_IDLE) {
+            throw IllegalStateException("A benchmark only runs once")
+        }
+        this.listener = listener
+        previousCommitListener = adapter.swipeCommitListener
+        previousExitListener = adapter.flingExitListener
+        adapter.swipeCommitListener = commitListener
+        adapter.flingExitListener = exitListener
+        state = STATE_READY
+        startTime = SystemClock.uptimeMillis()
+        allocationMeter?.let {
+            startAllocatedBytes = it.threadAllocatedBytes()
+            startAllocationCount = it.threadAllocationCount()
+            measuresBytes = startAllocatedBytes >= 0
+            measuresCount = startAllocationCount >= 0
+        }
+        frameSource.postFrameCallback(this)
+    }
+
+    override fun doFrame(frameTimeNanos: Long) {
+        if (lastFrameTimeNanos != 0L) {
+            frameIntervals.add(frameTimeNanos - lastFrameTimeNanos)
+        }
+        lastFrameTimeNanos = frameTimeNanos
+
+        when (state) {
+            STATE_READY -> {
+                if (startedSwipeCount < swipeCount) {
+                    measureInput { startGesture(frameTimeNanos / NANOS_PER_MILLI) }
+                } else if (exitedCount >= committedCount) {
+                    finish()
+                    return
+                }
+            }
+            STATE_DRAGGING -> measureInput { continueGesture(frameTimeNanos / NANOS_PER_MILLI) }
+            STATE_WAITING -> {
+                // the gesture did not take the card out, it went back in place
+                if (++waitedFrames > MAX_WAITED_FRAMES) {
+                    missedCount++
+                    state = STATE_READY
+                }
+            }
+        }
+        frameSource.postFrameCallback(this)
+    }
+
+    private inline fun measureInput(input: () -> Unit) {
+        val meter = allocationMeter
+        val allocatedBytes = meter?.threadAllocatedBytes() ?: 0L
+        val allocationCount = meter?.threadAllocationCount() ?: 0L
+        val inputStart = System.nanoTime()
+
+        input()
+
+        inputCosts.add(System.nanoTime() - inputStart)
+        if (meter != null) {
+            inputAllocatedBytes += meter.threadAllocatedBytes() - allocatedBytes
+            inputAllocationCount += meter.threadAllocationCount() - allocationCount
+        }
+    }
+
+    private fun startGesture(eventTime: Long) {
+        // with overlapping exits the cards still leaving are drawn above the top card
+        val leavingCount = committedCount - exitedCount
+        val card = deckLayout.getChildAt(deckLayout.childCount - 1 - leavingCount)
+        if (card == null) {
+            // the deck ran out of cards before the script did
+            startedSwipeCount = swipeCount
+            return
+        }
+        touchedCard = card
+        gesture = script.gestureAt(startedSwipeCount++)
+        gestureFrame = 0
+        downTime = eventTime
+        downX = card.width / 2f
+        downY = card.height / 2f
+        state = STATE_DRAGGING
+        dispatchTouchEvent(card, MotionEvent.ACTION_DOWN, downX, downY, eventTime)
+    }
+
+    private fun continueGesture(eventTime: Long) {
+        val card = touchedCard ?: return
+        val gesture = gesture ?: return
+        gestureFrame++
+        val fraction = gestureFrame.toFloat() / gesture.frameCount
+        val x = downX + gesture.dx * fraction
+        val y = downY + gesture.dy * fraction
+        dispatchTouchEvent(card, MotionEvent.ACTION_MOVE, x, y, eventTime)
+        if (gestureFrame < gesture.frameCount) {
+            return
+        }
+
+        touchedCard = null
+        waitedFrames = 0
+        // a committed swipe may already make the next card touchable while the release is dispatched
+        state = STATE_WAITING
+        releaseTime = SystemClock.uptimeMillis()
+        dispatchTouchEvent(card, MotionEvent.ACTION_UP, x, y, eventTime)
+    }
+
+    private fun onNextCardTouchable() {
+        if (state != STATE_WAITING) {
+            return
+        }
+        timesToNextCard.add(SystemClock.uptimeMillis() - releaseTime)
+        state = STATE_READY
+    }
+
+    private fun dispatchTouchEvent(card: View, action: Int, x: Float, y: Float, eventTime: Long) {
+        val event = MotionEvent.obtain(downTime, eventTime, action, x, y, 0)
+        card.dispatchTouchEvent(event)
+        event.recycle()
+    }
+
+    private fun finish() {
+        state = STATE_FINISHED
+        adapter.swipeCommitListener = previousCommitListener
+        adapter.flingExitListener = previousExitListener
+        previousCommitListener = null
+        previousExitListener = null
+
+        val meter = allocationMeter
+        val totalAllocatedBytes = if (measuresBytes) meter!!.threadAllocatedBytes() - startAllocatedBytes else -1L
+        val totalAllocationCount = if (measuresCount) meter!!.threadAllocationCount() - startAllocationCount else -1L
+        meter?.release()
+
+        listener?.onBenchmarkFinished(SwipeBenchmarkResult(
+                swipeCount = startedSwipeCount,
+                missedSwipeCount = missedCount,
+                durationMillis = SystemClock.uptimeMillis() - startTime,
+                frameIntervalNanos = frameSource.frameIntervalNanos,
+                frameIntervals = frameIntervals.summarize(),
+                jankyFrameCount = frameIntervals.countAbove(frameSource.frameIntervalNanos * 3 / 2),
+                inputCosts = inputCosts.summarize(),
+                timesToNextCard = timesToNextCard.summarize(),
+                inputAllocatedBytes = if (measuresBytes) inputAllocatedBytes else -1L,
+                inputAllocationCount = if (measuresCount) inputAllocationCount else -1L,
+                totalAllocatedBytes = totalAllocatedBytes,
+                totalAllocationCount = totalAllocationCount))
+    }
+
+    companion object {
+        private const val STATE_IDLE = 0
+        private const val STATE_READY = 1
+        private const val STATE_DRAGGING = 2
+        private const val STATE_WAITING = 3
+        private const val STATE_FINISHED = 4
+
+        /**
+         * Frames a gesture may wait for its card to leave before it counts as missed, about a second
+         */
+        private const val MAX_WAITED_FRAMES = 60
+
+        /**
+         * Room for the frames of an exit in the frame recorder, the longest exit lasts 300 ms
+         */
+        private const val FRAMES_PER_EXIT = 24
+
+        private const val NANOS_PER_MILLI = 1_000_000L
+    }
+}
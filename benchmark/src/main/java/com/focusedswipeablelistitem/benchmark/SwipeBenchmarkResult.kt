@@ -0,0 +1,67 @@
+package com.focusedswipeablelistitem.benchmark
+
+import android.os.Bundle
+
+/**
+ * What a [SwipeBenchmark] run measured. Durations are in nanoseconds except [durationMillis] and [timesToNextCard]
+ * which are in milliseconds, allocations are -1 when they were not measured
+ */
+class SwipeBenchmarkResult(val swipeCount: Int,
+                           val missedSwipeCount: Int,
+                           val durationMillis: Long,
+                           val frameIntervalNanos: Long,
+                           val frameIntervals: SampleSummary,
+                           val jankyFrameCount: Int,
+                           val inputCosts: SampleSummary,
+                           val timesToNextCard: SampleSummary,
+                           val inputAllocatedBytes: Long,
+                           val inputAllocationCount: Long,
+                           val totalAllocatedBytes: Long,
+                           val totalAllocationCount: Long) {
+
+    /**
+     * Puts the headline numbers in a bundle under keys prefixed with [name], for the instrumentation status of a
+     * run on a device
+     */
+    fun toBundle(name: String): Bundle = Bundle().apply {
+        putInt("$name.swipes", swipeCount)
+        putInt("$name.missedSwipes", missedSwipeCount)
+        putInt("$name.frames", frameIntervals.count)
+        putInt("$name.jankyFrames", jankyFrameCount)
+        putDouble("$name.frameIntervalP50Ms", frameIntervals.p50 / NANOS_PER_MILLI)
+        putDouble("$name.frameIntervalP99Ms", frameIntervals.p99 / NANOS_PER_MILLI)
+        putDouble("$name.inputCostP50Ms", inputCosts.p50 / NANOS_PER_MILLI)
+        putDouble("$name.inputCostP99Ms", inputCosts.p99 / NANOS_PER_MILLI)
+        putLong("$name.timeToNextCardP50Ms", timesToNextCard.p50)
+        putLong("$name.timeToNextCardP99Ms", timesToNextCard.p99)
+        putLong("$name.inputAllocatedBytes", inputAllocatedBytes)
+        putLong("$name.inputAllocations", inputAllocationCount)
+        putLong("$name.totalAllocatedBytes", totalAllocatedBytes)
+        putLong("$name.totalAllocations", totalAllocationCount)
+    }
+
+    override fun toString(): String = StringBuilder()
+            .append("swipes            ").append(swipeCount).append(" in ").append(durationMillis).append(" ms, ")
+            .append(missedSwipeCount).append(" missed\n")
+            .append("frames            ").append(frameIntervals.count).append(", ").append(jankyFrameCount)
+            .append(" over ").append(String.format("%.1f", frameIntervalNanos * 1.5 / NANOS_PER_MILLI))
+            .append(" ms\n")
+            .append("frame interval ms ").append(frameIntervals.format(NANOS_PER_MILLI)).append('\n')
+            .append("input cost ms     ").append(inputCosts.format(NANOS_PER_MILLI)).append('\n')
+            .append("next card ms      ").append(timesToNextCard.format(1.0)).append('\n')
+            .append("input allocations ").append(formatAllocations(inputAllocatedBytes, inputAllocationCount))
+            .append('\n')
+            .append("total allocations ").append(formatAllocations(totalAllocatedBytes, totalAllocationCount))
+            .toString()
+
+    private fun formatAllocations(bytes: Long, count: Long): String = when {
+        bytes < 0 && count < 0 -> "not measured"
+        count < 0 -> "$bytes bytes"
+        bytes < 0 -> "$count objects"
+        else -> "$bytes bytes, $count objects"
+    }
+
+    private companion object {
+        const val NANOS_PER_MILLI = 1_000_000.0
+    }
+}
@@ -0,0 +1,54 @@
+package com.focusedswipeablelistitem.benchmark;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.view.Choreographer;
+import android.view.View;
+
+/**
+ * Frames every 16 ms of the Robolectric clock. Each frame measures and lays out the deck before calling back,
+ * the way a traversal of a real frame would, so the cards bound during the run get their size
+ */
+class FixedRateFrameSource implements FrameSource {
+    static final long FRAME_MILLIS = 16;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final View deckLayout;
+    private final int width;
+    private final int height;
+    private Choreographer.FrameCallback pendingCallback;
+
+    private final Runnable frame = new Runnable() {
+        @Override
+        public void run() {
+            Choreographer.FrameCallback callback = pendingCallback;
+            pendingCallback = null;
+            layOut();
+            callback.doFrame(SystemClock.uptimeMillis() * 1_000_000L);
+        }
+    };
+
+    FixedRateFrameSource(View deckLayout, int width, int height) {
+        this.deckLayout = deckLayout;
+        this.width = width;
+        this.height = height;
+    }
+
+    void layOut() {
+        deckLayout.measure(View.MeasureSpec.makeMeasureSpec(width, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(height, View.MeasureSpec.EXACTLY));
+        deckLayout.layout(0, 0, width, height);
+    }
+
+    @Override
+    public long getFrameIntervalNanos() {
+        return FRAME_MILLIS * 1_000_000L;
+    }
+
+    @Override
+    public void postFrameCallback(Choreographer.FrameCallback callback) {
+        pendingCallback = callback;
+        handler.postDelayed(frame, FRAME_MILLIS);
+    }
+}
@@ -0,0 +1,30 @@
+package com.focusedswipeablelistitem.benchmark;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Reads the bytes allocated by the current thread from the JVM, which does not count objects
+ */
+class JvmAllocationMeter implements AllocationMeter {
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final long threadId = Thread.currentThread().getId();
+
+    JvmAllocationMeter() {
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+    }
+
+    @Override
+    public long threadAllocatedBytes() {
+        return threadMXBean.getThreadAllocatedBytes(threadId);
+    }
+
+    @Override
+    public long threadAllocationCount() {
+        return -1;
+    }
+
+    @Override
+    public void release() {
+    }
+}
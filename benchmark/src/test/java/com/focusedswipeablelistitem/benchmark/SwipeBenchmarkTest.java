@@ -0,0 +1,163 @@
+package com.focusedswipeablelistitem.benchmark;
+
+import android.app.Activity;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.focusedswipeablelistitem.api.FlingExitListener;
+import com.focusedswipeablelistitem.api.SwipeCommitListener;
+import com.focusedswipeablelistitem.core.SwipeableAdapter;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Swipes through a large deck on the Robolectric clock. The timings of the JVM say nothing about a device, the run
+ * checks that the script swipes every card and prints its report, allocations included
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SwipeBenchmarkTest {
+    private static final int CARD_COUNT = 2000;
+    private static final int SWIPE_COUNT = 200;
+    private static final int DECK_WIDTH = 1080;
+    private static final int DECK_HEIGHT = 1920;
+    // the longest exit lasts 300 ms, a second is way past any of them
+    private static final long MAX_TIME_TO_NEXT_CARD_MILLIS = 1000;
+
+    private FrameLayout root;
+    private BenchmarkDeckAdapter adapter;
+    private FixedRateFrameSource frameSource;
+    private SwipeBenchmarkResult result;
+
+    @Before
+    public void setUp() {
+        // the cards get their touch listener through View.post, which only runs once attached to a window
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        root = new FrameLayout(activity);
+        activity.setContentView(root);
+
+        CardImages images = new CardImages(4, 60, 64);
+        adapter = new BenchmarkDeckAdapter(activity, root, BenchmarkDeck.INSTANCE.create(CARD_COUNT, images.getCount()),
+                images);
+        frameSource = new FixedRateFrameSource(root, DECK_WIDTH, DECK_HEIGHT);
+        frameSource.layOut();
+        advance(FixedRateFrameSource.FRAME_MILLIS);
+    }
+
+    @After
+    public void tearDown() {
+        adapter.release();
+    }
+
+    @Test
+    public void standardScript_swipesEveryCardItPlays() {
+        run("default");
+
+        assertEquals(SWIPE_COUNT, result.getSwipeCount());
+        assertEquals(0, result.getMissedSwipeCount());
+        assertEquals(SWIPE_COUNT, result.getTimesToNextCard().getCount());
+        assertTrue(result.getTimesToNextCard().getMax() <= MAX_TIME_TO_NEXT_CARD_MILLIS);
+        assertTrue(result.getInputAllocatedBytes() >= 0);
+    }
+
+    @Test
+    public void overlappingExits_handTheNextCardOverOnRelease() {
+        adapter.setOverlappingExits(true);
+
+        run("overlapping exits");
+
+        assertEquals(SWIPE_COUNT, result.getSwipeCount());
+        assertEquals(0, result.getMissedSwipeCount());
+        // the card below takes touches within the dispatch of the release itself
+        assertEquals(0, result.getTimesToNextCard().getMax());
+    }
+
+    @Test
+    public void noHardwareLayers_swipesEveryCardItPlays() {
+        adapter.setHardwareLayerPolicy(SwipeableAdapter.HARDWARE_LAYER_NEVER);
+        adapter.setStaticBackStack(true);
+        adapter.setPrefetchDepth(2);
+
+        run("no hardware layers, static back stack, prefetch 2");
+
+        assertEquals(SWIPE_COUNT, result.getSwipeCount());
+        assertEquals(0, result.getMissedSwipeCount());
+    }
+
+    @Test
+    public void finish_setsTheAppListenersBack() {
+        SwipeCommitListener commitListener = new SwipeCommitListener() {
+            @Override
+            public void onSwipeCommitted(int direction, int position, Object dataObject) {
+            }
+        };
+        FlingExitListener exitListener = new FlingExitListener() {
+            @Override
+            public void onCardExited(View view, float objectX, float objectY, int position) {
+            }
+
+            @Override
+            public void leftExit(View view, Object dataObject, int position) {
+            }
+
+            @Override
+            public void rightExit(View view, Object dataObject, int position) {
+            }
+
+            @Override
+            public void topExit(View view, Object dataObject, int position) {
+            }
+
+            @Override
+            public void bottomExit(View view, Object dataObject, int position) {
+            }
+
+            @Override
+            public void onScroll(View view, float scrollProgressPercentX, float scrollProgressPercentY,
+                                 int position) {
+            }
+        };
+        adapter.setSwipeCommitListener(commitListener);
+        adapter.setFlingExitListener(exitListener);
+
+        run("app listeners");
+
+        assertSame(commitListener, adapter.getSwipeCommitListener());
+        assertSame(exitListener, adapter.getFlingExitListener());
+    }
+
+    private void run(String name) {
+        FlingScript script = FlingScript.Companion.standard(DECK_WIDTH * 0.9f, DECK_HEIGHT * 0.6f);
+        SwipeBenchmark benchmark = new SwipeBenchmark(root, adapter, script, SWIPE_COUNT, frameSource,
+                new JvmAllocationMeter());
+        benchmark.start(new SwipeBenchmark.Listener() {
+            @Override
+            public void onBenchmarkFinished(SwipeBenchmarkResult finished) {
+                result = finished;
+            }
+        });
+
+        // every swipe takes well under a hundred frames
+        for (int frame = 0; frame < SWIPE_COUNT * 100 && result == null; frame++) {
+            advance(FixedRateFrameSource.FRAME_MILLIS);
+        }
+
+        assertNotNull("the run did not finish", result);
+        System.out.println("Swipe benchmark, " + name + "\n" + result);
+    }
+
+    private static void advance(long millis) {
+        Robolectric.getForegroundThreadScheduler().advanceBy(millis, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,109 @@
+package com.focusedswipeablelistitem.customviews;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.graphics.drawable.BitmapDrawable;
+import android.os.SystemClock;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.util.Log;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+/**
+ * Compares the time spent drawing a {@link SmoothEdgesImageView} frame after frame, as it happens while a card
+ * is dragged, with the previous implementation that rebuilt the shader and the matrix on every frame
+ */
+@RunWith(AndroidJUnit4.class)
+public class SmoothEdgesImageViewDrawBenchmark {
+    private static final String TAG = "DrawBenchmark";
+    private static final int WIDTH = 720;
+    private static final int HEIGHT = 1080;
+    private static final int WARM_UP_FRAMES = 200;
+    private static final int MEASURED_FRAMES = 2000;
+
+    @Test
+    public void drawFrames() {
+        Context context = InstrumentationRegistry.getTargetContext();
+        Bitmap image = Bitmap.createBitmap(1200, 900, Bitmap.Config.ARGB_8888);
+        image.eraseColor(Color.GRAY);
+        Canvas canvas = new Canvas(Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888));
+
+        SmoothEdgesImageView cachedView = new SmoothEdgesImageView(context);
+        LegacySmoothEdgesImageView legacyView = new LegacySmoothEdgesImageView(context);
+
+        long legacyNanos = measure(legacyView, image, canvas);
+        long cachedNanos = measure(cachedView, image, canvas);
+
+        Log.i(TAG, String.format("legacy: %.2f us/frame, cached: %.2f us/frame",
+                legacyNanos / 1000f / MEASURED_FRAMES, cachedNanos / 1000f / MEASURED_FRAMES));
+    }
+
+    private long measure(View view, Bitmap image, Canvas canvas) {
+        ((android.widget.ImageView) view).setImageDrawable(new BitmapDrawable(view.getResources(), image));
+        view.measure(View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+
+        for (int i = 0; i < WARM_UP_FRAMES; i++) {
+            drawFrame(view, canvas);
+        }
+        long start = SystemClock.elapsedRealtimeNanos();
+        for (int i = 0; i < MEASURED_FRAMES; i++) {
+            drawFrame(view, canvas);
+        }
+        return SystemClock.elapsedRealtimeNanos() - start;
+    }
+
+    private void drawFrame(View view, Canvas canvas) {
+        int saveCount = canvas.save();
+        view.draw(canvas);
+        canvas.restoreToCount(saveCount);
+    }
+
+    /**
+     * The drawing code of {@link SmoothEdgesImageView} before the shader and matrix were cached
+     */
+    private static class LegacySmoothEdgesImageView extends android.widget.ImageView {
+        private final Paint paint = new Paint();
+        private final Matrix matrix = new Matrix();
+
+        LegacySmoothEdgesImageView(Context context) {
+            super(context);
+        }
+
+        @Override
+        protected void onDraw(Canvas canvas) {
+            if (getDrawable() instanceof BitmapDrawable) {
+                paint.setAntiAlias(true);
+                Bitmap bitmap = ((BitmapDrawable) getDrawable()).getBitmap();
+                BitmapShader shader = new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+
+                float scale;
+                if (bitmap.getWidth() > bitmap.getHeight()) {
+                    scale = (float) canvas.getHeight() / (float) bitmap.getHeight();
+                    matrix.setScale(scale, scale);
+                    matrix.postTranslate((canvas.getWidth() - bitmap.getWidth() * scale) * 0.5f, 0);
+                } else {
+                    scale = (float) canvas.getWidth() / (float) bitmap.getWidth();
+                    matrix.setScale(scale, scale);
+                    matrix.postTranslate(0, (canvas.getHeight() - bitmap.getHeight() * scale) * 0.5f);
+                }
+
+                shader.setLocalMatrix(matrix);
+                paint.setShader(shader);
+
+                canvas.translate(1, 1);
+                canvas.drawRect(0.0f, 0.0f, canvas.getWidth() - 2, canvas.getHeight() - 2, paint);
+            }
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.focusedswipeablelistitem.api;
+
+import java.util.List;
+
+/**
+ * Loads the items of a paged deck one page at a time, see {@link com.focusedswipeablelistitem.core.PagedSwipeableAdapter}
+ *
+ * @param <D> the type of the items
+ */
+public interface PageLoader<D> {
+
+    /**
+     * Called on the main thread, the page can be loaded on any thread as long as exactly one method of
+     * the callback is called once it is done
+     *
+     * @param page     the index of the page, starting from 0
+     * @param pageSize the number of items expected, only the last page may have less
+     */
+    void loadPage(int page, int pageSize, PageCallback<D> callback);
+
+    interface PageCallback<D> {
+        /**
+         * @param items      the items of the page, the list is kept by the adapter and must not be modified afterwards
+         * @param isLastPage whether no page comes after this one
+         */
+        void onPageLoaded(List<D> items, boolean isLastPage);
+
+        void onPageFailed(Throwable error);
+    }
+}
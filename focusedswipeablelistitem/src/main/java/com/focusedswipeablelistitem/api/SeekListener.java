@@ -0,0 +1,18 @@
+package com.focusedswipeablelistitem.api;
+
+/**
+ * Notified once per {@link com.focusedswipeablelistitem.core.SwipeableAdapter#seekTo}, instead of once per
+ * card skipped over
+ */
+public interface SeekListener {
+
+    /**
+     * Called once the stack shows the new top card. Seeking down skips the items from {@code fromPosition}
+     * down to {@code toPosition + 1} as if they had been swiped, seeking up brings the items from
+     * {@code fromPosition + 1} up to {@code toPosition} back
+     *
+     * @param fromPosition the position of the top card before the seek, -1 if every card had been swiped
+     * @param toPosition   the position of the new top card
+     */
+    void onSeek(int fromPosition, int toPosition);
+}
@@ -0,0 +1,15 @@
+package com.focusedswipeablelistitem.api;
+
+/**
+ * Notified once a swipe queued with {@link com.focusedswipeablelistitem.core.SwipeableAdapter#enqueueSwipe} is done
+ */
+public interface SwipeCommandCallback {
+
+    /**
+     * @param direction the direction given when the swipe was queued
+     * @param position  the position of the swiped card, -1 if the swipe could not run
+     * @param isSwiped  whether the card actually left the stack, false when the deck ran out of cards or the
+     *                  adapter was released before the swipe could run
+     */
+    void onSwipeCompleted(int direction, int position, boolean isSwiped);
+}
@@ -0,0 +1,19 @@
+package com.focusedswipeablelistitem.api;
+
+/**
+ * Notified as soon as the top card is bound to leave the stack, i.e. when it is let go past a border or flung,
+ * or when a select* or queued swipe starts, instead of once its exit animation is over
+ */
+public interface SwipeCommitListener {
+
+    /**
+     * Called before the exit animation of the card starts and before any {@link FlingExitListener} callback
+     * about the same card, the cards are committed in the order they leave the stack
+     *
+     * @param direction  one of the {@code DIRECTION_*} constants of
+     *                   {@link com.focusedswipeablelistitem.core.SwipeableAdapter}
+     * @param position   the position of the leaving card
+     * @param dataObject the object bound along with the card
+     */
+    void onSwipeCommitted(int direction, int position, Object dataObject);
+}
@@ -0,0 +1,64 @@
+package com.focusedswipeablelistitem.api;
+
+/**
+ * Receives measurements of the adapter as it runs, see
+ * {@link com.focusedswipeablelistitem.core.SwipeableAdapter#setSwipeMetrics}. Every callback only takes primitives
+ * and is called on the main thread, so an implementation keeping counters and histograms in preallocated arrays
+ * does not allocate, e.g. {@link com.focusedswipeablelistitem.core.SwipeMetricsRecorder}.
+ * Durations are in nanoseconds, measured with {@link System#nanoTime()}
+ */
+public interface SwipeMetrics {
+
+    /**
+     * A card let go past a border or flung got committed to leave the stack
+     *
+     * @param nanos the time from the card handling the ACTION_UP that let it go to the commit, which happens
+     *              while that same event is handled
+     */
+    void onReleaseCommitted(long nanos);
+
+    /**
+     * A committed card finished its exit, called before
+     * {@link FlingExitListener#onCardExited(android.view.View, float, float, int)}
+     *
+     * @param nanos the time from the commit of the card to the end of its exit
+     */
+    void onCardExited(long nanos);
+
+    /**
+     * @param viewType the view type of the card that got bound
+     * @param nanos    the time spent in the onBindView of the adapter
+     */
+    void onViewBound(int viewType, long nanos);
+
+    /**
+     * @param viewType the view type of the card that got created
+     * @param nanos    the time spent in the createViewHolder of the adapter
+     */
+    void onViewHolderCreated(int viewType, long nanos);
+
+    /**
+     * A card was bound to a view holder taken from the recycled views pool of its view type
+     */
+    void onPoolHit(int viewType);
+
+    /**
+     * A card needed a new view holder because the recycled views pool of its view type was empty
+     */
+    void onPoolMiss(int viewType);
+
+    /**
+     * A gesture on the top card ended, by an ACTION_UP or an ACTION_CANCEL
+     *
+     * @param touchEventCount the touch events the card handled from the ACTION_DOWN to the end of the gesture
+     */
+    void onGestureEnded(int touchEventCount);
+
+    /**
+     * A select* call did nothing, because the top card was still animating or not touchable yet
+     *
+     * @param direction one of the {@code DIRECTION_*} constants of
+     *                  {@link com.focusedswipeablelistitem.core.SwipeableAdapter}
+     */
+    void onSelectDropped(int direction);
+}
@@ -0,0 +1,193 @@
+package com.focusedswipeablelistitem.core
+
+import android.content.Context
+import android.os.Handler
+import android.os.Looper
+import android.os.Process
+import android.widget.FrameLayout
+import androidx.collection.SparseArrayCompat
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+/**
+ * Adapter that binds its cards in two phases, so the expensive part of a bind is not done on the UI thread
+ * at the moment the next card is revealed.
+ *
+ * [onPrepareBind] runs on [bindExecutor] ahead of time for the next [prepareAheadCount] positions to be bound
+ * and returns an immutable payload, e.g. the decoded image and the formatted texts. [onApplyBind] then only has
+ * to hand that payload to the views on the UI thread. A position whose payload is not ready yet when its card is
+ * bound is prepared right away on the UI thread, so nothing is ever bound late.
+ *
+ * At most [prepareAheadCount] payloads are kept. [notifyItemInserted] and the range notifications drop them all
+ * and cancel the preparations that did not start yet, the ones already running finish but their payload is
+ * discarded.
+ *
+ * Subclasses still call [setupAdapter] in their constructor, and call [release] once the adapter is not used
+ * anymore, which also shuts the default executor down
+ *
+ * @param bindExecutor runs [onPrepareBind], a single background thread owned by the adapter when null
+ */
+abstract class AsyncBindSwipeableAdapter<T : SwipeableAdapter.ViewHolder, P : Any>(
+        context: Context,
+        rootFrameLayout: FrameLayout,
+        private val prepareAheadCount: Int = 3,
+        bindExecutor: Executor? = null,
+        initialRotation: Float = 15f,
+        enableLeftSwipe: Boolean = true,
+        enableRightSwipe: Boolean = true,
+        enableTopSwipe: Boolean = true,
+        enableBottomSwipe: Boolean = true)
+    : SwipeableAdapter<T>(context, rootFrameLayout, initialRotation,
+        enableLeftSwipe, enableRightSwipe, enableTopSwipe, enableBottomSwipe) {
+
+    private val mainHandler = Handler(Looper.getMainLooper())
+
+    private val ownedExecutor: ExecutorService? =
+            if (bindExecutor == null) Executors.newSingleThreadExecutor { runnable ->
+                Thread({
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND)
+                    runnable.run()
+                }, "SwipeableAdapter-bind")
+            } else null
+
+    private val bindExecutor: Executor = bindExecutor ?: ownedExecutor!!
+
+    /**
+     * Payloads ready to be applied and preparations still pending, both keyed by position
+     */
+    private val preparedPayloads = SparseArrayCompat<P>(prepareAheadCount)
+    private val pendingPreparations = SparseArrayCompat<PrepareTask>(prepareAheadCount)
+    private var isReleased = false
+
+    /**
+     * Number of binds whose payload was not ready in time and had to be prepared on the UI thread.
+     * It only grows with the cards bound while setting the adapter up, unless cards are swiped faster than
+     * they are prepared
+     */
+    var uiThreadPrepareCount: Int = 0
+        private set
+
+    /**
+     * The number of payloads prepared and not applied yet
+     */
+    val preparedPayloadCount: Int
+        get() = preparedPayloads.size()
+
+    /**
+     * Called on [bindExecutor] to do the expensive part of binding the item of the given position, it must not
+     * touch any view and only read data that is safe to read from another thread.
+     * It is also called on the UI thread for a position whose payload is not ready when its card is bound
+     *
+     * @return everything [onApplyBind] needs, it must not be modified afterwards
+     */
+    protected abstract fun onPrepareBind(position: Int): P
+
+    /**
+     * Called on the UI thread when the view is ready to get bound to the payload prepared for the given position
+     */
+    protected abstract fun onApplyBind(viewHolder: T, payload: P, position: Int)
+
+    final override fun onBindView(viewHolder: T, position: Int) {
+        var payload = preparedPayloads.get(position)
+        if (payload != null) {
+            preparedPayloads.remove(position)
+        } else {
+            cancelPreparation(position)
+            uiThreadPrepareCount++
+            payload = onPrepareBind(position)
+        }
+        onApplyBind(viewHolder, payload, position)
+        schedulePreparations()
+    }
+
+    override fun onTopCardChanged(position: Int) {
+        super.onTopCardChanged(position)
+        schedulePreparations()
+    }
+
+    override fun onItemPositionsChanged() {
+        super.onItemPositionsChanged()
+        for (i in 0 until pendingPreparations.size()) {
+            pendingPreparations.valueAt(i).isCancelled = true
+        }
+        pendingPreparations.clear()
+        preparedPayloads.clear()
+    }
+
+    override fun release() {
+        isReleased = true
+        onItemPositionsChanged()
+        mainHandler.removeCallbacksAndMessages(null)
+        ownedExecutor?.shutdown()
+        super.release()
+    }
+
+    /**
+     * Makes sure the next [prepareAheadCount] positions to be bound are prepared or being prepared,
+     * and forgets about any other position
+     */
+    private fun schedulePreparations() {
+        if (isReleased) {
+            return
+        }
+        val last = nextBindPosition
+        val first = maxOf(0, last - prepareAheadCount + 1)
+
+        for (i in preparedPayloads.size() - 1 downTo 0) {
+            val position = preparedPayloads.keyAt(i)
+            if (position < first || position > last) {
+                preparedPayloads.removeAt(i)
+            }
+        }
+        for (i in pendingPreparations.size() - 1 downTo 0) {
+            val position = pendingPreparations.keyAt(i)
+            if (position < first || position > last) {
+                pendingPreparations.valueAt(i).isCancelled = true
+                pendingPreparations.removeAt(i)
+            }
+        }
+
+        for (position in last downTo first) {
+            if (preparedPayloads.indexOfKey(position) >= 0 || pendingPreparations.indexOfKey(position) >= 0) {
+                continue
+            }
+            val task = PrepareTask(position)
+            pendingPreparations.put(position, task)
+            bindExecutor.execute(task)
+        }
+    }
+
+    private fun cancelPreparation(position: Int) {
+        val task = pendingPreparations.get(position) ?: return
+        task.isCancelled = true
+        pendingPreparations.remove(position)
+    }
+
+    private fun onPrepared(task: PrepareTask, payload: P) {
+        // a task that got cancelled or replaced in the meantime has a stale payload
+        if (task.isCancelled || pendingPreparations.get(task.position) !== task) {
+            return
+        }
+        pendingPreparations.remove(task.position)
+        preparedPayloads.put(task.position, payload)
+    }
+
+    private inner class PrepareTask(val position: Int) : Runnable {
+        @Volatile
+        var isCancelled = false
+
+        override fun run() {
+            if (isCancelled) {
+                return
+            }
+            val payload = try {
+                onPrepareBind(position)
+            } catch (e: Exception) {
+                // the position gets prepared again on the UI thread when bound, where the error is not swallowed
+                return
+            }
+            mainHandler.post { onPrepared(this, payload) }
+        }
+    }
+}
@@ -2,23 +2,23 @@ package com.focusedswipeablelistitem.core;
 
 
 
-import android.animation.Animator;
-import android.animation.AnimatorListenerAdapter;
+import android.animation.TimeInterpolator;
+import android.animation.ValueAnimator;
 import android.annotation.SuppressLint;
-import android.content.Context;
 import android.graphics.PointF;
-import android.graphics.RectF;
 import android.view.MotionEvent;
 import android.view.VelocityTracker;
 import android.view.View;
-import android.view.ViewConfiguration;
 import android.view.ViewGroup;
-import android.view.ViewPropertyAnimator;
-import android.view.animation.DecelerateInterpolator;
+import android.view.animation.LinearInterpolator;
 
 import com.focusedswipeablelistitem.api.ClickListener;
 import com.focusedswipeablelistitem.api.FlingEnterListener;
 import com.focusedswipeablelistitem.api.FlingExitListener;
+import com.focusedswipeablelistitem.api.SwipeMetrics;
+import com.focusedswipeablelistitem.gesture.CardMotion;
+import com.focusedswipeablelistitem.gesture.Direction;
+import com.focusedswipeablelistitem.gesture.SwipeGestureDetector;
 
 import androidx.annotation.Nullable;
 
@@ -36,6 +36,9 @@ import androidx.annotation.Nullable;
  * Utility class for implementing descent swipable touch listener (In all directions)
  * as well as providing clicks in different parts of the view
  * Kudos to dionysis_lorentzos for allowing me to get a descent head start on this
+ * <p>
+ * The decisions themselves are taken by {@link SwipeGestureDetector}, this class feeds it with the touches
+ * of the card and turns its decisions into animations and callbacks
  *
  * @link { https://github.com/Diolor/Swipecards/blob/master/library/src/main/java/com/lorentzos/flingswipe/FlingCardListener.java}
  */
@@ -43,91 +46,135 @@ class FlingCardListener implements View.OnTouchListener {
     private static final String TAG = FlingCardListener.class.getSimpleName();
 
 
+    private static final int INVALID_POINTER_ID = -1;
+
     /**
-     * Max allowed duration for a "click", in milliseconds.
+     * Interpolators hold no state, so a single instance is shared by every card animation.
+     * The fraction has to be linear in time, the exits keep a constant speed and the spring computes its own
+     * curve. The DecelerateInterpolator(0.5f) used before was linear as well
      */
-    private static final int MAX_CLICK_DURATION = 100;
+    private static final TimeInterpolator LINEAR_INTERPOLATOR = new LinearInterpolator();
 
+    /**
+     * Bounds of the exit of a card let go, in milliseconds, the exit otherwise lasts as long as the release
+     * speed takes to carry the card out
+     */
+    private static final long MIN_RELEASE_EXIT_DURATION = 40;
+    private static final long MAX_RELEASE_EXIT_DURATION = 300;
 
-    private static final int INVALID_POINTER_ID = -1;
+    /**
+     * Used as the exit direction of an animation that puts the card back on the stack
+     */
+    private static final int NO_EXIT = SwipeGestureDetector.DIRECTION_NONE;
+
+    /**
+     * Told as soon as the card is bound to leave the stack, before its exit animation starts
+     */
+    interface ExitCommitListener {
+
+        /**
+         * @param exitDirection one of {@link #LEFT}, {@link #RIGHT}, {@link #TOP} and {@link #BOTTOM}
+         */
+        void onExitCommitted(View frame, Object dataObject, int exitDirection);
+    }
 
-    private final float objectX;
-    private final float objectY;
-    private final int objectH;
-    private final int objectW;
-    private final int parentWidth;
-    private final int parentHeight;
+    /**
+     * Told when the card below was taken off the hardware layer it got for a drag or an animation
+     */
+    interface CardBelowLayerListener {
+
+        void onCardBelowLayerDropped(View cardBelow);
+    }
 
     private final FlingExitListener mFlingExitListener;
+    private ExitCommitListener exitCommitListener;
+    private CardBelowLayerListener cardBelowLayerListener;
+    private SwipeMetrics metrics;
     private ClickListener clickListener;
-    private final Object dataObject;
-    private final float halfWidth;
-    private final float halfHeight;
+    private Object dataObject;
     private final VelocityTracker mVelocityTracker;
+    private final SwipeGestureDetector gestureDetector;
 
-    private final int mTouchSlop;
     private final int mMaximumVelocity;
-    private final int mMinimumVelocity;
-
-    private float BASE_ROTATION_DEGREES;
-
-    private float aPosX;
-    private float aPosY;
-    private float initialX;
-    private float initialY;
-    private float aDownTouchX;
-    private float aDownTouchY;
 
     // The active pointer is the one currently moving our object.
     private int mActivePointerId = INVALID_POINTER_ID;
     private View frame = null;
 
-
-    private final int TOUCH_ABOVE = 0;
-    private final int TOUCH_BELOW = 1;
-    private int touchPosition;
-    private final Object obj = new Object();
     private boolean isAnimationRunning = false;
-    private float MAX_COS = (float) Math.cos(Math.toRadians(45));
-    private boolean mDragging = false;
 
-    public static final int RIGHT = 0;
-    public static final int LEFT = 1;
-    public static final int TOP = 2;
-    public static final int BOTTOM = 3;
+    public static final int RIGHT = SwipeGestureDetector.DIRECTION_RIGHT;
+    public static final int LEFT = SwipeGestureDetector.DIRECTION_LEFT;
+    public static final int TOP = SwipeGestureDetector.DIRECTION_TOP;
+    public static final int BOTTOM = SwipeGestureDetector.DIRECTION_BOTTOM;
+
+    private final ValueAnimator cardAnimator;
+    private final CardAnimation cardAnimation = new CardAnimation();
+    private final CardMotion cardMotion = new CardMotion();
 
-    private ViewPropertyAnimator animator;
-    private int X_DIRECTION_THRESHOLD;
-    private int Y_DIRECTION_THRESHOLD;
-    private long pressStartTime;
+    // the velocity of the last release in pixels per second, 0 when the gesture got cancelled
+    private float releaseVelocityX;
+    private float releaseVelocityY;
 
+    // the touch events of the current gesture, and when its ACTION_UP came in while metrics are collected
+    private int touchEventCount;
+    private long releaseNanos;
 
-    private RectF bottomRect;
-    private RectF topRect;
-    private RectF leftRect;
-    private RectF rightRect;
 
+    // Reused on every gesture so that touching the card does not allocate
+    private final int[] locationOnScreen = new int[2];
+    private final PointF lastPoint = new PointF();
 
-    private Boolean allowLeftSwipe = true;
-    private Boolean allowTopSwipe = true;
-    private Boolean allowRightSwipe = true;
-    private Boolean allowBottomSwipe = true;
+
+    private int hardwareLayerPolicy = SwipeableAdapter.DEFAULT_HARDWARE_LAYER_POLICY;
+    private int hardwareLayerMinChildCount;
+    private boolean hardwareLayerForCardBelow;
+    private int cardDescendantCount;
+    private View layeredCard;
+    private View layeredCardBelow;
 
 
     public void setAllowBottomSwipe(Boolean allowBottomSwipe) {
-        this.allowBottomSwipe = allowBottomSwipe;
+        gestureDetector.setAllowBottomSwipe(allowBottomSwipe);
     }
 
     public void setAllowLeftSwipe(Boolean allowLeftSwipe) {
-        this.allowLeftSwipe = allowLeftSwipe;
+        gestureDetector.setAllowLeftSwipe(allowLeftSwipe);
     }
 
     public void setAllowRightSwipe(Boolean allowRightSwipe) {
-        this.allowRightSwipe = allowRightSwipe;
+        gestureDetector.setAllowRightSwipe(allowRightSwipe);
     }
 
     public void setAllowTopSwipe(Boolean allowTopSwipe) {
-        this.allowTopSwipe = allowTopSwipe;
+        gestureDetector.setAllowTopSwipe(allowTopSwipe);
+    }
+
+    /**
+     * Decides which cards get a hardware layer while they are dragged or animated
+     *
+     * @param policy           one of {@link SwipeableAdapter#HARDWARE_LAYER_ALWAYS},
+     *                         {@link SwipeableAdapter#HARDWARE_LAYER_COMPLEX_CARDS} or {@link SwipeableAdapter#HARDWARE_LAYER_NEVER}
+     * @param minChildCount    the number of descendant views a card must contain for
+     *                         {@link SwipeableAdapter#HARDWARE_LAYER_COMPLEX_CARDS} to put it on a layer
+     * @param includeCardBelow whether the card revealed under the moving one is put on a layer as well
+     */
+    void setHardwareLayerPolicy(int policy, int minChildCount, boolean includeCardBelow) {
+        this.hardwareLayerPolicy = policy;
+        this.hardwareLayerMinChildCount = minChildCount;
+        this.hardwareLayerForCardBelow = includeCardBelow;
+    }
+
+    void setExitCommitListener(@Nullable ExitCommitListener exitCommitListener) {
+        this.exitCommitListener = exitCommitListener;
+    }
+
+    void setCardBelowLayerListener(@Nullable CardBelowLayerListener cardBelowLayerListener) {
+        this.cardBelowLayerListener = cardBelowLayerListener;
+    }
+
+    void setMetrics(@Nullable SwipeMetrics metrics) {
+        this.metrics = metrics;
     }
 
     public FlingCardListener(View frame, Object itemAtPosition,
@@ -142,121 +189,129 @@ class FlingCardListener implements View.OnTouchListener {
                              float rotation_degrees,
                              @Nullable FlingExitListener flingExitListener,
                              @Nullable ClickListener clickListener) {
+        this(rotation_degrees, new TouchConfiguration(frame.getContext()), flingExitListener, clickListener);
+        bind(frame, itemAtPosition);
+    }
+
+    /**
+     * Creates a listener that is not attached to any view yet, call {@link #bind(View, Object)}
+     * every time it should start handling the touches of a card
+     *
+     * @param touchConfiguration the system touch thresholds, usually shared by all the cards of an adapter
+     */
+    FlingCardListener(float rotation_degrees,
+                      TouchConfiguration touchConfiguration,
+                      @Nullable FlingExitListener flingExitListener,
+                      @Nullable ClickListener clickListener) {
         super();
-        this.frame = frame;
-        this.objectX = frame.getX();
-        this.objectY = frame.getY();
-        this.objectH = frame.getHeight();
-        this.objectW = frame.getWidth();
-        this.halfWidth = objectW / 2f;
-        this.halfHeight = objectH / 2f;
-        this.dataObject = itemAtPosition;
-        this.parentWidth = ((ViewGroup) frame.getParent()).getWidth();
-        this.parentHeight = ((ViewGroup) frame.getParent()).getHeight();
-        this.BASE_ROTATION_DEGREES = rotation_degrees;
         this.mFlingExitListener = flingExitListener;
         this.clickListener = clickListener;
 
         mVelocityTracker = VelocityTracker.obtain();
 
-        Context context = frame.getContext();
+        mMaximumVelocity = touchConfiguration.maximumVelocity;
+        gestureDetector = new SwipeGestureDetector(touchConfiguration.touchSlop, touchConfiguration.minimumVelocity);
+        gestureDetector.setBaseRotation(rotation_degrees);
 
-        //Get system constants for touch thresholds
-        mTouchSlop = ViewConfiguration.get(context).getScaledTouchSlop();
-        mMaximumVelocity = ViewConfiguration.get(context).getScaledMaximumFlingVelocity();
-        mMinimumVelocity = ViewConfiguration.get(context).getScaledMinimumFlingVelocity() + 100;
+        cardAnimator = ValueAnimator.ofFloat(0f, 1f);
+        cardAnimator.setInterpolator(LINEAR_INTERPOLATOR);
+        cardAnimator.addUpdateListener(cardAnimation);
+    }
+
+
+    /**
+     * Starts handling the touches of the given view, its current position is taken as the resting position
+     * of the card so it should have been laid out already
+     *
+     * @param frame          the card to be swiped
+     * @param itemAtPosition the object passed back to the listeners along with the card
+     */
+    @SuppressLint("ClickableViewAccessibility")
+    void bind(View frame, Object itemAtPosition) {
+        if (this.frame != null && this.frame != frame) {
+            unbind();
+        }
+        cardAnimator.cancel();
+        isAnimationRunning = false;
+
+        this.frame = frame;
+        this.dataObject = itemAtPosition;
+        ViewGroup parent = (ViewGroup) frame.getParent();
+        gestureDetector.setCardBounds(frame.getX(), frame.getY(), frame.getWidth(), frame.getHeight(),
+                parent.getWidth(), parent.getHeight());
+        this.cardDescendantCount = countDescendants(frame);
 
-        X_DIRECTION_THRESHOLD = mTouchSlop * 2;
+        mActivePointerId = INVALID_POINTER_ID;
+
+        frame.setOnTouchListener(this);
     }
 
+    /**
+     * Stops handling the touches of the currently bound view, an exit animation that is already running
+     * is left to finish
+     */
+    @SuppressLint("ClickableViewAccessibility")
+    void unbind() {
+        if (frame == null) {
+            return;
+        }
+        frame.setOnTouchListener(null);
+        stopHardwareLayers();
+        mVelocityTracker.clear();
+        mActivePointerId = INVALID_POINTER_ID;
+    }
+
+    /**
+     * Unbinds the listener and gives back its {@link VelocityTracker}, the listener must not be used afterwards
+     */
+    void release() {
+        unbind();
+        cardAnimator.cancel();
+        mVelocityTracker.recycle();
+        frame = null;
+        dataObject = null;
+    }
 
     @SuppressLint("ClickableViewAccessibility")
     @Override
     public boolean onTouch(View view, MotionEvent event) {
+        // a committed card finishes its exit whatever the finger does, its exit callbacks have to be delivered
+        if (isAnimationRunning) {
+            return false;
+        }
+        touchEventCount++;
 
         switch (event.getAction() & MotionEvent.ACTION_MASK) {
             case MotionEvent.ACTION_DOWN:
-                pressStartTime = System.currentTimeMillis();
+                touchEventCount = 1;
+                // The card has been caught while going back to its place, let the finger take over
+                cardAnimator.cancel();
 
                 // from http://android-developers.blogspot.com/2010/06/making-sense-of-multitouch.html
                 // Save the ID of this pointer
 
                 mActivePointerId = event.getPointerId(0);
-                float x = 0;
-                float y = 0;
-                boolean success = false;
                 int pointerIndexOnDown = event.findPointerIndex(mActivePointerId);
-                success = !isValidIndex(event.getPointerCount(), pointerIndexOnDown);
+                boolean success = !isValidIndex(event.getPointerCount(), pointerIndexOnDown);
 
 
                 if (success) {
-                    x = event.getX(pointerIndexOnDown);
-                    y = event.getY(pointerIndexOnDown);
-
-                    // Remember where we started
-                    aDownTouchX = x;
-                    aDownTouchY = y;
-
-                    int viewX = (int) frame.getX();
-                    int viewY = (int) frame.getY();
-
-                    int[] locationOnScreen = new int[2];
+                    // the click regions are resolved against where the card was on screen when touched
                     frame.getLocationOnScreen(locationOnScreen);
 
-                    int onScreenLocationX = locationOnScreen[0];
-                    int onScreenLocationY = locationOnScreen[1];
-
-                    topRect = new RectF(onScreenLocationX,
-                            onScreenLocationY,
-                            onScreenLocationX + objectW,
-                            (int) (onScreenLocationY + objectH * 0.25));
-
-                    bottomRect = new RectF(onScreenLocationX,
-                            (int) (onScreenLocationY + objectH * 0.75),
-                            onScreenLocationX + objectW,
-                            (int) (onScreenLocationY + objectH));
-
-                    leftRect = new RectF(onScreenLocationX,
-                            onScreenLocationY,
-                            (int) (onScreenLocationX + objectW * 0.25),
-                            (onScreenLocationY + objectH));
-
-                    rightRect = new RectF((int) (onScreenLocationX + objectW * 0.75),
-                            onScreenLocationY,
-                            onScreenLocationX + objectW, onScreenLocationY + objectH);
-
-                    //to prevent an initial jump of the magnifier, aposX and aPosY must
-                    //have the values from the magnifier frame
-                    if (aPosX == 0) {
-                        aPosX = frame.getX();
-                        initialX = frame.getX();
-                    }
-                    if (aPosY == 0) {
-                        aPosY = frame.getY();
-                        initialY = frame.getY();
-                    }
-
-                    if (y < objectH / 2) {
-                        touchPosition = TOUCH_ABOVE;
-                    } else {
-                        touchPosition = TOUCH_BELOW;
-                    }
+                    gestureDetector.onDown(event.getX(pointerIndexOnDown), event.getY(pointerIndexOnDown),
+                            event.getEventTime(), frame.getX(), frame.getY());
 
                     //Reset the velocity tracker
                     mVelocityTracker.clear();
                     mVelocityTracker.addMovement(event);
-
                 }
 
                 view.getParent().requestDisallowInterceptTouchEvent(true);
                 break;
 
             case MotionEvent.ACTION_UP:
-
-                long pressDuration = System.currentTimeMillis() - pressStartTime;
-
-
-                mDragging = false;
+                long upNanos = metrics != null ? System.nanoTime() : 0;
 
                 // Compute the current velocity and start a fling if it is above
                 // the minimum threshold.
@@ -264,91 +319,52 @@ class FlingCardListener implements View.OnTouchListener {
 
                 int velocityX = (int) mVelocityTracker.getXVelocity();
                 int velocityY = (int) mVelocityTracker.getYVelocity();
+                releaseVelocityX = velocityX;
+                releaseVelocityY = velocityY;
 
                 // Find the index of the active pointer and fetch its position
                 int pointerIndexMove = event.findPointerIndex(mActivePointerId);
                 if (isValidIndex(event.getPointerCount(), pointerIndexMove))
                     return false;
 
-                float xMove = event.getX(pointerIndexMove);
-                float yMove = event.getY(pointerIndexMove);
-
-                //Determine the direction of the fling, LEFT = 1, RIGHT = 0
-                float traveledDistanceOnX = aPosX - initialX;
-                float traveledDistanceOnY = aPosY - initialY;
-                if (!mDragging && (pressDuration < MAX_CLICK_DURATION && ((Math.abs(traveledDistanceOnX) < mTouchSlop)
-                        || (Math.abs(traveledDistanceOnY) < mTouchSlop)))) {
-
-                    //Get the raw coordinates of the pointer on the screen
-                    float rawPointerX = event.getRawX();
-                    float rawPointerY = event.getRawY();
-
-                    if (bottomRect.contains((int) rawPointerX, (int) rawPointerY)) {
-                        if (clickListener != null) {
-                            clickListener.onClick(frame, dataObject, BOTTOM);
-                        }
-                    } else if (topRect.contains((int) rawPointerX, (int) rawPointerY)) {
-                        if (clickListener != null) {
-                            clickListener.onClick(frame, dataObject, TOP);
+                releaseNanos = upNanos;
+                switch (gestureDetector.onUp(event.getEventTime(), velocityX, velocityY)) {
+                    case SwipeGestureDetector.RELEASE_CLICK:
+                        //Get the raw coordinates of the pointer on the screen
+                        int clickRegion = gestureDetector.getClickRegion(
+                                (int) event.getRawX() - locationOnScreen[0],
+                                (int) event.getRawY() - locationOnScreen[1]);
+                        if (clickRegion != SwipeGestureDetector.DIRECTION_NONE && clickListener != null) {
+                            clickListener.onClick(frame, dataObject, clickRegion);
                         }
-                    } else {
-                        if (leftRect.contains((int) rawPointerX, (int) rawPointerY)) {
-                            if (clickListener != null) {
-                                clickListener.onClick(frame, dataObject, LEFT);
-                            }
-                        } else if (rightRect.contains((int) rawPointerX, (int) rawPointerY)) {
-                            if (clickListener != null) {
-                                clickListener.onClick(frame, dataObject, RIGHT);
-                            }
-                        }
-                    }
-                    resetCardViewOnStackOrRemoveIt();
-                } else {
-                    if (Math.abs(velocityX) > mMinimumVelocity || Math.abs(velocityY) > mMinimumVelocity) {
-                        switch (onFlingDirection((objectX + objectW) / 2, aPosX, (objectY + objectH) / 2, aPosY)) {
-                            case up:
-                                if (Math.abs(traveledDistanceOnY) >= Y_DIRECTION_THRESHOLD
-                                        && movedBeyondTopBorder()) {
-                                    selectTop();
-                                } else {
-                                    resetCardViewOnStackOrRemoveIt();
-                                }
+                        resetCardViewOnStackOrRemoveIt();
+                        break;
+                    case SwipeGestureDetector.RELEASE_FLING:
+                        // the card carries on along its trajectory at the speed it was flung
+                        switch (gestureDetector.getFlingDirection()) {
+                            case SwipeGestureDetector.DIRECTION_TOP:
+                                onReleasedY(true);
                                 break;
-                            case down:
-                                if (Math.abs(traveledDistanceOnY) >= Y_DIRECTION_THRESHOLD
-                                        && movedBeyondBottomBorder()) {
-                                    selectBottom();
-                                } else {
-                                    resetCardViewOnStackOrRemoveIt();
-                                }
+                            case SwipeGestureDetector.DIRECTION_BOTTOM:
+                                onReleasedY(false);
                                 break;
-                            case left:
-                                if (Math.abs(traveledDistanceOnX) >= X_DIRECTION_THRESHOLD
-                                        && movedBeyondLeftBorder()) {
-                                    selectLeftToDirection();
-                                } else {
-                                    resetCardViewOnStackOrRemoveIt();
-                                }
+                            case SwipeGestureDetector.DIRECTION_LEFT:
+                                onReleased(true);
+                                break;
+                            case SwipeGestureDetector.DIRECTION_RIGHT:
+                                onReleased(false);
                                 break;
-                            case right:
-                                if (Math.abs(traveledDistanceOnX) >= X_DIRECTION_THRESHOLD
-                                        && movedBeyondRightBorder()) {
-                                    selectRightToDirection();
-                                } else {
-                                    resetCardViewOnStackOrRemoveIt();
-                                }
-                            default: {
-                                resetCardViewOnStackOrRemoveIt();
-                            }
                         }
-                    } else {
+                        break;
+                    default:
                         resetCardViewOnStackOrRemoveIt();
-                    }
                 }
 
 
                 view.getParent().requestDisallowInterceptTouchEvent(false);
                 mActivePointerId = INVALID_POINTER_ID;
+                releaseNanos = 0;
+                dispatchGestureEnded();
 
                 break;
 
@@ -377,54 +393,44 @@ class FlingCardListener implements View.OnTouchListener {
                 if (isValidIndex(event.getPointerCount(), pointerIndexMove))
                     return false;
 
-                xMove = event.getX(pointerIndexMove);
-                yMove = event.getY(pointerIndexMove);
+                float xMove = event.getX(pointerIndexMove);
+                float yMove = event.getY(pointerIndexMove);
                 if (Float.isNaN(xMove)
                         || Float.isNaN(yMove)) break;
 
-                //from http://android-developers.blogspot.com/2010/06/making-sense-of-multitouch.html
-                // Calculate the distance moved
-                final float dx = xMove - aDownTouchX;
-                final float dy = yMove - aDownTouchY;
-
-                //Check for slop on direct events
-                if (!mDragging && (Math.abs(dy) > mTouchSlop || Math.abs(dx) > mTouchSlop)) {
-                    mDragging = true;
+                // The samples batched since the last frame only refine the estimate of the fling,
+                // the card itself follows the latest one
+                final int historySize = event.getHistorySize();
+                for (int h = 0; h < historySize; h++) {
+                    gestureDetector.onHistoricalMove(event.getHistoricalX(pointerIndexMove, h),
+                            event.getHistoricalY(pointerIndexMove, h),
+                            event.getHistoricalEventTime(h));
                 }
 
-
-                // Move the frame
-                aPosX += dx * 0.5;
-                aPosY += dy * 0.5;
-
-                // calculate the rotation degrees
-                float distobjectX = aPosX - objectX;
-                float rotation = BASE_ROTATION_DEGREES * 2.f * distobjectX / parentWidth;
-                if (touchPosition == TOUCH_BELOW) {
-                    rotation = -rotation;
+                if (gestureDetector.onMove(xMove, yMove, event.getEventTime())) {
+                    startHardwareLayers();
                 }
 
                 //in this area would be code for doing something with the view as the frame moves.
-                frame.setX(aPosX);
-                frame.setY(aPosY);
+                frame.setX(gestureDetector.getCardX());
+                frame.setY(gestureDetector.getCardY());
 
-                frame.setRotation(rotation);
-                if (mFlingExitListener != null) {
-                    mFlingExitListener.onScroll(frame, getScrollProgressPercentX(),
-                            getScrollProgressPercentY(), 0);
-                }
+                frame.setRotation(gestureDetector.getRotation());
+                dispatchScroll();
                 break;
 
             case MotionEvent.ACTION_CANCEL: {
                 mActivePointerId = INVALID_POINTER_ID;
+                releaseVelocityX = 0;
+                releaseVelocityY = 0;
                 view.getParent().requestDisallowInterceptTouchEvent(false);
 
                 //Stop any flinging in progress
-                if (mDragging) {
-                    mDragging = false;
+                if (gestureDetector.isDragging()) {
                     abortFlingAnimation();
                 }
                 resetCardViewOnStackOrRemoveIt();
+                dispatchGestureEnded();
                 break;
             }
         }
@@ -432,36 +438,10 @@ class FlingCardListener implements View.OnTouchListener {
         return true;
     }
 
-
-    /**
-     * https://stackoverflow.com/a/26387629/3991044
-     *
-     * @param x1
-     * @param x2
-     * @param y1
-     * @param y2
-     * @return
-     */
-    private Direction onFlingDirection(float x1, float x2, float y1, float y2) {
-        // Grab two events located on the plane at e1=(x1, y1) and e2=(x2, y2)
-        // Let e1 be the initial event
-        // e2 can be located at 4 different positions, consider the following diagram
-        // (Assume that lines are separated by 90 degrees.)
-        //
-        //
-        //         \ A  /
-        //          \  /
-        //       D   e1   B
-        //          /  \
-        //         / C  \
-        //
-        // So if (x2,y2) falls in region:
-        //  A => it's an UP swipe
-        //  B => it's a RIGHT swipe
-        //  C => it's a DOWN swipe
-        //  D => it's a LEFT swipe
-        //
-        return getDirection(x1, y1, x2, y2);
+    private void dispatchGestureEnded() {
+        if (metrics != null) {
+            metrics.onGestureEnded(touchEventCount);
+        }
     }
 
 
@@ -476,9 +456,7 @@ class FlingCardListener implements View.OnTouchListener {
      * @return the direction
      */
     public Direction getDirection(float x1, float y1, float x2, float y2) {
-        double angle = getAngle(x1, y1, x2, y2);
-//        double angle = getAngle(Math.abs(x1), Math.abs(y1), Math.abs(x2), Math.abs(y2));
-        return Direction.fromAngle(angle);
+        return Direction.between(x1, y1, x2, y2);
     }
 
     /**
@@ -493,57 +471,80 @@ class FlingCardListener implements View.OnTouchListener {
      * @return the angle between two points
      */
     public double getAngle(float x1, float y1, float x2, float y2) {
-//        double rad = Math.atan2(y2 - y1, x2 - x1) + Math.PI;
-//        return (rad * 180 / Math.PI + 180) % 360;
-        float angle = (float) Math.toDegrees(Math.atan2(y2 - y1, x2 - x1));
-        if (angle < 0) {
-            angle += 360;
-        }
-
-        return angle;
+        return Direction.getAngle(x1, y1, x2, y2);
     }
 
+    /**
+     * Moving a card on a hardware layer only re-composites the layer, the views inside the card are not
+     * redrawn on every frame. The layers are dropped again by {@link #stopHardwareLayers()} once the card rests
+     */
+    private void startHardwareLayers() {
+        if (layeredCard != null || !shouldUseHardwareLayer(frame)) {
+            return;
+        }
+        layeredCard = frame;
+        frame.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+
+        if (hardwareLayerForCardBelow) {
+            View cardBelow = getCardBelow();
+            if (cardBelow != null && cardBelow.getLayerType() == View.LAYER_TYPE_NONE) {
+                layeredCardBelow = cardBelow;
+                cardBelow.setLayerType(View.LAYER_TYPE_HARDWARE, null);
+            }
+        }
+    }
 
-    public enum Direction {
-        up,
-        down,
-        left,
-        right;
-
-        /**
-         * Returns a direction given an angle.
-         * Directions are defined as follows:
-         * <p>
-         * Up: [45, 135]
-         * Right: [0,45] and [315, 360]
-         * Down: [225, 315]
-         * Left: [135, 225]
-         *
-         * @param angle an angle from 0 to 360 - e
-         * @return the direction of an angle
-         */
-        public static Direction fromAngle(double angle) {
-            if (inRange(angle, 45, 135)) {
-                return Direction.up;
-            } else if (inRange(angle, 0, 45) || inRange(angle, 315, 360)) {
-                return Direction.right;
-            } else if (inRange(angle, 225, 315)) {
-                return Direction.down;
-            } else {
-                return Direction.left;
+    private void stopHardwareLayers() {
+        if (layeredCard != null) {
+            layeredCard.setLayerType(View.LAYER_TYPE_NONE, null);
+            layeredCard = null;
+        }
+        if (layeredCardBelow != null) {
+            View cardBelow = layeredCardBelow;
+            layeredCardBelow = null;
+            cardBelow.setLayerType(View.LAYER_TYPE_NONE, null);
+            if (cardBelowLayerListener != null) {
+                cardBelowLayerListener.onCardBelowLayerDropped(cardBelow);
             }
+        }
+    }
 
+    private boolean shouldUseHardwareLayer(View card) {
+        // a layer type set by the card itself is left alone, and without hardware acceleration
+        // the layer would be a software bitmap which costs more than it saves
+        if (card.getLayerType() != View.LAYER_TYPE_NONE || !card.isHardwareAccelerated()) {
+            return false;
+        }
+        switch (hardwareLayerPolicy) {
+            case SwipeableAdapter.HARDWARE_LAYER_ALWAYS:
+                return true;
+            case SwipeableAdapter.HARDWARE_LAYER_COMPLEX_CARDS:
+                return cardDescendantCount >= hardwareLayerMinChildCount;
+            default:
+                return false;
         }
+    }
 
-        /**
-         * @param angle an angle
-         * @param init  the initial bound
-         * @param end   the final bound
-         * @return returns true if the given angle is in the interval [init, end).
-         */
-        private static boolean inRange(double angle, float init, float end) {
-            return (angle >= init) && (angle < end);
+    @Nullable
+    private View getCardBelow() {
+        ViewGroup parent = (ViewGroup) frame.getParent();
+        if (parent == null) {
+            return null;
         }
+        int index = parent.indexOfChild(frame);
+        return index > 0 ? parent.getChildAt(index - 1) : null;
+    }
+
+    private static int countDescendants(View view) {
+        if (!(view instanceof ViewGroup)) {
+            return 0;
+        }
+        ViewGroup viewGroup = (ViewGroup) view;
+        int count = viewGroup.getChildCount();
+        for (int i = 0; i < viewGroup.getChildCount(); i++) {
+            count += countDescendants(viewGroup.getChildAt(i));
+        }
+        return count;
     }
 
     private boolean isValidIndex(int pointerCount, int pointerIndexMove) {
@@ -551,113 +552,92 @@ class FlingCardListener implements View.OnTouchListener {
     }
 
     private void abortFlingAnimation() {
-        if (isAnimationRunning && animator != null) {
-            animator.cancel();
+        if (isAnimationRunning) {
+            // jumps to the end of the exit so the exit callbacks are still delivered
+            cardAnimator.end();
         }
     }
 
-    private float getScrollProgressPercentX() {
-        if (movedBeyondLeftBorder()) {
-            return -1f;
-        } else if (movedBeyondRightBorder()) {
-            return 1f;
-        } else {
-            float zeroToOneValue = (aPosX + halfWidth - leftBorder()) / (rightBorder() - leftBorder());
-            return zeroToOneValue * 2f - 1f;
-        }
-    }
-
-
-    private float getScrollProgressPercentY() {
-        if (movedBeyondTopBorder()) {
-            return -1f;
-        } else if (movedBeyondBottomBorder()) {
-            return 1f;
-        } else {
-            float zeroToOneValue = (aPosY + halfHeight - topBorder()) / (bottomBorder() - topBorder());
-            return zeroToOneValue * 2f - 1f;
+    private void dispatchScroll() {
+        if (mFlingExitListener != null) {
+            mFlingExitListener.onScroll(frame, gestureDetector.getScrollProgressX(),
+                    gestureDetector.getScrollProgressY(), 0);
         }
     }
 
     private boolean resetCardViewOnStackOrRemoveIt() {
-        if (movedBeyondLeftBorder()) {
-            // Left Swipe
-            onSelected(true, getExitPoint(-objectW), 100);
-            if (mFlingExitListener != null) {
-                mFlingExitListener.onScroll(frame, getScrollProgressPercentX(), getScrollProgressPercentY(), 0);
-            }
-        } else if (movedBeyondRightBorder()) {
-            // Right Swipe
-            onSelected(false, getExitPoint(parentWidth), 100);
-            if (mFlingExitListener != null) {
-                mFlingExitListener.onScroll(frame, getScrollProgressPercentX(), getScrollProgressPercentY(), 0);
-            }
-        } else if (movedBeyondTopBorder()) {
-            //top swipe
-            selectTop();
-            if (mFlingExitListener != null) {
-                mFlingExitListener.onScroll(frame, getScrollProgressPercentX(), getScrollProgressPercentY(), 0);
-            }
-        } else if (movedBeyondBottomBorder()) {
-            //bottom swipe
-            selectBottom();
-            if (mFlingExitListener != null) {
-                mFlingExitListener.onScroll(frame, getScrollProgressPercentX(), getScrollProgressPercentY(), 0);
-            }
-        } else {
-            float abslMoveDistance = Math.abs(aPosX - objectX);
-            aPosX = 0;
-            aPosY = 0;
-            aDownTouchX = 0;
-            aDownTouchY = 0;
-            frame.animate()
-                    .setDuration(200)
-                    .setInterpolator(new DecelerateInterpolator(0.5f))
-                    .x(objectX)
-                    .y(objectY)
-                    .scaleXBy(0)
-                    .scaleYBy(0)
-                    .rotation(0)
-                    .start();
-            if (mFlingExitListener != null) {
-                mFlingExitListener.onScroll(frame, 0.0f, 0.0f, 0);
-            }
-
+        switch (gestureDetector.getSettleDirection()) {
+            case SwipeGestureDetector.DIRECTION_LEFT:
+                // Left Swipe
+                onReleased(true);
+                dispatchScroll();
+                break;
+            case SwipeGestureDetector.DIRECTION_RIGHT:
+                // Right Swipe
+                onReleased(false);
+                dispatchScroll();
+                break;
+            case SwipeGestureDetector.DIRECTION_TOP:
+                //top swipe
+                onReleasedY(true);
+                dispatchScroll();
+                break;
+            case SwipeGestureDetector.DIRECTION_BOTTOM:
+                //bottom swipe
+                onReleasedY(false);
+                dispatchScroll();
+                break;
+            default:
+                springBack();
+                if (mFlingExitListener != null) {
+                    mFlingExitListener.onScroll(frame, 0.0f, 0.0f, 0);
+                }
         }
         return false;
     }
 
-    private boolean movedBeyondLeftBorder() {
-        return allowLeftSwipe && aPosX + halfWidth < leftBorder();
-    }
-
-    private boolean movedBeyondRightBorder() {
-        return allowRightSwipe && aPosX + halfWidth > rightBorder();
-    }
 
-    private boolean movedBeyondTopBorder() {
-        return allowTopSwipe && aPosY + halfHeight < topBorder();
+    /**
+     * Stops the exit of the card where it is, none of the exit callbacks is called for it
+     */
+    void cancelExit() {
+        cardAnimator.cancel();
+        stopHardwareLayers();
+        isAnimationRunning = false;
     }
 
-    private boolean movedBeyondBottomBorder() {
-        return allowBottomSwipe && aPosY + halfHeight > bottomBorder();
+    /**
+     * Stops handling the touches of the card while its exit keeps running, so the card below can be dragged
+     * meanwhile. The card below is taken off its layer as it is about to get a listener of its own
+     */
+    @SuppressLint("ClickableViewAccessibility")
+    void detachFromTouch() {
+        if (frame == null) {
+            return;
+        }
+        frame.setOnTouchListener(null);
+        mVelocityTracker.clear();
+        mActivePointerId = INVALID_POINTER_ID;
+        if (layeredCardBelow != null) {
+            layeredCardBelow.setLayerType(View.LAYER_TYPE_NONE, null);
+            layeredCardBelow = null;
+        }
     }
 
-
     public float leftBorder() {
-        return parentWidth / 4.f;
+        return gestureDetector.leftBorder();
     }
 
     public float rightBorder() {
-        return 3 * parentWidth / 4.f;
+        return gestureDetector.rightBorder();
     }
 
     public float topBorder() {
-        return parentHeight / 4.f;
+        return gestureDetector.topBorder();
     }
 
     public float bottomBorder() {
-        return 3 * parentHeight / 4.f;
+        return gestureDetector.bottomBorder();
     }
 
 
@@ -665,85 +645,205 @@ class FlingCardListener implements View.OnTouchListener {
                             float exitY, long duration) {
 
         isAnimationRunning = true;
-        float exitX;
-        if (isLeft) {
-            exitX = -objectW - getRotationWidthOffset();
-        } else {
-            exitX = parentWidth + getRotationWidthOffset();
-        }
-
-        animator = this.frame.animate()
-                .setDuration(duration)
-                .setInterpolator(new DecelerateInterpolator(0.5f))
-                .x(exitX)
-                .y(exitY)
-                .rotation(getExitRotation(isLeft))
-                .setListener(new AnimatorListenerAdapter() {
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        if (isLeft) {
-                            if (mFlingExitListener != null) {
-                                mFlingExitListener.leftExit(frame, dataObject, 0);
-                            }
-                        } else {
-                            if (mFlingExitListener != null) {
-                                mFlingExitListener.rightExit(frame, dataObject, 0);
-                            }
-                        }
-                        isAnimationRunning = false;
-                        animator = null;
-                        if (mFlingExitListener != null) {
-                            mFlingExitListener.onCardExited(frame, objectX, objectY, 0);
-                        }
-                    }
-                });
+        dispatchExitCommitted(isLeft ? LEFT : RIGHT);
+        animateCard(getExitX(isLeft), exitY, gestureDetector.getExitRotation(isLeft), duration,
+                isLeft ? LEFT : RIGHT, false);
     }
 
     private void onSelectedY(final boolean isTop,
                              float exitX, long duration) {
 
         isAnimationRunning = true;
-        float exitY;
+        dispatchExitCommitted(isTop ? TOP : BOTTOM);
+        animateCard(exitX, getExitY(isTop), 0, duration, isTop ? TOP : BOTTOM, false);
+    }
+
+    /**
+     * Called before the exit animation starts, so that even an exit ending right away is committed first
+     */
+    private void dispatchExitCommitted(int exitDirection) {
+        if (metrics != null && releaseNanos != 0) {
+            metrics.onReleaseCommitted(System.nanoTime() - releaseNanos);
+        }
+        if (exitCommitListener != null) {
+            exitCommitListener.onExitCommitted(frame, dataObject, exitDirection);
+        }
+    }
+
+    /**
+     * Lets the card go out to the left or the right along its trajectory, at the speed it was released
+     */
+    private void onReleased(boolean isLeft) {
+        float exitX = getExitX(isLeft);
+        float exitY = gestureDetector.getExitY(exitX);
+        onSelected(isLeft, exitY, getReleaseExitDuration(exitX, exitY));
+    }
+
+    /**
+     * Lets the card go out to the top or the bottom from where it is, at the speed it was released
+     */
+    private void onReleasedY(boolean isTop) {
+        float exitX = frame.getX();
+        onSelectedY(isTop, exitX, getReleaseExitDuration(exitX, getExitY(isTop)));
+    }
+
+    private long getReleaseExitDuration(float exitX, float exitY) {
+        float fromX = frame.getX();
+        float fromY = frame.getY();
+        float distance = (float) Math.hypot(exitX - fromX, exitY - fromY);
+        float speed = CardMotion.getSpeedTowards(fromX, fromY, exitX, exitY, releaseVelocityX, releaseVelocityY);
+        return CardMotion.getExitDuration(distance, speed, MIN_RELEASE_EXIT_DURATION, MAX_RELEASE_EXIT_DURATION);
+    }
+
+    /**
+     * Puts the card back in place on a spring started with the release velocity, so it keeps moving the way
+     * the finger did for a moment instead of turning around at once
+     */
+    private void springBack() {
+        gestureDetector.resetPosition();
+        float restX = gestureDetector.getRestX();
+        float restY = gestureDetector.getRestY();
+        cardMotion.startSpring(frame.getX() - restX, frame.getY() - restY, releaseVelocityX, releaseVelocityY);
+        animateCard(restX, restY, 0, cardMotion.getSpringDuration(), NO_EXIT, true);
+    }
+
+    private float getExitX(boolean isLeft) {
+        if (isLeft) {
+            return -gestureDetector.getCardWidth() - gestureDetector.getRotationWidthOffset();
+        }
+        return gestureDetector.getParentWidth() + gestureDetector.getRotationWidthOffset();
+    }
+
+    private float getExitY(boolean isTop) {
         if (isTop) {
-            exitY = -objectH - getRotationWidthOffset();
-        } else {
-            exitY = parentHeight + getRotationWidthOffset();
+            return -gestureDetector.getCardHeight() - gestureDetector.getRotationWidthOffset();
         }
+        return gestureDetector.getParentHeight() + gestureDetector.getRotationWidthOffset();
+    }
 
-        animator = this.frame.animate()
-                .setDuration(duration)
-                .setInterpolator(new DecelerateInterpolator(0.5f))
-                .x(exitX)
-                .y(exitY)
-                .rotation(0)
-                .setListener(new AnimatorListenerAdapter() {
-                    @Override
-                    public void onAnimationEnd(Animator animation) {
-                        if (isTop) {
-                            if (mFlingExitListener != null) {
-                                mFlingExitListener.topExit(frame, dataObject, 0);
-                            }
-                        } else {
-                            if (mFlingExitListener != null) {
-                                mFlingExitListener.bottomExit(frame, dataObject, 0);
-                            }
-                        }
-                        isAnimationRunning = false;
-                        animator = null;
-                        if (mFlingExitListener != null) {
-                            mFlingExitListener.onCardExited(frame, objectX, objectY, 0);
-                        }
-                    }
-                });
+    /**
+     * Moves the card from where it currently is to the given position using the single animator owned
+     * by this listener
+     *
+     * @param exitDirection the direction the card leaves the stack to, or {@link #NO_EXIT} if it goes back in place
+     * @param followsSpring whether the card follows the spring started on {@link #cardMotion} instead of going
+     *                      straight to the given position
+     */
+    private void animateCard(float toX, float toY, float toRotation, long duration, int exitDirection,
+                             boolean followsSpring) {
+        cardAnimator.cancel();
+        cardAnimation.fromX = frame.getX();
+        cardAnimation.fromY = frame.getY();
+        cardAnimation.fromRotation = frame.getRotation();
+        cardAnimation.toX = toX;
+        cardAnimation.toY = toY;
+        cardAnimation.toRotation = toRotation;
+        cardAnimation.exitDirection = exitDirection;
+        cardAnimation.followsSpring = followsSpring;
+        cardAnimator.setDuration(duration);
+        startHardwareLayers();
+        cardAnimator.start();
+    }
+
+    private void onCardAnimationEnd(int exitDirection) {
+        stopHardwareLayers();
+        if (exitDirection == NO_EXIT) {
+            return;
+        }
+        isAnimationRunning = false;
+        if (mFlingExitListener == null) {
+            return;
+        }
+        switch (exitDirection) {
+            case LEFT:
+                mFlingExitListener.leftExit(frame, dataObject, 0);
+                break;
+            case RIGHT:
+                mFlingExitListener.rightExit(frame, dataObject, 0);
+                break;
+            case TOP:
+                mFlingExitListener.topExit(frame, dataObject, 0);
+                break;
+            case BOTTOM:
+                mFlingExitListener.bottomExit(frame, dataObject, 0);
+                break;
+        }
+        mFlingExitListener.onCardExited(frame, gestureDetector.getRestX(), gestureDetector.getRestY(), 0);
+    }
+
+    /**
+     * Drives the card from the animated fraction, the animator has no {@link android.animation.Animator.AnimatorListener}
+     * on purpose since those get copied on every start and end of an animation
+     */
+    private class CardAnimation implements ValueAnimator.AnimatorUpdateListener {
+        private float fromX;
+        private float fromY;
+        private float fromRotation;
+        private float toX;
+        private float toY;
+        private float toRotation;
+        private int exitDirection = NO_EXIT;
+        private boolean followsSpring;
+
+        @Override
+        public void onAnimationUpdate(ValueAnimator animation) {
+            float fraction = animation.getAnimatedFraction();
+            if (followsSpring) {
+                cardMotion.computeSpring((long) (fraction * animation.getDuration()));
+                frame.setX(toX + cardMotion.getSpringX());
+                frame.setY(toY + cardMotion.getSpringY());
+                // the card tilts with its horizontal offset the way it does while dragged
+                float fromOffsetX = fromX - toX;
+                float tilt = Math.abs(fromOffsetX) >= 1f
+                        ? Math.max(-1f, Math.min(1f, cardMotion.getSpringX() / fromOffsetX))
+                        : 1f - fraction;
+                frame.setRotation(toRotation + (fromRotation - toRotation) * tilt);
+            } else {
+                frame.setX(fromX + (toX - fromX) * fraction);
+                frame.setY(fromY + (toY - fromY) * fraction);
+                frame.setRotation(fromRotation + (toRotation - fromRotation) * fraction);
+            }
+            if (fraction >= 1f) {
+                onCardAnimationEnd(exitDirection);
+            }
+        }
     }
 
 
+    /**
+     * Starts the default exit animation of the given direction, with its duration scaled by the given factor
+     *
+     * @param direction one of {@link #LEFT}, {@link #RIGHT}, {@link #TOP} and {@link #BOTTOM}
+     * @return false if the card is not bound or is already animating, nothing is started then
+     */
+    boolean select(int direction, float durationScale) {
+        if (isAnimationRunning || frame == null) {
+            return false;
+        }
+        switch (direction) {
+            case LEFT:
+                onSelected(true, gestureDetector.getRestY(), (long) (250 * durationScale));
+                return true;
+            case RIGHT:
+                onSelected(false, gestureDetector.getRestY(), (long) (250 * durationScale));
+                return true;
+            case TOP:
+                onSelectedY(true, gestureDetector.getRestX(), (long) (100 * durationScale));
+                return true;
+            case BOTTOM:
+                onSelectedY(false, gestureDetector.getRestX(), (long) (100 * durationScale));
+                return true;
+            default:
+                return false;
+        }
+    }
+
     /**
      * Starts a default left exit animation.
      */
     public void selectLeft() {
         if (!isAnimationRunning)
-            onSelected(true, (float) (objectY - frame.getHeight() * 1.5), 250);
+            onSelected(true, (float) (gestureDetector.getRestY() - frame.getHeight() * 1.5), 250);
     }
 
 
@@ -752,7 +852,7 @@ class FlingCardListener implements View.OnTouchListener {
      */
     public void selectRightTop() {
         if (!isAnimationRunning)
-            onSelected(false, (float) (objectY - frame.getHeight() * 1.5), 250);
+            onSelected(false, (float) (gestureDetector.getRestY() - frame.getHeight() * 1.5), 250);
     }
 
     /**
@@ -760,7 +860,7 @@ class FlingCardListener implements View.OnTouchListener {
      */
     public void selectTop() {
         if (!isAnimationRunning)
-            onSelectedY(true, (float) objectX, 100);
+            onSelectedY(true, gestureDetector.getRestX(), 100);
     }
 
     /**
@@ -768,7 +868,7 @@ class FlingCardListener implements View.OnTouchListener {
      */
     public void selectBottom() {
         if (!isAnimationRunning)
-            onSelectedY(false, (float) objectX, 100);
+            onSelectedY(false, gestureDetector.getRestX(), 100);
     }
 
     /**
@@ -776,7 +876,7 @@ class FlingCardListener implements View.OnTouchListener {
      */
     public void selectRightMiddle() {
         if (!isAnimationRunning)
-            onSelected(false, objectY, 250);
+            onSelected(false, gestureDetector.getRestY(), 250);
     }
 
     /**
@@ -784,7 +884,7 @@ class FlingCardListener implements View.OnTouchListener {
      */
     public void selectRightBottom() {
         if (!isAnimationRunning)
-            onSelected(false, (float) (objectY + frame.getHeight() * 1.5), 250);
+            onSelected(false, (float) (gestureDetector.getRestY() + frame.getHeight() * 1.5), 250);
     }
 
     /**
@@ -792,7 +892,7 @@ class FlingCardListener implements View.OnTouchListener {
      */
     public void selectRightToDirection() {
         if (!isAnimationRunning)
-            onSelected(false, objectY, 250);
+            onSelected(false, gestureDetector.getRestY(), 250);
     }
 
     /**
@@ -800,7 +900,7 @@ class FlingCardListener implements View.OnTouchListener {
      */
     public void dismissInDirection() {
         if (!isAnimationRunning)
-            onSelected(false, objectY, 250);
+            onSelected(false, gestureDetector.getRestY(), 250);
     }
 
     /**
@@ -808,7 +908,7 @@ class FlingCardListener implements View.OnTouchListener {
      */
     public void selectLeftTop() {
         if (!isAnimationRunning)
-            onSelected(true, (float) (objectY - frame.getHeight() * 1.5), 250);
+            onSelected(true, (float) (gestureDetector.getRestY() - frame.getHeight() * 1.5), 250);
     }
 
     /**
@@ -816,7 +916,7 @@ class FlingCardListener implements View.OnTouchListener {
      */
     public void selectLeftBottom() {
         if (!isAnimationRunning)
-            onSelected(true, (float) (objectY + frame.getHeight() * 1.5), 250);
+            onSelected(true, (float) (gestureDetector.getRestY() + frame.getHeight() * 1.5), 250);
     }
 
     /**
@@ -824,7 +924,7 @@ class FlingCardListener implements View.OnTouchListener {
      */
     public void selectLeftMiddle() {
         if (!isAnimationRunning)
-            onSelected(true, objectY, 250);
+            onSelected(true, gestureDetector.getRestY(), 250);
     }
 
     /**
@@ -832,57 +932,31 @@ class FlingCardListener implements View.OnTouchListener {
      */
     public void selectLeftToDirection() {
         if (!isAnimationRunning)
-            onSelected(true, objectY, 250);
-    }
-
-
-    private float getExitPoint(int exitXPoint) {
-        float[] x = new float[2];
-        x[0] = objectX;
-        x[1] = aPosX;
-
-        float[] y = new float[2];
-        y[0] = objectY;
-        y[1] = aPosY;
-
-        LinearRegression regression = new LinearRegression(x, y);
-
-        //Your typical y = ax+b linear regression
-        return (float) regression.slope() * exitXPoint + (float) regression.intercept();
-    }
-
-    private float getExitRotation(boolean isLeft) {
-        float rotation = BASE_ROTATION_DEGREES * 2.f * (parentWidth - objectX) / parentWidth;
-        if (touchPosition == TOUCH_BELOW) {
-            rotation = -rotation;
-        }
-        if (isLeft) {
-            rotation = -rotation;
-        }
-        return rotation;
-    }
-
-    /**
-     * When the object rotates it's width becomes bigger.
-     * The maximum width is at 45 degrees.
-     * <p/>
-     * The below method calculates the width offset of the rotation.
-     */
-    private float getRotationWidthOffset() {
-        return objectW / MAX_COS - objectW;
+            onSelected(true, gestureDetector.getRestY(), 250);
     }
 
 
     public void setRotationDegrees(float degrees) {
-        this.BASE_ROTATION_DEGREES = degrees;
+        gestureDetector.setBaseRotation(degrees);
     }
 
     public boolean isTouching() {
         return this.mActivePointerId != INVALID_POINTER_ID;
     }
 
+    /**
+     * @return the last position of the card, the same instance is updated and returned on every call
+     */
     public PointF getLastPoint() {
-        return new PointF(this.aPosX, this.aPosY);
+        lastPoint.set(gestureDetector.getCardX(), gestureDetector.getCardY());
+        return lastPoint;
+    }
+
+    /**
+     * @return the velocity tracker obtained by this listener, given back to the pool by {@link #release()}
+     */
+    VelocityTracker getVelocityTracker() {
+        return mVelocityTracker;
     }
 
 
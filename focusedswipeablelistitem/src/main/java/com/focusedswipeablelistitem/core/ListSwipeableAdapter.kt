@@ -0,0 +1,130 @@
+package com.focusedswipeablelistitem.core
+
+import android.content.Context
+import android.os.Handler
+import android.os.Looper
+import android.os.Process
+import android.widget.FrameLayout
+import androidx.recyclerview.widget.DiffUtil
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+/**
+ * Adapter of a deck backed by an immutable list, replaced as a whole with [submitList].
+ *
+ * The list is stacked the way the adapter positions are: its last element is the top card, the first one to be
+ * swiped, and its first element is the last card of the deck. This is the reverse of [PagedSwipeableAdapter],
+ * whose first item is the top card, so a list coming in the order its items are shown has to be reversed first.
+ *
+ * The difference between the current list and the submitted one is computed on [diffExecutor] with [DiffUtil],
+ * then applied to the stack at once: cards whose item is still in the stack keep their views and are only moved,
+ * cards whose item changed are bound again and only the missing cards are bound, instead of rebuilding the whole
+ * stack. As with the range notifications, the position of the top card follows its item, see
+ * [notifyItemRangeInserted] for where new items end up.
+ *
+ * Lists are submitted from the main thread, a list submitted while the previous one is still being diffed replaces
+ * it. Subclasses still call [setupAdapter] in their constructor, and bind their cards with [getItem]
+ *
+ * @param diffExecutor runs the diffs, a single background thread owned by the adapter when null
+ */
+abstract class ListSwipeableAdapter<T : SwipeableAdapter.ViewHolder, D : Any>(
+        context: Context,
+        rootFrameLayout: FrameLayout,
+        private val diffCallback: DiffUtil.ItemCallback<D>,
+        diffExecutor: Executor? = null,
+        initialRotation: Float = 15f,
+        enableLeftSwipe: Boolean = true,
+        enableRightSwipe: Boolean = true,
+        enableTopSwipe: Boolean = true,
+        enableBottomSwipe: Boolean = true)
+    : SwipeableAdapter<T>(context, rootFrameLayout, initialRotation,
+        enableLeftSwipe, enableRightSwipe, enableTopSwipe, enableBottomSwipe) {
+
+    private val mainHandler = Handler(Looper.getMainLooper())
+
+    private val ownedExecutor: ExecutorService? =
+            if (diffExecutor == null) Executors.newSingleThreadExecutor { runnable ->
+                Thread({
+                    Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND)
+                    runnable.run()
+                }, "SwipeableAdapter-diff")
+            } else null
+
+    private val diffExecutor: Executor = diffExecutor ?: ownedExecutor!!
+
+    /**
+     * The list shown by the deck, the last one whose diff has been applied
+     */
+    var currentList: List<D> = emptyList()
+        private set
+
+    // incremented on every submitted list, a diff finishing after a newer list was submitted is dropped
+    private var maxScheduledGeneration = 0
+    private var isReleased = false
+
+    final override fun getItemCount(): Int = currentList.size
+
+    /**
+     * @return the element of [currentList] at the given adapter position, the last element being the top card
+     */
+    fun getItem(position: Int): D = currentList[position]
+
+    /**
+     * Replaces the list shown by the deck, the list must not be modified afterwards
+     *
+     * @param commitCallback run once the list is shown, it is not run if a newer list is submitted meanwhile
+     */
+    fun submitList(newList: List<D>?, commitCallback: Runnable? = null) {
+        val generation = ++maxScheduledGeneration
+        val oldList = currentList
+        val list = newList ?: emptyList()
+        if (list === oldList) {
+            commitCallback?.run()
+            return
+        }
+
+        // nothing to diff against, the whole range is inserted or removed
+        if (oldList.isEmpty() || list.isEmpty()) {
+            currentList = list
+            if (oldList.isEmpty()) {
+                notifyItemRangeInserted(0, list.size)
+            } else {
+                notifyItemRangeRemoved(0, oldList.size)
+            }
+            commitCallback?.run()
+            return
+        }
+
+        diffExecutor.execute {
+            val diffResult = DiffUtil.calculateDiff(object : DiffUtil.Callback() {
+                override fun getOldListSize(): Int = oldList.size
+
+                override fun getNewListSize(): Int = list.size
+
+                override fun areItemsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean =
+                        diffCallback.areItemsTheSame(oldList[oldItemPosition], list[newItemPosition])
+
+                override fun areContentsTheSame(oldItemPosition: Int, newItemPosition: Int): Boolean =
+                        diffCallback.areContentsTheSame(oldList[oldItemPosition], list[newItemPosition])
+
+                override fun getChangePayload(oldItemPosition: Int, newItemPosition: Int): Any? =
+                        diffCallback.getChangePayload(oldList[oldItemPosition], list[newItemPosition])
+            })
+            mainHandler.post {
+                if (!isReleased && generation == maxScheduledGeneration) {
+                    currentList = list
+                    dispatchUpdates(diffResult)
+                    commitCallback?.run()
+                }
+            }
+        }
+    }
+
+    override fun release() {
+        isReleased = true
+        mainHandler.removeCallbacksAndMessages(null)
+        ownedExecutor?.shutdown()
+        super.release()
+    }
+}
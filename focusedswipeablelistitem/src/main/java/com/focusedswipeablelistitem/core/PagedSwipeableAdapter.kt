@@ -0,0 +1,167 @@
+package com.focusedswipeablelistitem.core
+
+import android.content.Context
+import android.os.Handler
+import android.os.Looper
+import android.widget.FrameLayout
+import com.focusedswipeablelistitem.api.PageLoader
+
+/**
+ * Adapter of a deck whose items are loaded page by page from a [PageLoader], so its size does not have to be known
+ * up front.
+ *
+ * The next page is requested as soon as less than [prefetchDistance] cards are left to swipe, and its items are
+ * appended behind the last card without touching the cards already stacked. The first item of the first page
+ * is the first card shown.
+ *
+ * Pages whose items have all been swiped are released, the memory used does not grow with the number of cards
+ * swiped. This also means that a swiped item can not be brought back with [notifyItemInserted].
+ *
+ * Subclasses still call [setupAdapter] in their constructor, which requests the first page, and bind their cards
+ * in [onBindItem]
+ */
+abstract class PagedSwipeableAdapter<T : SwipeableAdapter.ViewHolder, D>(
+        context: Context,
+        rootFrameLayout: FrameLayout,
+        private val pageLoader: PageLoader<D>,
+        private val pageSize: Int = 50,
+        private val prefetchDistance: Int = 10,
+        initialRotation: Float = 15f,
+        enableLeftSwipe: Boolean = true,
+        enableRightSwipe: Boolean = true,
+        enableTopSwipe: Boolean = true,
+        enableBottomSwipe: Boolean = true)
+    : SwipeableAdapter<T>(context, rootFrameLayout, initialRotation,
+        enableLeftSwipe, enableRightSwipe, enableTopSwipe, enableBottomSwipe) {
+
+    private val mainHandler = Handler(Looper.getMainLooper())
+
+    /**
+     * The pages that still have items to swipe, the first item of the first one is the item [firstRetainedIndex]
+     */
+    private val retainedPages = ArrayList<List<D>>()
+    private var firstRetainedIndex = 0
+    private var loadedItemCount = 0
+    private var swipedItemCount = 0
+    private var nextPage = 0
+    private var isLoading = false
+    private var hasFailed = false
+    private var isReleased = false
+
+    /**
+     * Whether the last page has been loaded, no page is requested anymore afterwards
+     */
+    var isLastPageLoaded = false
+        private set
+
+    /**
+     * The number of loaded items still held in memory
+     */
+    val retainedItemCount: Int
+        get() = loadedItemCount - firstRetainedIndex
+
+    final override fun getItemCount(): Int = loadedItemCount
+
+    final override fun onBindView(viewHolder: T, position: Int) {
+        onBindItem(viewHolder, getItem(position), position)
+    }
+
+    /**
+     * Called when the view is ready to get bound to the given item
+     */
+    protected abstract fun onBindItem(viewHolder: T, item: D, position: Int)
+
+    /**
+     * Called when a page could not be loaded, no page is requested anymore until [retryLoading] is called
+     */
+    protected open fun onPageLoadFailed(page: Int, error: Throwable) {}
+
+    /**
+     * @return the item of the given adapter position, it must not have been released yet
+     */
+    fun getItem(position: Int): D {
+        var index = loadedItemCount - 1 - position - firstRetainedIndex
+        if (index < 0) {
+            throw IndexOutOfBoundsException("The item at position $position has already been released")
+        }
+        for (page in retainedPages) {
+            if (index < page.size) {
+                return page[index]
+            }
+            index -= page.size
+        }
+        throw IndexOutOfBoundsException("No item at position $position, only $loadedItemCount items are loaded")
+    }
+
+    /**
+     * Requests again the page that failed to load, if it is still needed
+     */
+    fun retryLoading() {
+        hasFailed = false
+        loadNextPageIfNeeded()
+    }
+
+    override fun onTopCardChanged(position: Int) {
+        // positions count down to 0, the index of the top card in the loaded items is the number of items swiped
+        swipedItemCount = loadedItemCount - 1 - position
+        releaseSwipedPages()
+        loadNextPageIfNeeded()
+    }
+
+    override fun release() {
+        isReleased = true
+        mainHandler.removeCallbacksAndMessages(null)
+        super.release()
+    }
+
+    private fun releaseSwipedPages() {
+        while (retainedPages.isNotEmpty() && firstRetainedIndex + retainedPages[0].size <= swipedItemCount) {
+            firstRetainedIndex += retainedPages.removeAt(0).size
+        }
+    }
+
+    private fun loadNextPageIfNeeded() {
+        if (isLoading || isLastPageLoaded || hasFailed || isReleased
+                || loadedItemCount - swipedItemCount >= prefetchDistance) {
+            return
+        }
+        isLoading = true
+        val page = nextPage
+        // the results are always posted, so a loader answering synchronously does not modify the stack
+        // in the middle of a swipe
+        pageLoader.loadPage(page, pageSize, object : PageLoader.PageCallback<D> {
+            override fun onPageLoaded(items: List<D>, isLastPage: Boolean) {
+                mainHandler.post { handlePageLoaded(page, items, isLastPage) }
+            }
+
+            override fun onPageFailed(error: Throwable) {
+                mainHandler.post { handlePageFailed(page, error) }
+            }
+        })
+    }
+
+    private fun handlePageLoaded(page: Int, items: List<D>, isLastPage: Boolean) {
+        if (isReleased) {
+            return
+        }
+        isLoading = false
+        nextPage = page + 1
+        isLastPageLoaded = isLastPage || items.isEmpty()
+        if (items.isNotEmpty()) {
+            retainedPages.add(items)
+            loadedItemCount += items.size
+            notifyItemRangeAppended(items.size)
+        }
+        // a short page might not be enough to get back above the prefetch distance
+        loadNextPageIfNeeded()
+    }
+
+    private fun handlePageFailed(page: Int, error: Throwable) {
+        if (isReleased) {
+            return
+        }
+        isLoading = false
+        hasFailed = true
+        onPageLoadFailed(page, error)
+    }
+}
@@ -0,0 +1,168 @@
+package com.focusedswipeablelistitem.core
+
+import com.focusedswipeablelistitem.api.SwipeMetrics
+
+/**
+ * A [SwipeMetrics] keeping every measurement in counters and histograms allocated up front, so recording never
+ * allocates. Set it as [SwipeableAdapter.swipeMetrics], then read it and [reset] it on the main thread whenever
+ * the numbers are sent to a telemetry backend. Durations are in nanoseconds
+ */
+class SwipeMetricsRecorder : SwipeMetrics {
+
+    /**
+     * From the ACTION_UP letting a card go to its commit
+     */
+    val releaseToCommit = Histogram()
+
+    /**
+     * From the commit of a card to the end of its exit
+     */
+    val commitToExit = Histogram()
+
+    val bindDurations = Histogram()
+
+    val createDurations = Histogram()
+
+    val touchEventsPerGesture = Histogram()
+
+    var poolHitCount: Long = 0
+        private set
+
+    var poolMissCount: Long = 0
+        private set
+
+    /**
+     * Number of select* calls that did nothing because the top card was still animating or not touchable yet
+     */
+    var droppedSelectCount: Long = 0
+        private set
+
+    override fun onReleaseCommitted(nanos: Long) {
+        releaseToCommit.record(nanos)
+    }
+
+    override fun onCardExited(nanos: Long) {
+        commitToExit.record(nanos)
+    }
+
+    override fun onViewBound(viewType: Int, nanos: Long) {
+        bindDurations.record(nanos)
+    }
+
+    override fun onViewHolderCreated(viewType: Int, nanos: Long) {
+        createDurations.record(nanos)
+    }
+
+    override fun onPoolHit(viewType: Int) {
+        poolHitCount++
+    }
+
+    override fun onPoolMiss(viewType: Int) {
+        poolMissCount++
+    }
+
+    override fun onGestureEnded(touchEventCount: Int) {
+        touchEventsPerGesture.record(touchEventCount.toLong())
+    }
+
+    override fun onSelectDropped(direction: Int) {
+        droppedSelectCount++
+    }
+
+    fun reset() {
+        releaseToCommit.reset()
+        commitToExit.reset()
+        bindDurations.reset()
+        createDurations.reset()
+        touchEventsPerGesture.reset()
+        poolHitCount = 0
+        poolMissCount = 0
+        droppedSelectCount = 0
+    }
+
+    override fun toString(): String =
+            "SwipeMetricsRecorder(releaseToCommit=$releaseToCommit, commitToExit=$commitToExit, " +
+                    "bind=$bindDurations, create=$createDurations, touchEventsPerGesture=$touchEventsPerGesture, " +
+                    "poolHits=$poolHitCount, poolMisses=$poolMissCount, droppedSelects=$droppedSelectCount)"
+
+    /**
+     * Counts non negative values in power of two buckets: bucket 0 holds 0 and bucket i the values from 2^(i-1)
+     * up to 2^i - 1, which keeps the percentiles within a factor of two whatever the range of the values
+     */
+    class Histogram internal constructor() {
+        private val buckets = LongArray(BUCKET_COUNT)
+
+        var count: Long = 0
+            private set
+
+        var sum: Long = 0
+            private set
+
+        var max: Long = 0
+            private set
+
+        val mean: Double
+            get() = if (count == 0L) 0.0 else sum.toDouble() / count
+
+        /**
+         * Counts one more value, a negative one counts as 0
+         */
+        fun record(value: Long) {
+            val sample = maxOf(0L, value)
+            buckets[bucketIndex(sample)]++
+            count++
+            sum += sample
+            max = maxOf(max, sample)
+        }
+
+        /**
+         * @return the number of values recorded in the bucket, see [getBucketUpperBound] for its range
+         */
+        fun getBucketCount(bucket: Int): Long = buckets[bucket]
+
+        /**
+         * Returns the upper bound of the bucket holding the given percentile of the values, or [max] when it is
+         * lower, 0 when nothing has been recorded
+         *
+         * @param percent from 0 to 100
+         */
+        fun percentile(percent: Int): Long {
+            if (count == 0L) {
+                return 0
+            }
+            val rank = maxOf(1L, (count * percent + 99) / 100)
+            var seen = 0L
+            for (bucket in 0 until BUCKET_COUNT) {
+                seen += buckets[bucket]
+                if (seen >= rank) {
+                    return minOf(getBucketUpperBound(bucket), max)
+                }
+            }
+            return max
+        }
+
+        internal fun reset() {
+            buckets.fill(0)
+            count = 0
+            sum = 0
+            max = 0
+        }
+
+        override fun toString(): String =
+                "Histogram(count=$count, p50=${percentile(50)}, p90=${percentile(90)}, p99=${percentile(99)}, " +
+                        "max=$max)"
+
+        companion object {
+            const val BUCKET_COUNT = 64
+
+            /**
+             * @return the largest value counted in the given bucket
+             */
+            fun getBucketUpperBound(bucket: Int): Long =
+                    if (bucket >= BUCKET_COUNT - 1) Long.MAX_VALUE else (1L shl bucket) - 1
+
+            private fun bucketIndex(value: Long): Int =
+                    if (value == 0L) 0 else 64 - java.lang.Long.numberOfLeadingZeros(value)
+        }
+    }
+}
@@ -2,8 +2,10 @@ package com.focusedswipeablelistitem.core
 
 import android.animation.Animator
 import android.animation.AnimatorListenerAdapter
+import android.animation.ValueAnimator
 import android.content.Context
-import android.util.Log
+import android.os.Looper
+import android.os.MessageQueue
 import android.view.Gravity
 import android.view.LayoutInflater
 import android.view.View
@@ -13,10 +15,17 @@ import android.widget.FrameLayout
 import androidx.collection.SparseArrayCompat
 import androidx.core.util.Pools
 import androidx.core.view.ViewCompat
+import androidx.recyclerview.widget.DiffUtil
+import androidx.recyclerview.widget.ListUpdateCallback
 import com.focusedswipeablelistitem.api.ClickListener
 import com.focusedswipeablelistitem.api.FlingEnterListener
 import com.focusedswipeablelistitem.api.FlingExitListener
+import com.focusedswipeablelistitem.api.SeekListener
+import com.focusedswipeablelistitem.api.SwipeCommandCallback
+import com.focusedswipeablelistitem.api.SwipeCommitListener
+import com.focusedswipeablelistitem.api.SwipeMetrics
 import com.focusedswipeablelistitem.dip
+import java.util.ArrayDeque
 
 /**
  *Base adapter that manages the creation and recycling of swiped away views
@@ -30,110 +39,389 @@ abstract class SwipeableAdapter<T : SwipeableAdapter.ViewHolder>(
         private val enableTopSwipe: Boolean = true,
         private val enableBottomSwipe: Boolean = true) {
 
-    private lateinit var attachedViewsByPosition: SparseArrayCompat<T>
+    /**
+     * The view holders of the cards currently in [rootFrameLayout], keyed by the id of their item view.
+     * This is the only index of attached cards, it is updated in the same frame the view is added or removed
+     */
+    private lateinit var attachedViewsById: SparseArrayCompat<T>
 
     private var currentViewsPosition = 0
     private var currentVisiblePosition = 0
     private var isSetup: Boolean = false
 
-    private lateinit var recycledViewsPool: RecycledViewsPool<T>
-    private lateinit var recyclerViewPool: Pools.SimplePool<T>
+    /**
+     * One pool of swiped away view holders per view type, a holder is only ever reused for its own type
+     */
+    private val recycledViewsPools = SparseArrayCompat<RecycledViewsPool<T>>()
 
-    var flingEnterListener: FlingEnterListener? = null
-    var flingExitListener: FlingExitListener? = null
-    var clickListener: ClickListener? = null
+    private lateinit var touchConfiguration: TouchConfiguration
+    private val flingCardListeners = SparseArrayCompat<FlingCardListener>()
+    private var boundFlingCardListener: FlingCardListener? = null
 
+    /**
+     * Number of times [createViewHolder] has been called, i.e. the number of layouts inflated so far.
+     * Once the recycled views pool is warm this stops growing no matter how many cards are swiped
+     */
+    var inflationCount: Int = 0
+        private set
 
-    private var mainFlingListener = object : FlingExitListener {
-        override fun bottomExit(view: View, dataObject: Any?, position: Int) {
-            flingExitListener?.bottomExit(view, dataObject, currentVisiblePosition)
+    /**
+     * Which cards are put on a hardware layer while they are dragged or animated, one of [HARDWARE_LAYER_ALWAYS],
+     * [HARDWARE_LAYER_COMPLEX_CARDS] or [HARDWARE_LAYER_NEVER]. Defaults to [DEFAULT_HARDWARE_LAYER_POLICY].
+     * Whatever the policy, a card only keeps its layer from the start of a drag or an animation until it rests
+     * again
+     */
+    var hardwareLayerPolicy: Int = DEFAULT_HARDWARE_LAYER_POLICY
+        set(value) {
+            field = value
+            updateHardwareLayerPolicy()
         }
 
-        override fun topExit(view: View, dataObject: Any?, position: Int) {
-            flingExitListener?.topExit(view, dataObject, currentVisiblePosition)
+    /**
+     * The number of views a card must contain to get a hardware layer when using [HARDWARE_LAYER_COMPLEX_CARDS].
+     * Every descendant of the card counts, not only its direct children, the card itself does not
+     */
+    var hardwareLayerMinChildCount: Int = 4
+        set(value) {
+            field = value
+            updateHardwareLayerPolicy()
         }
 
+    /**
+     * Whether the card revealed under the moving card is put on a hardware layer as well
+     */
+    var hardwareLayerForCardBelow: Boolean = false
+        set(value) {
+            field = value
+            updateHardwareLayerPolicy()
+        }
 
-        override fun onCardExited(view: View, objectX: Float, objectY: Float, position: Int) {
-            currentVisiblePosition--
+    /**
+     * Whether the cards under the top one are drawn from a cached snapshot instead of being redrawn as live views.
+     * Each of them is kept on a hardware layer, which is only rendered again when the card itself changes, e.g.
+     * when it is bound, so moving the top card only composites one texture per card below it.
+     * The top card always stays a live view, and so do all the cards when the window is not hardware accelerated
+     */
+    var staticBackStack: Boolean = false
+        set(value) {
+            field = value
+            if (isSetup) {
+                updateBackStackLayers()
+            }
+        }
 
-            for (i in 0 until attachedViewsByPosition.size()) {
-                val key = attachedViewsByPosition.keyAt(i)
-                // get the object by the key.
+    /**
+     * How [FlingExitListener.onScroll] is delivered, either [SCROLL_DISPATCH_IMMEDIATE] for every touch sample
+     * or [SCROLL_DISPATCH_PER_FRAME] for at most one call per display frame carrying the latest progress
+     */
+    var scrollDispatchMode: Int = SCROLL_DISPATCH_IMMEDIATE
+        set(value) {
+            field = value
+            frameScrollDispatcher.flush()
+        }
 
-                attachedViewsByPosition.get(key)?.let {
-                    if (it.itemId == view.id) {
-                        removeAndRecycleView(it)
-                    }
-                }
-            }
+    private val frameScrollDispatcher = FrameScrollDispatcher()
 
-            if (rootFrameLayout.childCount == 0) {
-                flingExitListener?.onCardExited(view, objectX, objectY, getExitingPosition())
-                onAllItemsSwiped()
-                return
+    /**
+     * Number of cards bound ahead of the stack but not attached to [rootFrameLayout] yet, on top of the
+     * [getViewPoolSize] cards that are. They are bound, measured and laid out while the main thread is idle,
+     * so revealing the next card after an exit only has to attach a card that is ready.
+     * Default is 0, every card is then bound when it is attached
+     */
+    var prefetchDepth: Int = 0
+        set(value) {
+            field = maxOf(0, value)
+            if (isSetup) {
+                trimPrefetchedViewHolders(field)
+                schedulePrefetch()
             }
+        }
 
-            if (currentViewsPosition <= 0) {
-                attachTouchListenerToLastView()
-                flingExitListener?.onCardExited(view, objectX, objectY, getExitingPosition())
-                return
-            }
+    /**
+     * The prefetched view holders, the first one is bound to the highest position and is the next to be attached
+     */
+    private val prefetchedViewHolders = ArrayDeque<T>()
+    private var isPrefetchScheduled = false
 
-            adjustViewMargins(view)
+    private val prefetchIdleHandler = MessageQueue.IdleHandler {
+        prefetchNextViewHolder()
+        isPrefetchScheduled = needsPrefetch()
+        isPrefetchScheduled
+    }
 
-            val newView = createViewHolder(rootFrameLayout)
-            adjustViewMargins(newView.itemView, view.dip(16))
-            newView.itemId = newView.itemView.id
-            newView.itemView.layoutParams = createDefaultLayoutParams()
+    /**
+     * Number of swipes that can be undone with [undo]. The view holders of these cards are kept bound and
+     * out of the recycled views pool, so undoing one only puts its view back.
+     * Default is 0, no undo history
+     */
+    var undoHistorySize: Int = 0
+        set(value) {
+            field = maxOf(0, value)
+            trimUndoHistory()
+        }
 
+    /**
+     * The last swipes, the most recent one last
+     */
+    private val undoHistory = ArrayDeque<ExitRecord<T>>()
+    private var lastExitDirection = DIRECTION_NONE
+    private val undoAnimation = UndoAnimation()
+    private val undoAnimator = ValueAnimator.ofFloat(0f, 1f).apply {
+        duration = 250
+        interpolator = DecelerateInterpolator(0.5f)
+        addUpdateListener(undoAnimation)
+    }
 
-            attachedViewsByPosition.append(newView.itemId, newView)
+    /**
+     * Whether the swipes queued with [enqueueSwipe] run their exit animation in a fraction of the usual time,
+     * to go through a burst of commands quickly
+     */
+    var fastForwardSwipes: Boolean = false
 
+    /**
+     * The swipes waiting for the top card to be ready, the first one runs next
+     */
+    private val queuedSwipes = ArrayDeque<SwipeCommand>()
 
-            newView.reAdjustView()
+    /**
+     * The queued swipes whose card is on its way out, in the order they started
+     */
+    private val inFlightSwipes = ArrayDeque<SwipeCommand>()
+    private var isStartingSwipes = false
 
-            rootFrameLayout.addView(newView.itemView, 0)
+    /**
+     * Whether the card below becomes touchable as soon as the top card is committed to leave the stack, instead
+     * of once the exit animation of the top card is over. Several cards can then be on their way out at once,
+     * select* and the queued swipes run on the new top card right away as well.
+     * Each card still gets its exit callbacks once its own animation ends, which is not necessarily in the order
+     * the cards were committed. Default is false
+     */
+    var overlappingExits: Boolean = false
 
+    /**
+     * The cards committed to leave the stack and still running their exit animation, the oldest first.
+     * They stay on top of [rootFrameLayout] until their exit ends but are no longer in [attachedViewsById],
+     * the top card is the last child below them
+     */
+    private val exitingViewHolders = ArrayDeque<T>()
 
+    var flingEnterListener: FlingEnterListener? = null
+    var flingExitListener: FlingExitListener? = null
+    var clickListener: ClickListener? = null
+    var seekListener: SeekListener? = null
 
+    /**
+     * Told about every card as soon as it is bound to leave the stack, the next card is bound and attached at
+     * the bottom of the stack right after, while the exit animation runs.
+     * For a given card [SwipeCommitListener.onSwipeCommitted] always comes before [onTopCardChanged], then
+     * [FlingExitListener.leftExit] or the other exit callbacks and [FlingExitListener.onCardExited] follow once
+     * its exit animation is over
+     */
+    var swipeCommitListener: SwipeCommitListener? = null
 
-            attachTouchListenerToLastView()
-            onBindView(newView)
-            Log.d("swipe", "currentViewsPosition: $currentViewsPosition")
+    /**
+     * Gets the measurements of the adapter as it runs, e.g. a [SwipeMetricsRecorder]: swipe latencies, bind and
+     * create durations, pool hits and misses, touch events per gesture and dropped select* calls.
+     * Default is null, nothing is measured then and each measuring point costs a single null check
+     */
+    var swipeMetrics: SwipeMetrics? = null
+        set(value) {
+            field = value
+            for (i in 0 until flingCardListeners.size()) {
+                flingCardListeners.valueAt(i).setMetrics(value)
+            }
+        }
 
-            flingExitListener?.onCardExited(view, objectX, objectY, getExitingPosition())
 
+    private var mainFlingListener = object : FlingExitListener {
+        override fun bottomExit(view: View, dataObject: Any?, position: Int) {
+            frameScrollDispatcher.flush()
+            lastExitDirection = DIRECTION_BOTTOM
+            flingExitListener?.bottomExit(view, dataObject, getExitingPosition(view))
+        }
+
+        override fun topExit(view: View, dataObject: Any?, position: Int) {
+            frameScrollDispatcher.flush()
+            lastExitDirection = DIRECTION_TOP
+            flingExitListener?.topExit(view, dataObject, getExitingPosition(view))
+        }
+
+
+        override fun onCardExited(view: View, objectX: Float, objectY: Float, position: Int) {
+            onTopCardExited(view, objectX, objectY)
+            // the next queued swipe only starts once every listener has been told about this one
+            finishInFlightSwipe(view)
         }
 
         override fun leftExit(view: View, dataObject: Any?, position: Int) {
-            flingExitListener?.leftExit(view, dataObject, currentVisiblePosition)
+            frameScrollDispatcher.flush()
+            lastExitDirection = DIRECTION_LEFT
+            flingExitListener?.leftExit(view, dataObject, getExitingPosition(view))
         }
 
         override fun rightExit(view: View, dataObject: Any?, position: Int) {
-            flingExitListener?.rightExit(view, dataObject, currentVisiblePosition)
+            frameScrollDispatcher.flush()
+            lastExitDirection = DIRECTION_RIGHT
+            flingExitListener?.rightExit(view, dataObject, getExitingPosition(view))
         }
 
 
         override fun onScroll(view: View, scrollProgressPercentX: Float, scrollProgressPercentY: Float, position: Int) {
-            flingExitListener?.onScroll(view, scrollProgressPercentX, scrollProgressPercentY, getRealCurrentPosition())
+            if (scrollDispatchMode == SCROLL_DISPATCH_PER_FRAME) {
+                frameScrollDispatcher.dispatch(view, scrollProgressPercentX, scrollProgressPercentY,
+                        getCardPosition(view))
+            } else {
+                flingExitListener?.onScroll(view, scrollProgressPercentX, scrollProgressPercentY,
+                        getCardPosition(view))
+            }
         }
     }
+    private val mainCommitListener = FlingCardListener.ExitCommitListener { view, dataObject, exitDirection ->
+        onTopCardCommitted(view, dataObject, exitDirection)
+    }
+
+    // the card below the dragged one may have been put on a layer during the drag instead of its back-stack layer
+    private val cardBelowLayerListener = FlingCardListener.CardBelowLayerListener { cardBelow ->
+        if (staticBackStack) {
+            findAttachedViewHolder(cardBelow)?.let { setBackStackLayer(it, cardBelow != getTopCard()) }
+        }
+    }
+
     private val mainClickListener =
             ClickListener { view, dataObject, direction ->
                 clickListener?.onClick(view,
                         dataObject, direction)
             }
 
+    /**
+     * Coalesces the scroll progress of a card and delivers the latest value on the next display frame,
+     * anything still pending is flushed before the exit callbacks so that they are never overtaken
+     */
+    private inner class FrameScrollDispatcher : Runnable {
+        private var pendingView: View? = null
+        private var pendingProgressX = 0f
+        private var pendingProgressY = 0f
+        private var pendingPosition = 0
+        private var isPosted = false
+
+        fun dispatch(view: View, scrollProgressPercentX: Float, scrollProgressPercentY: Float, position: Int) {
+            if (pendingView != null && pendingView != view) {
+                flush()
+            }
+            pendingView = view
+            pendingProgressX = scrollProgressPercentX
+            pendingProgressY = scrollProgressPercentY
+            pendingPosition = position
+            if (!isPosted) {
+                isPosted = true
+                ViewCompat.postOnAnimation(rootFrameLayout, this)
+            }
+        }
+
+        fun flush() {
+            val view = pendingView ?: return
+            pendingView = null
+            flingExitListener?.onScroll(view, pendingProgressX, pendingProgressY, pendingPosition)
+        }
+
+        /**
+         * Drops the pending value without delivering it
+         */
+        fun cancel() {
+            if (isPosted) {
+                rootFrameLayout.removeCallbacks(this)
+                isPosted = false
+            }
+            pendingView = null
+        }
+
+        override fun run() {
+            isPosted = false
+            flush()
+        }
+    }
+
+    /**
+     * Takes the card that is bound to leave out of the stack and attaches the next one at the bottom, before the
+     * exit animation of the card starts. The card itself stays drawn on top until [onTopCardExited]
+     */
+    private fun onTopCardCommitted(view: View, dataObject: Any?, exitDirection: Int) {
+        frameScrollDispatcher.flush()
+        val viewHolder = findAttachedViewHolder(view) ?: return
+        attachedViewsById.remove(viewHolder.itemId)
+        exitingViewHolders.addLast(viewHolder)
+        viewHolder.commitNanos = if (swipeMetrics != null) System.nanoTime() else 0L
+
+        swipeCommitListener?.onSwipeCommitted(fromFlingDirection(exitDirection), viewHolder.position, dataObject)
+        currentVisiblePosition--
+        onTopCardChanged(currentVisiblePosition)
+
+        var newView: T? = null
+        if (prefetchedViewHolders.isNotEmpty() || currentViewsPosition >= 0) {
+            newView = obtainBoundViewHolder()
+
+            attachedViewsById.put(newView.itemId, newView)
+
+            rootFrameLayout.addView(newView.itemView, 0)
+
+            schedulePrefetch()
+        }
+
+        if (overlappingExits) {
+            // the leaving card keeps animating on its own, the card below takes the touches from now on
+            flingCardListeners.get(viewHolder.itemId)?.detachFromTouch()
+            boundFlingCardListener = null
+            getTopCard()?.let {
+                // a card attached just now is not laid out yet, the touch listener needs its coordinates
+                if (it == newView?.itemView) {
+                    attachTouchListenerPost(it)
+                } else {
+                    attachTouchListener(it)
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the card that just finished its exit off the screen and makes the card below it touchable
+     */
+    private fun onTopCardExited(view: View, objectX: Float, objectY: Float) {
+        frameScrollDispatcher.flush()
+        // a card whose exit got cancelled, e.g. by seekTo, is not exiting anymore
+        val viewHolder = findExitingViewHolder(view) ?: return
+        exitingViewHolders.remove(viewHolder)
+        val metrics = swipeMetrics
+        if (metrics != null && viewHolder.commitNanos != 0L) {
+            metrics.onCardExited(System.nanoTime() - viewHolder.commitNanos)
+        }
+        viewHolder.commitNanos = 0L
+        val position = viewHolder.position
+        val exitingFlingCardListener = flingCardListeners.get(viewHolder.itemId)
+
+        if (undoHistorySize > 0) {
+            keepForUndo(viewHolder, objectX, objectY)
+        } else {
+            removeAndRecycleView(viewHolder)
+        }
+
+        if (rootFrameLayout.childCount == 0) {
+            flingExitListener?.onCardExited(view, objectX, objectY, position)
+            onAllItemsSwiped()
+            return
+        }
+
+        // with overlapping exits the top card got its listener when this card was committed, and may be moving
+        if (boundFlingCardListener == null || boundFlingCardListener == exitingFlingCardListener) {
+            attachTouchListenerToLastView()
+        }
+        flingExitListener?.onCardExited(view, objectX, objectY, position)
+    }
+
     /**
      * Make sure that the top most view only gets the touch listener
      */
     private fun attachTouchListenerToLastView() {
-        val indexOfLastChild = rootFrameLayout.childCount - 1
-        val childAt = rootFrameLayout.getChildAt(indexOfLastChild)
-        if (childAt != null) {
-            attachTouchListener(childAt)
-        }
+        getTopCard()?.let { attachTouchListener(it) }
     }
 
 
@@ -143,33 +431,132 @@ abstract class SwipeableAdapter<T : SwipeableAdapter.ViewHolder>(
     protected open fun onAllItemsSwiped() {}
 
     /**
-     * Called when new view is needed to be created
+     * Called whenever the card on top of the stack changes, once the stack is set up, as soon as a swipe is
+     * committed and after every insertion
+     *
+     * @param position the position of the new top card, -1 once every item has been swiped
+     */
+    protected open fun onTopCardChanged(position: Int) {}
+
+    /**
+     * Called when [notifyItemInserted] or any of the range notifications is about to change the items or move
+     * their positions around, anything computed ahead of time for a position is stale from now on
+     */
+    protected open fun onItemPositionsChanged() {}
+
+    /**
+     * The position the next card added at the bottom of the stack is bound to, -1 once every position is bound
+     */
+    protected val nextBindPosition: Int
+        get() = currentViewsPosition
+
+    /**
+     * Called when new view is needed to be created, by the default [createViewHolder] taking a view type.
+     * Adapters with several view types override that one instead and do not need this one
      *
      * it is advised to call the helper method @link{createView()}
      */
-    protected abstract fun createViewHolder(parentView: ViewGroup, position: Int = currentViewsPosition): T
+    protected open fun createViewHolder(parentView: ViewGroup, position: Int = currentViewsPosition): T =
+            throw IllegalStateException("Override createViewHolder(parentView, position) or " +
+                    "createViewHolder(parentView, position, viewType)")
+
+    /**
+     * Called when new view is needed for a card of the given view type, the returned view holder is only
+     * reused for cards of the same type. Adapters with a single view type do not need to override it
+     */
+    protected open fun createViewHolder(parentView: ViewGroup, position: Int, viewType: Int): T =
+            createViewHolder(parentView, position)
+
+    /**
+     * Returns the view type of the item at the given position, cards of different types never share their views
+     * Default is 0, a single view type
+     */
+    protected open fun getItemViewType(position: Int): Int = 0
+
+    /**
+     * Determine the number of swiped away view holders of the given view type kept for reuse
+     * Default is [getViewPoolSize]
+     */
+    protected open fun getRecycledViewsPoolSize(viewType: Int): Int = getViewPoolSize()
+
+    /**
+     * Returns how well the pool of the given view type did so far, null if no card of this type has been shown yet
+     */
+    fun getPoolStats(viewType: Int): PoolStats? = recycledViewsPools.get(viewType)?.stats
 
     private fun adjustViewMargins(view: View, topMargin: Int = 0) {
         (view.layoutParams as FrameLayout.LayoutParams).topMargin = topMargin
     }
 
-    private fun getLastView(): View = rootFrameLayout.getChildAt(rootFrameLayout.childCount - 1)
+    /**
+     * The last child of [rootFrameLayout] that is not leaving the stack, null once every card is gone
+     */
+    private fun getTopCard(): View? =
+            rootFrameLayout.getChildAt(rootFrameLayout.childCount - 1 - exitingViewHolders.size)
+
+    private fun findAttachedViewHolder(view: View): T? = attachedViewsById.get(view.id)
+
+    private fun findExitingViewHolder(view: View): T? = exitingViewHolders.firstOrNull { it.itemView == view }
+
+    /**
+     * Returns a view holder ready to be bound to the given position, taking it from the recycled views pool of its
+     * view type when possible and only falling back to [createViewHolder] (thus inflating a new layout)
+     * when that pool is empty
+     */
+    private fun obtainViewHolder(position: Int = currentViewsPosition): T {
+        val viewType = getItemViewType(position)
+        val recycledViewsPool = obtainRecycledViewsPool(viewType)
+        val recycledViewHolder = recycledViewsPool.obtainView()
+        val metrics = swipeMetrics
+        if (recycledViewHolder != null) {
+            recycledViewsPool.stats.hitCount++
+            metrics?.onPoolHit(viewType)
+            recycledViewHolder.reAdjustView()
+            return recycledViewHolder
+        }
+
+        recycledViewsPool.stats.missCount++
+        inflationCount++
+        metrics?.onPoolMiss(viewType)
+        val createStart = if (metrics != null) System.nanoTime() else 0L
+        val createdViewHolder = createViewHolder(rootFrameLayout, position, viewType)
+        metrics?.onViewHolderCreated(viewType, System.nanoTime() - createStart)
+        if (createdViewHolder.itemView.id == View.NO_ID) {
+            createdViewHolder.itemView.id = ViewCompat.generateViewId()
+        }
+        createdViewHolder.itemId = createdViewHolder.itemView.id
+        createdViewHolder.itemViewType = viewType
+        return createdViewHolder
+    }
+
+    private fun obtainRecycledViewsPool(viewType: Int): RecycledViewsPool<T> {
+        recycledViewsPools.get(viewType)?.let { return it }
+
+        val recycledViewsPool = RecycledViewsPool<T>(getRecycledViewsPoolSize(viewType), PoolStats(viewType))
+        recycledViewsPools.put(viewType, recycledViewsPool)
+        return recycledViewsPool
+    }
 
 
     private fun removeAndRecycleView(viewHolder: T) {
         checkSetup()
         viewHolder.itemView.visibility = View.GONE
+        setBackStackLayer(viewHolder, false)
+        flingCardListeners.get(viewHolder.itemId)?.unbind()
         try {
             if (viewHolder.itemView.parent != null) {
-                viewHolder.itemView.setOnTouchListener(null)
                 rootFrameLayout.removeView(viewHolder.itemView)
             }
         } catch (e: IndexOutOfBoundsException) {
             e.printStackTrace()
         }
-        attachedViewsByPosition.remove(viewHolder.itemView.id)
-//        recycledViewsPool.recycleView(viewHolder)
+        attachedViewsById.remove(viewHolder.itemId)
         onViewRecycled(viewHolder)
+        val recycledViewsPool = obtainRecycledViewsPool(viewHolder.itemViewType)
+        if (!recycledViewsPool.recycleView(viewHolder)) {
+            recycledViewsPool.stats.overflowCount++
+            releaseFlingCardListener(viewHolder.itemId)
+        }
     }
 
 
@@ -178,21 +565,113 @@ abstract class SwipeableAdapter<T : SwipeableAdapter.ViewHolder>(
      */
     protected fun setupAdapter() {
         isSetup = true
+        touchConfiguration = TouchConfiguration(context)
         currentViewsPosition = getItemCount() - 1
         currentVisiblePosition = getItemCount() - 1
-        recycledViewsPool = RecycledViewsPool(getViewPoolSize())
-        recyclerViewPool = Pools.SimplePool(getViewPoolSize())
 
-        attachedViewsByPosition = SparseArrayCompat(getViewPoolSize())
+        attachedViewsById = SparseArrayCompat(getViewPoolSize())
+
+        fillStack()
+        getTopCard()?.let { attachTouchListenerPost(it) }
+        onTopCardChanged(currentVisiblePosition)
+        schedulePrefetch()
+    }
+
+    /**
+     * Attaches cards under the stack until it holds [getViewPoolSize] cards or there is no position left to bind
+     */
+    private fun fillStack() {
+        while (attachedViewsById.size() < getViewPoolSize()
+                && (prefetchedViewHolders.isNotEmpty() || currentViewsPosition >= 0)) {
+            val viewHolder = obtainBoundViewHolder()
+            attachedViewsById.put(viewHolder.itemId, viewHolder)
+            rootFrameLayout.addView(viewHolder.itemView, 0)
+        }
+    }
+
+    /**
+     * Returns the view holder of the next position to be attached, the prefetched one if any
+     * or else a view holder bound right away
+     */
+    private fun obtainBoundViewHolder(): T {
+        prefetchedViewHolders.pollFirst()?.let { return it }
+
+        val viewHolder = obtainViewHolder()
+        adjustViewMargins(viewHolder.itemView)
+        bindViewHolder(viewHolder, currentViewsPosition--)
+        return viewHolder
+    }
+
+    private fun needsPrefetch(): Boolean =
+            prefetchedViewHolders.size < prefetchDepth && currentViewsPosition >= 0
+
+    private fun schedulePrefetch() {
+        if (isPrefetchScheduled || !needsPrefetch()) {
+            return
+        }
+        isPrefetchScheduled = true
+        Looper.myQueue().addIdleHandler(prefetchIdleHandler)
+    }
+
+    /**
+     * Binds, measures and lays out one more detached card, only one per idle run so that input and frames
+     * coming in meanwhile are not held back
+     */
+    private fun prefetchNextViewHolder() {
+        if (!needsPrefetch()) {
+            return
+        }
+        val viewHolder = obtainViewHolder()
+        adjustViewMargins(viewHolder.itemView)
+        bindViewHolder(viewHolder, currentViewsPosition--)
+        measureDetachedView(viewHolder.itemView)
+        prefetchedViewHolders.addLast(viewHolder)
+    }
+
+    /**
+     * Binds the view holder to the given position, which it keeps track of until it is recycled
+     */
+    private fun bindViewHolder(viewHolder: T, position: Int) {
+        viewHolder.position = position
+        viewHolder.mIsDirty = false
+        val metrics = swipeMetrics
+        val bindStart = if (metrics != null) System.nanoTime() else 0L
+        onBindView(viewHolder, position)
+        metrics?.onViewBound(viewHolder.itemViewType, System.nanoTime() - bindStart)
+    }
 
-        for (i in 0 until getViewPoolSize()) {
-            val createdViewHolder = createViewHolder(rootFrameLayout)
-            createdViewHolder.itemId = createdViewHolder.itemView.id
-            attachedViewsByPosition.append(createdViewHolder.itemId, createdViewHolder)
-            onBindView(createdViewHolder)
-            rootFrameLayout.addView(createdViewHolder.itemView, 0)
+    /**
+     * Measures and lays out the view the way [rootFrameLayout] will once it is attached, so attaching it does not
+     * measure it again. Nothing is done until [rootFrameLayout] has been laid out itself
+     */
+    private fun measureDetachedView(view: View) {
+        if (rootFrameLayout.width == 0 || rootFrameLayout.height == 0) {
+            return
+        }
+        val layoutParams = view.layoutParams as FrameLayout.LayoutParams
+        val widthMeasureSpec = ViewGroup.getChildMeasureSpec(
+                View.MeasureSpec.makeMeasureSpec(rootFrameLayout.width, View.MeasureSpec.EXACTLY),
+                rootFrameLayout.paddingLeft + rootFrameLayout.paddingRight
+                        + layoutParams.leftMargin + layoutParams.rightMargin,
+                layoutParams.width)
+        val heightMeasureSpec = ViewGroup.getChildMeasureSpec(
+                View.MeasureSpec.makeMeasureSpec(rootFrameLayout.height, View.MeasureSpec.EXACTLY),
+                rootFrameLayout.paddingTop + rootFrameLayout.paddingBottom
+                        + layoutParams.topMargin + layoutParams.bottomMargin,
+                layoutParams.height)
+        view.measure(widthMeasureSpec, heightMeasureSpec)
+        view.layout(rootFrameLayout.paddingLeft, rootFrameLayout.paddingTop,
+                rootFrameLayout.paddingLeft + view.measuredWidth, rootFrameLayout.paddingTop + view.measuredHeight)
+    }
+
+    /**
+     * Recycles the prefetched view holders beyond the first [count] ones, their positions are bound again later
+     */
+    private fun trimPrefetchedViewHolders(count: Int) {
+        while (prefetchedViewHolders.size > count) {
+            removeAndRecycleView(prefetchedViewHolders.pollLast())
+            currentViewsPosition++
         }
-        attachTouchListenerPost(rootFrameLayout.getChildAt(rootFrameLayout.childCount - 1))
     }
 
     /**
@@ -221,51 +700,112 @@ abstract class SwipeableAdapter<T : SwipeableAdapter.ViewHolder>(
      * been drawn then assign it thus the suffix Post
      */
     private fun attachTouchListenerPost(touchableView: View) {
-        val viewGroup = touchableView.parent as? ViewGroup
+        boundFlingCardListener?.unbind()
+        boundFlingCardListener = null
 
-        viewGroup?.let {
-            val allViewsCount = it.childCount
-            for (i in 0 until allViewsCount) {
-                it.getChildAt(i)?.setOnTouchListener(null)
-            }
+        touchableView.post {
+            attachTouchListener(touchableView)
         }
+    }
 
+    /**
+     * Only one card is touchable at a time, so the previously bound listener is unbound before binding
+     * the listener of the given view
+     */
+    private fun attachTouchListener(touchableView: View) {
+        boundFlingCardListener?.unbind()
 
-        touchableView.post {
-            val flingCardListener = FlingCardListener(touchableView,
-                    touchableView,
-                    initialRotation, mainFlingListener, mainClickListener
-            )
-
-            flingCardListener.setAllowLeftSwipe(enableLeftSwipe)
-            flingCardListener.setAllowRightSwipe(enableRightSwipe)
-            flingCardListener.setAllowTopSwipe(enableTopSwipe)
-            flingCardListener.setAllowBottomSwipe(enableBottomSwipe)
+        val flingCardListener = obtainFlingCardListener(touchableView.id)
+        flingCardListener.bind(touchableView, touchableView)
+        boundFlingCardListener = flingCardListener
+        updateBackStackLayers()
+        executeQueuedSwipe()
+    }
 
-            touchableView.setOnTouchListener(flingCardListener)
-            touchableView.tag = flingCardListener
+    /**
+     * Puts every card but the top one on its snapshot layer when [staticBackStack] is on, and takes them all off
+     * otherwise. It runs whenever a card becomes the top one, see [getTopCard]
+     */
+    private fun updateBackStackLayers() {
+        val topCard = getTopCard()
+        for (i in 0 until attachedViewsById.size()) {
+            val viewHolder = attachedViewsById.valueAt(i)
+            setBackStackLayer(viewHolder, staticBackStack && viewHolder.itemView != topCard)
         }
     }
 
-    private fun attachTouchListener(touchableView: View) {
-
-        val allViewsCount = rootFrameLayout.childCount
-        for (i in 0 until allViewsCount) {
-            rootFrameLayout.getChildAt(i)?.setOnTouchListener(null)
+    private fun setBackStackLayer(viewHolder: T, enabled: Boolean) {
+        val card = viewHolder.itemView
+        if (enabled) {
+            // a layer type set by the card itself or by a running drag is left alone, and without hardware
+            // acceleration the layer would be a software bitmap which costs more than it saves
+            if (card.layerType == View.LAYER_TYPE_NONE && card.isHardwareAccelerated) {
+                card.setLayerType(View.LAYER_TYPE_HARDWARE, null)
+                viewHolder.hasBackStackLayer = true
+            }
+        } else if (viewHolder.hasBackStackLayer) {
+            if (card.layerType == View.LAYER_TYPE_HARDWARE) {
+                card.setLayerType(View.LAYER_TYPE_NONE, null)
+            }
+            viewHolder.hasBackStackLayer = false
         }
+    }
 
+    /**
+     * Every view holder keeps the same listener for its whole life, it only gets rebound to the view
+     * whenever the holder becomes the top most card
+     */
+    private fun obtainFlingCardListener(itemId: Int): FlingCardListener {
+        flingCardListeners.get(itemId)?.let { return it }
 
-        val flingCardListener = FlingCardListener(touchableView,
-                touchableView,
-                initialRotation, mainFlingListener, mainClickListener
-        )
+        val flingCardListener = FlingCardListener(initialRotation, touchConfiguration,
+                mainFlingListener, mainClickListener)
         flingCardListener.setAllowLeftSwipe(enableLeftSwipe)
         flingCardListener.setAllowRightSwipe(enableRightSwipe)
         flingCardListener.setAllowTopSwipe(enableTopSwipe)
         flingCardListener.setAllowBottomSwipe(enableBottomSwipe)
+        flingCardListener.setHardwareLayerPolicy(hardwareLayerPolicy, hardwareLayerMinChildCount,
+                hardwareLayerForCardBelow)
+        flingCardListener.setExitCommitListener(mainCommitListener)
+        flingCardListener.setCardBelowLayerListener(cardBelowLayerListener)
+        flingCardListener.setMetrics(swipeMetrics)
+        flingCardListeners.put(itemId, flingCardListener)
+        return flingCardListener
+    }
 
-        touchableView.setOnTouchListener(flingCardListener)
-        touchableView.tag = flingCardListener
+    private fun updateHardwareLayerPolicy() {
+        for (i in 0 until flingCardListeners.size()) {
+            flingCardListeners.valueAt(i).setHardwareLayerPolicy(hardwareLayerPolicy,
+                    hardwareLayerMinChildCount, hardwareLayerForCardBelow)
+        }
+    }
+
+    private fun releaseFlingCardListener(itemId: Int) {
+        val flingCardListener = flingCardListeners.get(itemId) ?: return
+        if (flingCardListener == boundFlingCardListener) {
+            boundFlingCardListener = null
+        }
+        flingCardListener.release()
+        flingCardListeners.remove(itemId)
+    }
+
+    /**
+     * Releases the touch tracking resources held by the cards, call it once the adapter is not used anymore
+     * e.g. when the hosting screen is destroyed
+     */
+    open fun release() {
+        Looper.myQueue().removeIdleHandler(prefetchIdleHandler)
+        isPrefetchScheduled = false
+        frameScrollDispatcher.cancel()
+        undoAnimator.cancel()
+        clearUndoHistory()
+        cancelSwipes()
+        exitingViewHolders.clear()
+        for (i in 0 until flingCardListeners.size()) {
+            flingCardListeners.valueAt(i).release()
+        }
+        flingCardListeners.clear()
+        boundFlingCardListener = null
     }
 
     private fun createDefaultLayoutParams(): FrameLayout.LayoutParams {
@@ -302,13 +842,17 @@ abstract class SwipeableAdapter<T : SwipeableAdapter.ViewHolder>(
 
     companion object {
 
-        private class RecycledViewsPool<T : ViewHolder>(val size: Int) {
-            private val viewsPool = Pools.SynchronizedPool<T>(size)
+        /**
+         * Bounded pool of swiped away view holders, once full any extra holder is left for the GC
+         */
+        private class RecycledViewsPool<T : ViewHolder>(val size: Int, val stats: PoolStats) {
+            private val viewsPool = Pools.SimplePool<T>(size)
 
 
-            public fun recycleView(toBeRecycled: T) {
-                viewsPool.release(toBeRecycled)
-            }
+            /**
+             * @return false if the pool is already full and the view holder has not been kept
+             */
+            public fun recycleView(toBeRecycled: T): Boolean = viewsPool.release(toBeRecycled)
 
             public fun obtainView() = viewsPool.acquire()
 
@@ -320,7 +864,47 @@ abstract class SwipeableAdapter<T : SwipeableAdapter.ViewHolder>(
         const val DIRECTION_RIGHT = 4
         const val DIRECTION_NONE = 5
 
+        private const val FAST_FORWARD_DURATION_SCALE = 0.2f
+
+        const val SCROLL_DISPATCH_IMMEDIATE = 1
+        const val SCROLL_DISPATCH_PER_FRAME = 2
 
+        const val HARDWARE_LAYER_ALWAYS = 1
+        const val HARDWARE_LAYER_COMPLEX_CARDS = 2
+        const val HARDWARE_LAYER_NEVER = 3
+
+        /**
+         * The policy of the adapter and of its touch listeners until [hardwareLayerPolicy] is set
+         */
+        const val DEFAULT_HARDWARE_LAYER_POLICY = HARDWARE_LAYER_ALWAYS
+
+
+    }
+
+    /**
+     * Counters of the recycled views pool of one view type, used to tune [getRecycledViewsPoolSize]
+     */
+    class PoolStats internal constructor(val viewType: Int) {
+        /**
+         * Number of cards of this type bound to a recycled view holder
+         */
+        var hitCount: Int = 0
+            internal set
+
+        /**
+         * Number of cards of this type that needed a new view holder because the pool was empty
+         */
+        var missCount: Int = 0
+            internal set
+
+        /**
+         * Number of swiped away view holders dropped because the pool was already full
+         */
+        var overflowCount: Int = 0
+            internal set
+
+        override fun toString(): String =
+                "PoolStats(viewType=$viewType, hits=$hitCount, misses=$missCount, overflows=$overflowCount)"
     }
 
     abstract class ViewHolder(val itemView: View) {
@@ -340,6 +924,8 @@ abstract class SwipeableAdapter<T : SwipeableAdapter.ViewHolder>(
         var itemViewType = INVALID_TYPE
             internal set
         internal var mIsDirty = true
+        internal var hasBackStackLayer = false
+        internal var commitNanos = 0L
 
         init {
             itemView.post {
@@ -365,56 +951,384 @@ abstract class SwipeableAdapter<T : SwipeableAdapter.ViewHolder>(
     }
 
 
+    /**
+     * Swipes the top card away now, nothing happens while a card is still animating or being attached,
+     * use [enqueueSwipe] for commands that must not be lost
+     */
     public fun selectTop() {
-        (getLastView().tag as? FlingCardListener)?.selectTop()
+        select(DIRECTION_TOP)
     }
 
     public fun selectBottom() {
-        (getLastView().tag as? FlingCardListener)?.selectBottom()
+        select(DIRECTION_BOTTOM)
     }
 
     public fun selectRight() {
-        (getLastView().tag as? FlingCardListener)?.selectRightMiddle()
+        select(DIRECTION_RIGHT)
     }
 
     public fun selectLeft() {
-        (getLastView().tag as? FlingCardListener)?.selectLeftMiddle()
+        select(DIRECTION_LEFT)
+    }
+
+    private fun select(direction: Int) {
+        if (boundFlingCardListener?.select(toFlingDirection(direction), 1f) != true) {
+            swipeMetrics?.onSelectDropped(direction)
+        }
+    }
+
+    /**
+     * Queues a swipe of the top card, the queued swipes run one after the other as soon as the previous card is
+     * gone and the next one is touchable, or as soon as the previous card is committed with [overlappingExits].
+     * None of them is ever dropped. Each swipe runs the same exit animation as select*, shortened when
+     * [fastForwardSwipes] is on.
+     * The callback is called once the card has exited and every [flingExitListener] callback has been called,
+     * or right away when the deck is empty
+     *
+     * @param direction one of [DIRECTION_LEFT], [DIRECTION_RIGHT], [DIRECTION_TOP] and [DIRECTION_BOTTOM]
+     */
+    public fun enqueueSwipe(direction: Int, callback: SwipeCommandCallback?) {
+        checkSetup()
+        queuedSwipes.addLast(SwipeCommand(direction, toFlingDirection(direction), callback))
+        executeQueuedSwipe()
+    }
+
+    /**
+     * Makes the item at the given position the top card right away, without animating nor binding any of the
+     * cards skipped over: only the cards of the new stack that are not bound yet get bound, so the cost does not
+     * depend on how far the seek goes. The cards above the position count as swiped.
+     * A card still leaving the stack stops where it is and gets no exit callback, [seekListener] gets a single
+     * callback for the whole seek instead. The undo history is cleared, the queued swipes carry on from the new
+     * top card
+     */
+    public fun seekTo(position: Int) {
+        checkSetup()
+        if (position < 0 || position >= getItemCount()) {
+            throw IndexOutOfBoundsException("Cannot seek to $position, the adapter has ${getItemCount()} items")
+        }
+        val fromPosition = currentVisiblePosition
+        if (position == fromPosition) {
+            return
+        }
+
+        cancelExits()
+        cancelInFlightSwipes()
+        clearUndoHistory()
+
+        currentVisiblePosition = position
+        layoutStack()
+        seekListener?.onSeek(fromPosition, position)
+    }
+
+    /**
+     * The number of queued swipes that have not started yet
+     */
+    val queuedSwipeCount: Int
+        get() = queuedSwipes.size
+
+    /**
+     * Starts the first queued swipe if the top card can take it. It is called again whenever a card exits or
+     * gets its touch listener, until the queue is empty. With [overlappingExits] every queued swipe the top cards
+     * can take starts right away, each one committing its card and making the next one the top card
+     */
+    private fun executeQueuedSwipe() {
+        // committing a card attaches the touch listener of the next one, which comes back here
+        if (isStartingSwipes) {
+            return
+        }
+        isStartingSwipes = true
+        try {
+            while (startQueuedSwipe()) {
+            }
+        } finally {
+            isStartingSwipes = false
+        }
+    }
+
+    /**
+     * @return true if a swipe started and the next one may start as well
+     */
+    private fun startQueuedSwipe(): Boolean {
+        if (queuedSwipes.isEmpty() || (inFlightSwipes.isNotEmpty() && !overlappingExits)) {
+            return false
+        }
+        if (rootFrameLayout.childCount == 0) {
+            // no card will ever come unless the items change, the swipes would wait forever
+            failQueuedSwipes()
+            return false
+        }
+        // the top card is still being attached or brought back by an undo
+        val flingCardListener = boundFlingCardListener ?: return false
+        val topCard = getTopCard() ?: return false
+        if (undoAnimator.isStarted) {
+            return false
+        }
+
+        val swipe = queuedSwipes.pollFirst()
+        swipe.position = currentVisiblePosition
+        swipe.itemId = topCard.id
+        inFlightSwipes.addLast(swipe)
+        val durationScale = if (fastForwardSwipes) FAST_FORWARD_DURATION_SCALE else 1f
+        if (!flingCardListener.select(swipe.flingDirection, durationScale)) {
+            // the top card is already leaving, the swipe runs on the next card
+            inFlightSwipes.pollLast()
+            queuedSwipes.addFirst(swipe)
+            return false
+        }
+        return true
+    }
+
+    private fun finishInFlightSwipe(view: View) {
+        val swipe = inFlightSwipes.firstOrNull { it.itemId == view.id }
+        swipe?.let {
+            inFlightSwipes.remove(it)
+            it.callback?.onSwipeCompleted(it.direction, it.position, true)
+        }
+        executeQueuedSwipe()
+    }
+
+    private fun cancelSwipes() {
+        cancelInFlightSwipes()
+        failQueuedSwipes()
+    }
+
+    private fun cancelInFlightSwipes() {
+        while (inFlightSwipes.isNotEmpty()) {
+            val swipe = inFlightSwipes.pollFirst()
+            swipe.callback?.onSwipeCompleted(swipe.direction, swipe.position, false)
+        }
+    }
+
+    private fun failQueuedSwipes() {
+        while (queuedSwipes.isNotEmpty()) {
+            val swipe = queuedSwipes.pollFirst()
+            swipe.callback?.onSwipeCompleted(swipe.direction, ViewHolder.NO_POSITION, false)
+        }
+    }
+
+    private fun toFlingDirection(direction: Int): Int = when (direction) {
+        DIRECTION_LEFT -> FlingCardListener.LEFT
+        DIRECTION_RIGHT -> FlingCardListener.RIGHT
+        DIRECTION_TOP -> FlingCardListener.TOP
+        DIRECTION_BOTTOM -> FlingCardListener.BOTTOM
+        else -> throw IllegalArgumentException("Unknown swipe direction $direction")
+    }
+
+    private fun fromFlingDirection(flingDirection: Int): Int = when (flingDirection) {
+        FlingCardListener.LEFT -> DIRECTION_LEFT
+        FlingCardListener.RIGHT -> DIRECTION_RIGHT
+        FlingCardListener.TOP -> DIRECTION_TOP
+        FlingCardListener.BOTTOM -> DIRECTION_BOTTOM
+        else -> DIRECTION_NONE
+    }
+
+    /**
+     * Stops the cards still leaving the stack where they are and recycles them, none of them gets its exit
+     * callbacks
+     */
+    private fun cancelExits() {
+        while (exitingViewHolders.isNotEmpty()) {
+            val viewHolder = exitingViewHolders.pollFirst()
+            flingCardListeners.get(viewHolder.itemId)?.cancelExit()
+            removeAndRecycleView(viewHolder)
+        }
+    }
+
+    private class SwipeCommand(val direction: Int, val flingDirection: Int, val callback: SwipeCommandCallback?) {
+        var position = ViewHolder.NO_POSITION
+        // the id of the card it swipes, to complete it once that card has exited
+        var itemId = ViewHolder.NO_ID
+    }
+
+    /**
+     * The number of swipes that can currently be undone
+     */
+    val undoCount: Int
+        get() = undoHistory.size
+
+    /**
+     * The direction the card brought back by the next [undo] was swiped to, [DIRECTION_NONE] when there is none
+     */
+    val undoDirection: Int
+        get() = undoHistory.peekLast()?.direction ?: DIRECTION_NONE
+
+    /**
+     * Brings the last swiped card back on top of the stack, moving it from where its exit ended back to its place.
+     * Its view holder is still bound, so nothing is inflated nor bound. An undo still running is finished first,
+     * so undoing repeatedly never stacks animations.
+     * The history is cleared by [notifyItemInserted] and the range notifications, except by items inserted
+     * behind the deck
+     *
+     * @return false if there is no swipe to undo, or while a card is still leaving the stack
+     */
+    public fun undo(): Boolean {
+        checkSetup()
+        if (undoAnimator.isStarted) {
+            undoAnimator.end()
+        }
+        if (exitingViewHolders.isNotEmpty()) {
+            return false
+        }
+        val exitRecord = undoHistory.pollLast() ?: return false
+        val viewHolder = exitRecord.viewHolder
+
+        if (attachedViewsById.size() >= getViewPoolSize()) {
+            rootFrameLayout.getChildAt(0)?.let { findAttachedViewHolder(it) }?.let { detachToPrefetched(it) }
+        }
+        currentVisiblePosition = viewHolder.position
+
+        // the card below must not be dragged while the undone card lands on it
+        boundFlingCardListener?.unbind()
+        boundFlingCardListener = null
+
+        attachedViewsById.put(viewHolder.itemId, viewHolder)
+        rootFrameLayout.addView(viewHolder.itemView)
+        undoAnimation.start(exitRecord)
+
+        onTopCardChanged(currentVisiblePosition)
+        flingEnterListener?.onCardEntered(viewHolder.itemView, exitRecord.restX, exitRecord.restY,
+                currentVisiblePosition)
+        return true
+    }
+
+    private fun keepForUndo(viewHolder: T, restX: Float, restY: Float) {
+        flingCardListeners.get(viewHolder.itemId)?.unbind()
+        setBackStackLayer(viewHolder, false)
+        val itemView = viewHolder.itemView
+        addToUndoHistory(ExitRecord(viewHolder, lastExitDirection,
+                itemView.x, itemView.y, itemView.rotation, restX, restY))
+        rootFrameLayout.removeView(itemView)
+        attachedViewsById.remove(viewHolder.itemId)
+        lastExitDirection = DIRECTION_NONE
+        trimUndoHistory()
+    }
+
+    private fun addToUndoHistory(exitRecord: ExitRecord<T>) {
+        val position = exitRecord.viewHolder.position
+        // overlapping exits can end out of order, the history stays in the order the cards left the stack
+        var laterRecords: ArrayDeque<ExitRecord<T>>? = null
+        while (undoHistory.isNotEmpty() && undoHistory.peekLast().viewHolder.position < position) {
+            if (laterRecords == null) {
+                laterRecords = ArrayDeque()
+            }
+            laterRecords.addFirst(undoHistory.pollLast())
+        }
+        undoHistory.addLast(exitRecord)
+        laterRecords?.let { undoHistory.addAll(it) }
+    }
+
+    private fun trimUndoHistory() {
+        while (undoHistory.size > undoHistorySize) {
+            removeAndRecycleView(undoHistory.pollFirst().viewHolder)
+        }
+    }
+
+    private fun clearUndoHistory() {
+        if (undoAnimator.isStarted) {
+            undoAnimator.end()
+        }
+        while (undoHistory.isNotEmpty()) {
+            removeAndRecycleView(undoHistory.pollFirst().viewHolder)
+        }
+    }
+
+    /**
+     * Takes the bottom card out of the stack, it stays bound as the next card to attach unless that goes
+     * beyond [prefetchDepth]
+     */
+    private fun detachToPrefetched(viewHolder: T) {
+        setBackStackLayer(viewHolder, false)
+        rootFrameLayout.removeView(viewHolder.itemView)
+        attachedViewsById.remove(viewHolder.itemId)
+        prefetchedViewHolders.addFirst(viewHolder)
+        trimPrefetchedViewHolders(prefetchDepth)
+    }
+
+    /**
+     * Where and how a card left the stack, enough to play its exit backwards
+     */
+    private class ExitRecord<T>(
+            val viewHolder: T,
+            val direction: Int,
+            val exitX: Float,
+            val exitY: Float,
+            val exitRotation: Float,
+            val restX: Float,
+            val restY: Float)
+
+    /**
+     * Moves an undone card back from its exit to its place, the touch listener is only attached once it is there
+     */
+    private inner class UndoAnimation : ValueAnimator.AnimatorUpdateListener {
+        private var exitRecord: ExitRecord<T>? = null
+
+        fun start(exitRecord: ExitRecord<T>) {
+            this.exitRecord = exitRecord
+            val itemView = exitRecord.viewHolder.itemView
+            itemView.x = exitRecord.exitX
+            itemView.y = exitRecord.exitY
+            itemView.rotation = exitRecord.exitRotation
+            undoAnimator.start()
+        }
+
+        override fun onAnimationUpdate(animation: ValueAnimator) {
+            val exitRecord = exitRecord ?: return
+            val fraction = animation.animatedFraction
+            val itemView = exitRecord.viewHolder.itemView
+            itemView.x = exitRecord.exitX + (exitRecord.restX - exitRecord.exitX) * fraction
+            itemView.y = exitRecord.exitY + (exitRecord.restY - exitRecord.exitY) * fraction
+            itemView.rotation = exitRecord.exitRotation * (1 - fraction)
+            if (fraction >= 1f) {
+                this.exitRecord = null
+                if (itemView.parent != null && itemView == getTopCard()) {
+                    attachTouchListener(itemView)
+                }
+            }
+        }
     }
 
 
     private fun getRealCurrentPosition(): Int = currentVisiblePosition
     private fun getExitingPosition(): Int = currentVisiblePosition + 1
 
+    /**
+     * The position of a card leaving the stack, [ViewHolder.NO_POSITION] if its item was removed meanwhile
+     */
+    private fun getExitingPosition(view: View): Int = findExitingViewHolder(view)?.position ?: ViewHolder.NO_POSITION
+
+    /**
+     * The position of the card being dragged, or of a card still leaving the stack once its swipe is committed
+     */
+    private fun getCardPosition(view: View): Int = findAttachedViewHolder(view)?.position ?: getExitingPosition(view)
+
     public fun notifyItemInserted(insertedIndex: Int, direction: Int = DIRECTION_NONE) {
+        onItemPositionsChanged()
+        clearUndoHistory()
+        // the positions are counted again from the attached cards once the inserted one is bound
+        trimPrefetchedViewHolders(0)
 
-        if (rootFrameLayout.childCount >= getViewPoolSize()) {
+        if (attachedViewsById.size() >= getViewPoolSize()) {
             val viewToBeRemoved = rootFrameLayout.getChildAt(0)
 
             if (viewToBeRemoved != null) {
                 adjustViewMargins(viewToBeRemoved)
-                for (i in 0 until attachedViewsByPosition.size()) {
-                    val key = attachedViewsByPosition.keyAt(i)
-                    // get the object by the key.
-                    attachedViewsByPosition.get(key)?.let {
-                        if (it.itemId == viewToBeRemoved.id) {
-                            removeAndRecycleView(it)
-                        }
-                    }
-                }
+                findAttachedViewHolder(viewToBeRemoved)?.let { removeAndRecycleView(it) }
             }
         }
 
-        val createdViewHolder = createViewHolder(rootFrameLayout)
-        createdViewHolder.itemView.layoutParams = createDefaultLayoutParams()
+        // the inserted card goes on top, right above the card visible now
+        val createdViewHolder = obtainViewHolder(currentVisiblePosition + 1)
+        adjustViewMargins(createdViewHolder.itemView)
+        attachedViewsById.put(createdViewHolder.itemId, createdViewHolder)
 
         createdViewHolder.itemView.post {
-            createdViewHolder.itemId = createdViewHolder.itemView.id
-            attachedViewsByPosition.append(createdViewHolder.itemId, createdViewHolder)
-            currentViewsPosition = getItemCount() - rootFrameLayout.childCount
+            currentViewsPosition = getItemCount() - attachedViewsById.size()
             currentVisiblePosition++
-            onBindView(createdViewHolder, getRealCurrentPosition())
+            bindViewHolder(createdViewHolder, getRealCurrentPosition())
             currentViewsPosition--
             attachTouchListenerToLastView()
+            onTopCardChanged(currentVisiblePosition)
+            schedulePrefetch()
 
 
             when (direction) {
@@ -435,6 +1349,8 @@ abstract class SwipeableAdapter<T : SwipeableAdapter.ViewHolder>(
                 else -> {
                 }
             }
+            // hidden until bound and moved to where its animation starts, whichever the direction
+            createdViewHolder.itemView.visibility = View.VISIBLE
 
             flingEnterListener?.onCardEntered(createdViewHolder.itemView,
                     createdViewHolder.initialX,
@@ -442,8 +1358,275 @@ abstract class SwipeableAdapter<T : SwipeableAdapter.ViewHolder>(
                     getExitingPosition())
         }
         createdViewHolder.itemView.visibility = View.INVISIBLE
-        rootFrameLayout.addView(createdViewHolder.itemView)
+        // right under the cards still leaving the stack, if any
+        rootFrameLayout.addView(createdViewHolder.itemView, rootFrameLayout.childCount - exitingViewHolders.size)
+
+    }
+
+
+    /**
+     * Notifies that [itemCount] items were added at the end of the deck, behind every card that is not swiped yet.
+     * They take the positions 0 until [itemCount] and every other position moves up by [itemCount].
+     * The cards already in the stack are left as they are, only the free slots at its bottom get bound
+     */
+    public fun notifyItemRangeAppended(itemCount: Int) {
+        notifyItemRangeInserted(0, itemCount)
+    }
+
+    /**
+     * Notifies that [itemCount] items were inserted at [positionStart], the items from [positionStart] on move up
+     * by [itemCount].
+     * Cards already swiped stay swiped, items inserted among them are considered swiped as well. Items inserted
+     * right above the top card are not, the last of them becomes the new top card without any animation,
+     * use [notifyItemInserted] to bring a single card back with one.
+     * Only the cards whose position ends up in the stack are bound, the cards already bound keep their views
+     */
+    public fun notifyItemRangeInserted(positionStart: Int, itemCount: Int) {
+        checkSetup()
+        if (itemCount <= 0) {
+            return
+        }
+        onItemPositionsChanged()
+        // items inserted behind the deck leave the swiped cards in order, the history follows their positions
+        if (positionStart > currentVisiblePosition) {
+            clearUndoHistory()
+        }
+        offsetPositionsForInsert(positionStart, itemCount)
+        layoutStack()
+    }
+
+    /**
+     * Notifies that the [itemCount] items from [positionStart] on were removed, the items after them move down
+     * by [itemCount]. A removed card still in the stack leaves it right away, if the top card is removed the card
+     * below it becomes the top card
+     */
+    public fun notifyItemRangeRemoved(positionStart: Int, itemCount: Int) {
+        checkSetup()
+        if (itemCount <= 0) {
+            return
+        }
+        onItemPositionsChanged()
+        clearUndoHistory()
+        offsetPositionsForRemove(positionStart, itemCount)
+        layoutStack()
+    }
+
+    /**
+     * Notifies that the [itemCount] items from [positionStart] on changed, only the cards of these positions
+     * currently bound get bound again
+     */
+    public fun notifyItemRangeChanged(positionStart: Int, itemCount: Int) {
+        checkSetup()
+        if (itemCount <= 0) {
+            return
+        }
+        onItemPositionsChanged()
+        clearUndoHistory()
+        markPositionsChanged(positionStart, itemCount)
+        layoutStack()
+    }
+
+    /**
+     * Notifies that the item at [fromPosition] moved to [toPosition], a bound card keeps its view and only moves
+     * within the stack. If the top card itself moves, the card taking its place becomes the top card
+     */
+    public fun notifyItemMoved(fromPosition: Int, toPosition: Int) {
+        checkSetup()
+        if (fromPosition == toPosition) {
+            return
+        }
+        onItemPositionsChanged()
+        clearUndoHistory()
+        offsetPositionsForMove(fromPosition, toPosition)
+        layoutStack()
+    }
+
+    /**
+     * Applies every update of the given diff at once, only the cards whose position or content changed are
+     * touched and the stack is laid out a single time.
+     * [getItemCount] and [onBindView] must already reflect the new list when this is called
+     */
+    protected fun dispatchUpdates(diffResult: DiffUtil.DiffResult) {
+        checkSetup()
+        onItemPositionsChanged()
+        clearUndoHistory()
+        diffResult.dispatchUpdatesTo(stackUpdateCallback)
+        layoutStack()
+    }
+
+    /**
+     * Only moves the positions of the bound cards and of the top card around, [layoutStack] applies them
+     * once every update is known
+     */
+    private val stackUpdateCallback = object : ListUpdateCallback {
+        override fun onInserted(position: Int, count: Int) = offsetPositionsForInsert(position, count)
+
+        override fun onRemoved(position: Int, count: Int) = offsetPositionsForRemove(position, count)
+
+        override fun onMoved(fromPosition: Int, toPosition: Int) = offsetPositionsForMove(fromPosition, toPosition)
+
+        override fun onChanged(position: Int, count: Int, payload: Any?) = markPositionsChanged(position, count)
+    }
+
+    private inline fun forEachBoundViewHolder(action: (T) -> Unit) {
+        for (i in 0 until attachedViewsById.size()) {
+            action(attachedViewsById.valueAt(i))
+        }
+        for (viewHolder in prefetchedViewHolders) {
+            action(viewHolder)
+        }
+        for (viewHolder in exitingViewHolders) {
+            action(viewHolder)
+        }
+        for (exitRecord in undoHistory) {
+            action(exitRecord.viewHolder)
+        }
+    }
+
+    private fun offsetPositionsForInsert(positionStart: Int, itemCount: Int) {
+        forEachBoundViewHolder {
+            if (it.position >= positionStart) {
+                it.position += itemCount
+            }
+        }
+        if (positionStart <= currentVisiblePosition + 1) {
+            currentVisiblePosition += itemCount
+        }
+    }
+
+    private fun offsetPositionsForRemove(positionStart: Int, itemCount: Int) {
+        val positionEnd = positionStart + itemCount
+        forEachBoundViewHolder {
+            if (it.position >= positionEnd) {
+                it.position -= itemCount
+            } else if (it.position >= positionStart) {
+                it.position = ViewHolder.NO_POSITION
+            }
+        }
+        currentVisiblePosition = when {
+            currentVisiblePosition >= positionEnd -> currentVisiblePosition - itemCount
+            currentVisiblePosition >= positionStart -> positionStart - 1
+            else -> currentVisiblePosition
+        }
+    }
+
+    private fun offsetPositionsForMove(fromPosition: Int, toPosition: Int) {
+        forEachBoundViewHolder {
+            val position = it.position
+            if (position == fromPosition) {
+                it.position = toPosition
+            } else if (position != ViewHolder.NO_POSITION) {
+                val positionAfterRemove = if (position > fromPosition) position - 1 else position
+                it.position = if (positionAfterRemove >= toPosition) positionAfterRemove + 1 else positionAfterRemove
+            }
+        }
+        // the same as removing the item then inserting it back
+        val topAfterRemove = if (currentVisiblePosition >= fromPosition) currentVisiblePosition - 1
+        else currentVisiblePosition
+        currentVisiblePosition = if (toPosition <= topAfterRemove + 1) topAfterRemove + 1 else topAfterRemove
+    }
+
+    private fun markPositionsChanged(positionStart: Int, itemCount: Int) {
+        forEachBoundViewHolder {
+            if (it.position >= positionStart && it.position < positionStart + itemCount) {
+                it.mIsDirty = true
+            }
+        }
+    }
+
+    /**
+     * Brings the stack in line with the positions, after they were moved around by the range notifications:
+     * the attached cards become the [getViewPoolSize] positions from the top card down, in order, followed by
+     * as many prefetched cards as possible.
+     * Cards whose position left the stack are recycled, cards already bound to a position of the stack are reused
+     * and only moved if their index changed, and only the missing or changed positions get bound
+     */
+    private fun layoutStack() {
+        val previousTopCard = getTopCard()
+        val bottomPosition = maxOf(0, currentVisiblePosition - getViewPoolSize() + 1)
+
+        for (i in attachedViewsById.size() - 1 downTo 0) {
+            val viewHolder = attachedViewsById.valueAt(i)
+            if (viewHolder.position < bottomPosition || viewHolder.position > currentVisiblePosition) {
+                removeAndRecycleView(viewHolder)
+            }
+        }
+
+        var isTopCardNew = false
+        var index = 0
+        for (position in bottomPosition..currentVisiblePosition) {
+            val viewHolder = findBoundViewHolder(position)
+            if (viewHolder == null) {
+                val createdViewHolder = obtainViewHolder(position)
+                adjustViewMargins(createdViewHolder.itemView)
+                bindViewHolder(createdViewHolder, position)
+                attachedViewsById.put(createdViewHolder.itemId, createdViewHolder)
+                rootFrameLayout.addView(createdViewHolder.itemView, index)
+                isTopCardNew = true
+            } else {
+                isTopCardNew = false
+                if (viewHolder.mIsDirty) {
+                    bindViewHolder(viewHolder, position)
+                }
+                if (rootFrameLayout.getChildAt(index) != viewHolder.itemView) {
+                    if (viewHolder.itemView.parent != null) {
+                        rootFrameLayout.removeView(viewHolder.itemView)
+                    } else {
+                        // a prefetched card, ready to be attached
+                        prefetchedViewHolders.remove(viewHolder)
+                        attachedViewsById.put(viewHolder.itemId, viewHolder)
+                        isTopCardNew = true
+                    }
+                    rootFrameLayout.addView(viewHolder.itemView, index)
+                }
+            }
+            index++
+        }
+
+        // the prefetched cards must follow the bottom card without any gap
+        val lowestPosition = if (currentVisiblePosition < 0) 0 else bottomPosition
+        val keptViewHolders = ArrayDeque<T>(prefetchDepth)
+        var position = lowestPosition - 1
+        while (position >= 0) {
+            val viewHolder = prefetchedViewHolders.firstOrNull { it.position == position } ?: break
+            prefetchedViewHolders.remove(viewHolder)
+            if (viewHolder.mIsDirty) {
+                bindViewHolder(viewHolder, position)
+                measureDetachedView(viewHolder.itemView)
+            }
+            keptViewHolders.addLast(viewHolder)
+            position--
+        }
+        while (prefetchedViewHolders.isNotEmpty()) {
+            removeAndRecycleView(prefetchedViewHolders.pollFirst())
+        }
+        prefetchedViewHolders.addAll(keptViewHolders)
+        currentViewsPosition = position
+
+        val topCard = getTopCard()
+        // the previous top card may have been recycled and attached again on top, its listener got unbound
+        if (topCard != null && (isTopCardNew || topCard != previousTopCard)) {
+            // a card attached just now is not laid out yet, the touch listener needs its coordinates
+            if (isTopCardNew) {
+                attachTouchListenerPost(topCard)
+            } else {
+                attachTouchListener(topCard)
+            }
+        } else {
+            updateBackStackLayers()
+        }
+        onTopCardChanged(currentVisiblePosition)
+        schedulePrefetch()
+    }
 
+    private fun findBoundViewHolder(position: Int): T? {
+        for (i in 0 until attachedViewsById.size()) {
+            val viewHolder = attachedViewsById.valueAt(i)
+            if (viewHolder.position == position) {
+                return viewHolder
+            }
+        }
+        return prefetchedViewHolders.firstOrNull { it.position == position }
     }
 
 
@@ -464,7 +1647,14 @@ abstract class SwipeableAdapter<T : SwipeableAdapter.ViewHolder>(
 
 
     private fun animateBackFromBottom(createdViewHolder: T) {
-
+        createdViewHolder.itemView.y =
+                createdViewHolder.itemView.y + createdViewHolder.itemView.dip(60)
+        createdViewHolder.itemView.animate()
+                .setDuration(200)
+                .setInterpolator(DecelerateInterpolator(0.5f))
+                .x(createdViewHolder.initialX)
+                .y(createdViewHolder.initialY)
+                .start()
     }
 
     private fun animateBackFromLeft(createdViewHolder: T) {
@@ -474,17 +1664,29 @@ abstract class SwipeableAdapter<T : SwipeableAdapter.ViewHolder>(
         createdViewHolder.itemView.rotation = -45f
 
         createdViewHolder.itemView.animate()
-                .setDuration(0)
-                .xBy(-createdViewHolder.itemView.width * 1.5f)
-                .rotation(-45f)
+                .setDuration(250)
+                .setInterpolator(DecelerateInterpolator(0.5f))
+                .x(createdViewHolder.initialX)
+                .y(createdViewHolder.initialY)
+                .rotation(0f)
                 .setListener(object : AnimatorListenerAdapter() {
+                    override fun onAnimationStart(animation: Animator?) {
+                        createdViewHolder.itemView.requestLayout()
+                    }
                     override fun onAnimationEnd(animation: Animator) {
                         createdViewHolder.itemView.requestLayout()
-                        createdViewHolder.itemView.visibility = View.VISIBLE
                     }
                 })
                 .start()
 
+    }
+
+    private fun animateBackFromRight(createdViewHolder: T) {
+        createdViewHolder.itemView.x =
+                createdViewHolder.itemView.x + (createdViewHolder.itemView.width * 1.5).toInt()
+
+        createdViewHolder.itemView.rotation = 45f
+
         createdViewHolder.itemView.animate()
                 .setDuration(250)
                 .setInterpolator(DecelerateInterpolator(0.5f))
@@ -500,11 +1702,6 @@ abstract class SwipeableAdapter<T : SwipeableAdapter.ViewHolder>(
                     }
                 })
                 .start()
-
-    }
-
-    private fun animateBackFromRight(createdViewHolder: T) {
-
     }
 
 }
@@ -0,0 +1,20 @@
+package com.focusedswipeablelistitem.core;
+
+import android.content.Context;
+import android.view.ViewConfiguration;
+
+/**
+ * System constants for touch thresholds, looked up once and shared by all the {@link FlingCardListener}s of an adapter
+ */
+class TouchConfiguration {
+    final int touchSlop;
+    final int maximumVelocity;
+    final int minimumVelocity;
+
+    TouchConfiguration(Context context) {
+        ViewConfiguration viewConfiguration = ViewConfiguration.get(context);
+        touchSlop = viewConfiguration.getScaledTouchSlop();
+        maximumVelocity = viewConfiguration.getScaledMaximumFlingVelocity();
+        minimumVelocity = viewConfiguration.getScaledMinimumFlingVelocity() + 100;
+    }
+}
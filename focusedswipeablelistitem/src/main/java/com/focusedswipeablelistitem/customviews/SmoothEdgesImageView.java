@@ -9,6 +9,7 @@ import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.graphics.Shader;
 import android.graphics.drawable.BitmapDrawable;
+import android.graphics.drawable.Drawable;
 import android.os.Build;
 import android.util.AttributeSet;
 import android.widget.ImageView;
@@ -17,12 +18,20 @@ import android.widget.ImageView;
  * Custom {ImageView} that hides jagged edges when the view is tilted
  * Source:
  * https://medium.com/@elye.project/smoothen-jagged-edges-of-rotated-image-view-1e56f6d8b5e9
+ * <p>
+ * The shader is only rebuilt when the bitmap changes and the centre-crop matrix only when the bitmap or
+ * the size changes, so drawing a card while it is dragged does not allocate
  */
 public class SmoothEdgesImageView extends ImageView {
-    Paint paint = new Paint();
+    Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
     BitmapShader shader;
     private Matrix matrix = new Matrix();
 
+    private Bitmap shaderBitmap;
+    private int matrixWidth;
+    private int matrixHeight;
+    private boolean isMatrixDirty = true;
+
     public SmoothEdgesImageView(Context context) {
         super(context);
     }
@@ -40,37 +49,38 @@ public class SmoothEdgesImageView extends ImageView {
         super(context, attrs, defStyleAttr, defStyleRes);
     }
 
+    @Override
+    public void setImageDrawable(Drawable drawable) {
+        super.setImageDrawable(drawable);
+        isMatrixDirty = true;
+    }
+
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+        isMatrixDirty = true;
+    }
 
     @Override
     protected void onDraw(Canvas canvas) {
         if (getDrawable() instanceof BitmapDrawable) {
 
-            paint.setAntiAlias(true);
             Bitmap bitmap = ((BitmapDrawable) getDrawable()).getBitmap();
-            shader =
-                    new BitmapShader(bitmap,
-                            Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
-
-
-            float scale;
-            /* Note: this piece of code handling like Centre-Crop scaling */
-            if (bitmap.getWidth() > bitmap.getHeight()) {
-                scale = (float) canvas.getHeight()
-                        / (float) bitmap.getHeight();
-                matrix.setScale(scale, scale);
-                matrix.postTranslate(
-                        (canvas.getWidth() - bitmap.getWidth() * scale) * 0.5f, 0);
-
-            } else {
-                scale = (float) canvas.getWidth()
-                        / (float) bitmap.getWidth();
-                matrix.setScale(scale, scale);
-                matrix.postTranslate(0,
-                        (canvas.getHeight() - bitmap.getHeight() * scale) * 0.5f);
+            // setImageResource does not go through setImageDrawable, so the bitmap itself is compared too
+            if (bitmap != shaderBitmap) {
+                shader =
+                        new BitmapShader(bitmap,
+                                Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+                shaderBitmap = bitmap;
+                paint.setShader(shader);
+                isMatrixDirty = true;
             }
 
-            shader.setLocalMatrix(matrix);
-            paint.setShader(shader);
+            if (isMatrixDirty
+                    || matrixWidth != canvas.getWidth()
+                    || matrixHeight != canvas.getHeight()) {
+                updateMatrix(bitmap, canvas.getWidth(), canvas.getHeight());
+            }
 
             // this is where I shrink the image by 1px each side,
             // move it to the center
@@ -79,4 +89,28 @@ public class SmoothEdgesImageView extends ImageView {
                     0.0f, 0.0f, canvas.getWidth() - 2, canvas.getHeight() - 2, paint);
         }
     }
+
+    private void updateMatrix(Bitmap bitmap, int width, int height) {
+        float scale;
+        /* Note: this piece of code handling like Centre-Crop scaling */
+        if (bitmap.getWidth() > bitmap.getHeight()) {
+            scale = (float) height
+                    / (float) bitmap.getHeight();
+            matrix.setScale(scale, scale);
+            matrix.postTranslate(
+                    (width - bitmap.getWidth() * scale) * 0.5f, 0);
+
+        } else {
+            scale = (float) width
+                    / (float) bitmap.getWidth();
+            matrix.setScale(scale, scale);
+            matrix.postTranslate(0,
+                    (height - bitmap.getHeight() * scale) * 0.5f);
+        }
+
+        shader.setLocalMatrix(matrix);
+        matrixWidth = width;
+        matrixHeight = height;
+        isMatrixDirty = false;
+    }
 }
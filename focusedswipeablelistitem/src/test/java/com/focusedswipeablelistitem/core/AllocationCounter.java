@@ -0,0 +1,40 @@
+package com.focusedswipeablelistitem.core;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Counts the bytes allocated by the current thread between {@link #start()} and {@link #stop()}
+ * The cost of the measurement itself is calibrated once and subtracted from the result
+ */
+class AllocationCounter {
+    private final com.sun.management.ThreadMXBean threadMXBean =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final long threadId = Thread.currentThread().getId();
+    private final long overhead;
+    private long startBytes;
+
+    AllocationCounter() {
+        threadMXBean.setThreadAllocatedMemoryEnabled(true);
+        long minOverhead = Long.MAX_VALUE;
+        for (int i = 0; i < 1000; i++) {
+            start();
+            minOverhead = Math.min(minOverhead, currentBytes() - startBytes);
+        }
+        overhead = minOverhead;
+    }
+
+    void start() {
+        startBytes = currentBytes();
+    }
+
+    /**
+     * @return the number of bytes allocated since the last call to {@link #start()}
+     */
+    long stop() {
+        return Math.max(0, currentBytes() - startBytes - overhead);
+    }
+
+    private long currentBytes() {
+        return threadMXBean.getThreadAllocatedBytes(threadId);
+    }
+}
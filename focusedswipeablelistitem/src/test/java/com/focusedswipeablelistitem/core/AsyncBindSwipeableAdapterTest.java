@@ -0,0 +1,165 @@
+package com.focusedswipeablelistitem.core;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.SWIPE_MILLIS;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.advance;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createCard;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createRoot;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Swipes through a deck whose payloads are prepared on an executor run by hand, and checks that the revealed cards
+ * never have to be prepared on the UI thread
+ */
+@RunWith(RobolectricTestRunner.class)
+public class AsyncBindSwipeableAdapterTest {
+    private static final int ITEM_COUNT = 10;
+    private static final int VIEW_POOL_SIZE = 3;
+    private static final int PREPARE_AHEAD_COUNT = 2;
+
+    private FrameLayout root;
+    private ManualExecutor executor;
+    private TestAdapter adapter;
+
+    @Before
+    public void setUp() {
+        root = createRoot();
+        executor = new ManualExecutor();
+        adapter = new TestAdapter(root.getContext(), root, executor);
+        advance(SWIPE_MILLIS);
+    }
+
+    @Test
+    public void revealedCards_useThePayloadsPreparedAhead() {
+        // the cards stacked by the setup have nothing prepared yet
+        assertEquals(VIEW_POOL_SIZE, adapter.getUiThreadPrepareCount());
+
+        for (int position = ITEM_COUNT - 1; position >= 0; position--) {
+            executor.runAll();
+            advance(0);
+            assertTrue(adapter.getPreparedPayloadCount() <= PREPARE_AHEAD_COUNT);
+            assertEquals("item " + position, adapter.topPayload());
+
+            adapter.selectRight();
+            advance(SWIPE_MILLIS);
+        }
+
+        assertEquals(0, root.getChildCount());
+        assertEquals(VIEW_POOL_SIZE, adapter.getUiThreadPrepareCount());
+        assertEquals(ITEM_COUNT - VIEW_POOL_SIZE, executor.preparedPositions.size());
+    }
+
+    @Test
+    public void notifyItemInserted_cancelsThePendingPreparations() {
+        // positions 6 and 5 are queued but not prepared yet
+        assertTrue(executor.preparedPositions.isEmpty());
+
+        adapter.itemCount++;
+        adapter.notifyItemInserted(ITEM_COUNT, SwipeableAdapter.DIRECTION_NONE);
+        advance(0);
+        executor.runAll();
+        advance(0);
+
+        // the inserted card went on top and pushed the bottom card, position 7, back out of the stack
+        assertEquals(Arrays.asList(7, 6), executor.preparedPositions);
+        assertEquals(2, adapter.getPreparedPayloadCount());
+    }
+
+    /**
+     * Queues the preparations until {@link #runAll()} is called, and records the positions actually prepared
+     */
+    private static class ManualExecutor implements Executor {
+        final List<Runnable> queued = new ArrayList<>();
+        final List<Integer> preparedPositions = new ArrayList<>();
+        boolean isRunning;
+
+        @Override
+        public void execute(Runnable command) {
+            queued.add(command);
+        }
+
+        void runAll() {
+            isRunning = true;
+            List<Runnable> tasks = new ArrayList<>(queued);
+            queued.clear();
+            for (Runnable task : tasks) {
+                task.run();
+            }
+            isRunning = false;
+        }
+    }
+
+    private static class TestAdapter extends AsyncBindSwipeableAdapter<TestAdapter.Holder, String> {
+        private final FrameLayout root;
+        private final ManualExecutor executor;
+        private final Map<View, Holder> holders = new HashMap<>();
+        int itemCount = ITEM_COUNT;
+
+        TestAdapter(Context context, FrameLayout root, ManualExecutor executor) {
+            super(context, root, PREPARE_AHEAD_COUNT, executor, 15f, true, true, true, true);
+            this.root = root;
+            this.executor = executor;
+            setupAdapter();
+        }
+
+        String topPayload() {
+            return holders.get(root.getChildAt(root.getChildCount() - 1)).payload;
+        }
+
+        @Override
+        public int getItemCount() {
+            return itemCount;
+        }
+
+        @Override
+        protected Holder createViewHolder(ViewGroup parentView, int position) {
+            View card = createCard(parentView);
+            Holder holder = new Holder(card);
+            holders.put(card, holder);
+            return holder;
+        }
+
+        @Override
+        protected String onPrepareBind(int position) {
+            if (executor.isRunning) {
+                executor.preparedPositions.add(position);
+            }
+            return "item " + position;
+        }
+
+        @Override
+        protected void onApplyBind(Holder viewHolder, String payload, int position) {
+            viewHolder.payload = payload;
+        }
+
+        @Override
+        protected int getViewPoolSize() {
+            return VIEW_POOL_SIZE;
+        }
+
+        static class Holder extends SwipeableAdapter.ViewHolder {
+            String payload;
+
+            Holder(View itemView) {
+                super(itemView);
+            }
+        }
+    }
+}
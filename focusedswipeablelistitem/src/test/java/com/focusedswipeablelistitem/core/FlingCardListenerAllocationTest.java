@@ -0,0 +1,101 @@
+package com.focusedswipeablelistitem.core;
+
+import android.content.Context;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.shadows.ShadowLooper;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Makes sure that the down and move events of a drag do not create garbage once the listener is warmed up.
+ * Only the drag itself is covered: the release, the spring back and the exit run on the card animator, and the
+ * Robolectric scheduler allocates for every frame it posts, so what a whole swipe allocates is only measured on a
+ * device, by the benchmark with {@code measureAllocations} on
+ */
+@RunWith(RobolectricTestRunner.class)
+public class FlingCardListenerAllocationTest {
+    private static final int WARM_UP_GESTURES = 200;
+    private static final int MEASURED_GESTURES = 1000;
+    private static final int MOVES_PER_GESTURE = 5;
+
+    private View card;
+    private FlingCardListener flingCardListener;
+    private MotionEvent downEvent;
+    private MotionEvent moveEvent;
+    private MotionEvent upEvent;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.application;
+        FrameLayout parent = new FrameLayout(context);
+        card = new View(context);
+        parent.addView(card, new FrameLayout.LayoutParams(500, 800));
+        parent.measure(View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(1600, View.MeasureSpec.EXACTLY));
+        parent.layout(0, 0, 1000, 1600);
+
+        flingCardListener = new FlingCardListener(15f, new TouchConfiguration(context), null, null);
+        flingCardListener.bind(card, card);
+
+        downEvent = MotionEvent.obtain(0, 0, MotionEvent.ACTION_DOWN, 250, 400, 0);
+        moveEvent = MotionEvent.obtain(0, 16, MotionEvent.ACTION_MOVE, 250, 400, 0);
+        upEvent = MotionEvent.obtain(0, 200, MotionEvent.ACTION_UP, 250, 400, 0);
+    }
+
+    @After
+    public void tearDown() {
+        downEvent.recycle();
+        moveEvent.recycle();
+        upEvent.recycle();
+    }
+
+    @Test
+    public void downAndMove_doNotAllocateAfterWarmUp() {
+        for (int i = 0; i < WARM_UP_GESTURES; i++) {
+            performGesture(null);
+        }
+
+        AllocationCounter allocationCounter = new AllocationCounter();
+        long allocatedBytes = 0;
+        for (int i = 0; i < MEASURED_GESTURES; i++) {
+            allocatedBytes += performGesture(allocationCounter);
+        }
+
+        assertEquals(0, allocatedBytes);
+    }
+
+    @Test
+    public void getLastPoint_reusesTheSameInstance() {
+        assertSame(flingCardListener.getLastPoint(), flingCardListener.getLastPoint());
+    }
+
+    /**
+     * Drags the card a little and lets it go back in place, the ACTION_UP and the spring back that follows are
+     * left out of the measure
+     */
+    private long performGesture(AllocationCounter allocationCounter) {
+        if (allocationCounter != null) {
+            allocationCounter.start();
+        }
+        flingCardListener.onTouch(card, downEvent);
+        for (int i = 1; i <= MOVES_PER_GESTURE; i++) {
+            moveEvent.setLocation(250 + i * 4, 400 + i * 2);
+            flingCardListener.onTouch(card, moveEvent);
+        }
+        long allocatedBytes = allocationCounter != null ? allocationCounter.stop() : 0;
+
+        flingCardListener.onTouch(card, upEvent);
+        ShadowLooper.runUiThreadTasksIncludingDelayedTasks();
+        return allocatedBytes;
+    }
+}
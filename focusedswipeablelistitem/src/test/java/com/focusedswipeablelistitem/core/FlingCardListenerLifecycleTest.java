@@ -0,0 +1,128 @@
+package com.focusedswipeablelistitem.core;
+
+import android.view.VelocityTracker;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.TestAdapter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.SWIPE_MILLIS;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.advance;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createRoot;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.layOut;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.topCard;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Checks that a view holder keeps the same touch listener every time it becomes the top card, and that a released
+ * listener lets go of its card and of its {@link VelocityTracker}
+ */
+@RunWith(RobolectricTestRunner.class)
+public class FlingCardListenerLifecycleTest {
+    private static final int ITEM_COUNT = 10;
+    private static final int VIEW_POOL_SIZE = 3;
+    private static final int UNDO_COUNT = 3;
+    // the capacity of the VelocityTracker pool
+    private static final int POOLED_TRACKERS = 2;
+
+    private FrameLayout root;
+    private TestAdapter adapter;
+
+    @Before
+    public void setUp() {
+        root = createRoot();
+        adapter = new TestAdapter(root.getContext(), root, ITEM_COUNT, VIEW_POOL_SIZE);
+        layOut(root);
+        advance(SWIPE_MILLIS);
+    }
+
+    @Test
+    public void undo_bindsTheListenerTheCardHadBefore() {
+        adapter.setUndoHistorySize(1);
+        View topCard = topCard(root);
+        View.OnTouchListener touchListener = shadowOf(topCard).getOnTouchListener();
+        assertTrue(touchListener instanceof FlingCardListener);
+
+        for (int i = 0; i < UNDO_COUNT; i++) {
+            adapter.selectRight();
+            advance(SWIPE_MILLIS);
+            assertNull(shadowOf(topCard).getOnTouchListener());
+
+            assertTrue(adapter.undo());
+            advance(SWIPE_MILLIS);
+
+            assertSame(topCard, topCard(root));
+            assertSame(touchListener, shadowOf(topCard).getOnTouchListener());
+        }
+    }
+
+    @Test
+    public void recycledCards_keepTheirListener() {
+        Map<View, View.OnTouchListener> listenersByCard = new HashMap<>();
+        for (int i = 0; i < ITEM_COUNT - 1; i++) {
+            View topCard = topCard(root);
+            View.OnTouchListener touchListener = shadowOf(topCard).getOnTouchListener();
+            assertNotNull(touchListener);
+            View.OnTouchListener previousListener = listenersByCard.put(topCard, touchListener);
+            if (previousListener != null) {
+                assertSame(previousListener, touchListener);
+            }
+
+            adapter.selectRight();
+            advance(SWIPE_MILLIS);
+        }
+
+        // the cards came back from the pool several times over, with one listener per view holder
+        assertTrue(listenersByCard.size() < ITEM_COUNT - 1);
+        assertEquals(listenersByCard.size(), new HashSet<>(listenersByCard.values()).size());
+    }
+
+    @Test
+    public void adapterRelease_clearsTheTouchListenerOfTheTopCard() {
+        View topCard = topCard(root);
+        assertNotNull(shadowOf(topCard).getOnTouchListener());
+
+        adapter.release();
+
+        assertNull(shadowOf(topCard).getOnTouchListener());
+    }
+
+    @Test
+    public void release_recyclesTheVelocityTracker() {
+        // empties the pool so the next tracker given back is the next one handed out
+        VelocityTracker[] drained = new VelocityTracker[POOLED_TRACKERS];
+        for (int i = 0; i < POOLED_TRACKERS; i++) {
+            drained[i] = VelocityTracker.obtain();
+        }
+        View card = topCard(root);
+        FlingCardListener flingCardListener =
+                new FlingCardListener(15f, new TouchConfiguration(root.getContext()), null, null);
+        flingCardListener.bind(card, card);
+        assertSame(flingCardListener, shadowOf(card).getOnTouchListener());
+
+        flingCardListener.release();
+
+        assertNull(shadowOf(card).getOnTouchListener());
+        VelocityTracker pooledTracker = VelocityTracker.obtain();
+        assertSame(flingCardListener.getVelocityTracker(), pooledTracker);
+
+        pooledTracker.recycle();
+        for (VelocityTracker tracker : drained) {
+            tracker.recycle();
+        }
+    }
+}
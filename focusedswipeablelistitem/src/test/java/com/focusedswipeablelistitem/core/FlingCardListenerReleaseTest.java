@@ -0,0 +1,142 @@
+package com.focusedswipeablelistitem.core;
+
+import android.content.Context;
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.focusedswipeablelistitem.api.FlingExitListener;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.Robolectric;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Lets the card go at different speeds and checks that how long it takes to leave or to come back follows
+ * the speed of the release
+ */
+@RunWith(RobolectricTestRunner.class)
+public class FlingCardListenerReleaseTest {
+    private static final long FRAME_MILLIS = 16;
+    private static final long TIMEOUT_MILLIS = 2000;
+
+    private View card;
+    private FlingCardListener flingCardListener;
+    private long exitedAt;
+
+    @Before
+    public void setUp() {
+        Context context = RuntimeEnvironment.application;
+        FrameLayout parent = new FrameLayout(context);
+        card = new View(context);
+        parent.addView(card, new FrameLayout.LayoutParams(500, 800));
+        parent.measure(View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(1600, View.MeasureSpec.EXACTLY));
+        parent.layout(0, 0, 1000, 1600);
+
+        flingCardListener = new FlingCardListener(15f, new TouchConfiguration(context),
+                new RecordingExitListener(), null);
+        flingCardListener.bind(card, card);
+    }
+
+    @Test
+    public void hardFling_leavesSoonerThanASlowDrag() {
+        long hardExit = dragRightAndMeasureExit(6, 100);
+        long slowExit = dragRightAndMeasureExit(60, 10);
+
+        // the exits used to last 250 ms for a fling and 100 ms for a drag past the border
+        assertTrue("hard fling took " + hardExit + " ms", hardExit < 150);
+        assertTrue("slow drag took " + slowExit + " ms", slowExit > hardExit);
+    }
+
+    @Test
+    public void release_springsBackInPlace() {
+        drag(5, 20);
+        assertTrue(card.getX() > 0);
+
+        advance(TIMEOUT_MILLIS);
+
+        assertEquals(0f, card.getX(), 0f);
+        assertEquals(0f, card.getY(), 0f);
+        assertEquals(0f, card.getRotation(), 0f);
+        assertEquals(0, exitedAt);
+    }
+
+    /**
+     * @return the time between the release and the exit callback, in milliseconds
+     */
+    private long dragRightAndMeasureExit(int moves, int stepPixels) {
+        card.setX(0);
+        card.setY(0);
+        card.setRotation(0);
+        flingCardListener.bind(card, card);
+        exitedAt = 0;
+
+        drag(moves, stepPixels);
+        long releasedAt = SystemClock.uptimeMillis();
+        for (long waited = 0; exitedAt == 0 && waited < TIMEOUT_MILLIS; waited += FRAME_MILLIS) {
+            advance(FRAME_MILLIS);
+        }
+        assertTrue(exitedAt != 0);
+        return exitedAt - releasedAt;
+    }
+
+    /**
+     * Drags the card to the right by the given number of steps, one per frame, and lets it go
+     */
+    private void drag(int moves, int stepPixels) {
+        long downTime = SystemClock.uptimeMillis();
+        long eventTime = downTime;
+        send(MotionEvent.obtain(downTime, eventTime, MotionEvent.ACTION_DOWN, 250, 400, 0));
+        for (int i = 1; i <= moves; i++) {
+            eventTime += FRAME_MILLIS;
+            send(MotionEvent.obtain(downTime, eventTime, MotionEvent.ACTION_MOVE, 250 + i * stepPixels, 400, 0));
+        }
+        send(MotionEvent.obtain(downTime, eventTime, MotionEvent.ACTION_UP, 250 + moves * stepPixels, 400, 0));
+    }
+
+    private void send(MotionEvent event) {
+        flingCardListener.onTouch(card, event);
+        event.recycle();
+    }
+
+    private static void advance(long millis) {
+        Robolectric.getForegroundThreadScheduler().advanceBy(millis, TimeUnit.MILLISECONDS);
+    }
+
+    private class RecordingExitListener implements FlingExitListener {
+        @Override
+        public void onCardExited(View view, float objectX, float objectY, int position) {
+            exitedAt = SystemClock.uptimeMillis();
+        }
+
+        @Override
+        public void leftExit(View view, Object dataObject, int position) {
+        }
+
+        @Override
+        public void rightExit(View view, Object dataObject, int position) {
+        }
+
+        @Override
+        public void topExit(View view, Object dataObject, int position) {
+        }
+
+        @Override
+        public void bottomExit(View view, Object dataObject, int position) {
+        }
+
+        @Override
+        public void onScroll(View view, float scrollProgressPercentX, float scrollProgressPercentY, int position) {
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.focusedswipeablelistitem.core;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import androidx.recyclerview.widget.DiffUtil;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.SWIPE_MILLIS;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.advance;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createCard;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createRoot;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Submits new lists to a deck and checks that only the cards whose item was added or changed get bound
+ */
+@RunWith(RobolectricTestRunner.class)
+public class ListSwipeableAdapterTest {
+    private static final int ITEM_COUNT = 10;
+    private static final int VIEW_POOL_SIZE = 3;
+
+    private FrameLayout root;
+    private ManualExecutor executor;
+    private TestAdapter adapter;
+
+    @Before
+    public void setUp() {
+        root = createRoot();
+        executor = new ManualExecutor();
+        adapter = new TestAdapter(root.getContext(), root, executor);
+        List<Item> items = new ArrayList<>();
+        for (int id = 0; id < ITEM_COUNT; id++) {
+            items.add(new Item(id, "v1"));
+        }
+        adapter.submitList(items, null);
+        advance(SWIPE_MILLIS);
+    }
+
+    @Test
+    public void firstList_fillsTheStack() {
+        assertEquals(Arrays.asList(7, 8, 9), stackedIds());
+        assertEquals(VIEW_POOL_SIZE, adapter.bindCount);
+    }
+
+    @Test
+    public void submitList_onlyBindsTheAddedAndChangedCards() {
+        View topCard = root.getChildAt(2);
+        View card7 = root.getChildAt(0);
+
+        List<Item> items = new ArrayList<>(adapter.getCurrentList());
+        items.remove(8);
+        items.set(7, new Item(7, "v2"));
+        items.add(0, new Item(100, "v1"));
+        adapter.submitList(items, null);
+        executor.runAll();
+        advance(0);
+
+        // 8 is gone and 6 takes its place at the bottom, 7 is bound again to its new content
+        assertEquals(Arrays.asList(6, 7, 9), stackedIds());
+        assertEquals(VIEW_POOL_SIZE + 2, adapter.bindCount);
+        assertSame(topCard, root.getChildAt(2));
+        assertSame(card7, root.getChildAt(1));
+        assertEquals("v2", adapter.holders.get(card7).text);
+    }
+
+    @Test
+    public void submitList_keepsTheSwipedCardsSwiped() {
+        adapter.selectRight();
+        advance(SWIPE_MILLIS);
+        assertEquals(Arrays.asList(6, 7, 8), stackedIds());
+
+        // new items go behind the deck and the swiped one is dropped, the stack is left alone
+        List<Item> items = new ArrayList<>(adapter.getCurrentList());
+        items.add(0, new Item(100, "v1"));
+        items.add(1, new Item(101, "v1"));
+        items.remove(items.size() - 1);
+        adapter.submitList(items, null);
+        executor.runAll();
+        advance(0);
+
+        assertEquals(Arrays.asList(6, 7, 8), stackedIds());
+        assertEquals(VIEW_POOL_SIZE + 1, adapter.bindCount);
+    }
+
+    @Test
+    public void staleDiff_isDropped() {
+        List<Item> first = new ArrayList<>(adapter.getCurrentList());
+        first.remove(9);
+        adapter.submitList(first, null);
+        List<Item> second = new ArrayList<>(adapter.getCurrentList());
+        second.add(new Item(100, "v1"));
+        adapter.submitList(second, null);
+
+        executor.runAll();
+        advance(0);
+
+        assertSame(second, adapter.getCurrentList());
+        assertEquals(Arrays.asList(8, 9, 100), stackedIds());
+    }
+
+    private List<Integer> stackedIds() {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < root.getChildCount(); i++) {
+            ids.add(adapter.holders.get(root.getChildAt(i)).id);
+        }
+        return ids;
+    }
+
+    private static class Item {
+        final int id;
+        final String text;
+
+        Item(int id, String text) {
+            this.id = id;
+            this.text = text;
+        }
+    }
+
+    private static class ManualExecutor implements Executor {
+        private final List<Runnable> queued = new ArrayList<>();
+
+        @Override
+        public void execute(Runnable command) {
+            queued.add(command);
+        }
+
+        void runAll() {
+            List<Runnable> tasks = new ArrayList<>(queued);
+            queued.clear();
+            for (Runnable task : tasks) {
+                task.run();
+            }
+        }
+    }
+
+    private static final DiffUtil.ItemCallback<Item> DIFF_CALLBACK = new DiffUtil.ItemCallback<Item>() {
+        @Override
+        public boolean areItemsTheSame(Item oldItem, Item newItem) {
+            return oldItem.id == newItem.id;
+        }
+
+        @Override
+        public boolean areContentsTheSame(Item oldItem, Item newItem) {
+            return oldItem.text.equals(newItem.text);
+        }
+    };
+
+    private static class TestAdapter extends ListSwipeableAdapter<TestAdapter.Holder, Item> {
+        final Map<View, Holder> holders = new HashMap<>();
+        int bindCount;
+
+        TestAdapter(Context context, FrameLayout root, Executor executor) {
+            super(context, root, DIFF_CALLBACK, executor, 15f, true, true, true, true);
+            setupAdapter();
+        }
+
+        @Override
+        protected Holder createViewHolder(ViewGroup parentView, int position) {
+            View card = createCard(parentView);
+            Holder holder = new Holder(card);
+            holders.put(card, holder);
+            return holder;
+        }
+
+        @Override
+        protected void onBindView(Holder viewHolder, int position) {
+            bindCount++;
+            viewHolder.id = getItem(position).id;
+            viewHolder.text = getItem(position).text;
+        }
+
+        @Override
+        protected int getViewPoolSize() {
+            return VIEW_POOL_SIZE;
+        }
+
+        static class Holder extends SwipeableAdapter.ViewHolder {
+            int id;
+            String text;
+
+            Holder(View itemView) {
+                super(itemView);
+            }
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.focusedswipeablelistitem.core;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.focusedswipeablelistitem.api.PageLoader;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.SWIPE_MILLIS;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.advance;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createCard;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createRoot;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Swipes through a deck served by a slow pager and makes sure the next page shows up before the stack runs dry
+ */
+@RunWith(RobolectricTestRunner.class)
+public class PagedSwipeableAdapterTest {
+    private static final int ITEM_COUNT = 35;
+    private static final int PAGE_SIZE = 10;
+    private static final int PREFETCH_DISTANCE = 6;
+    private static final int VIEW_POOL_SIZE = 3;
+    private static final long PAGE_LATENCY_MILLIS = 1000;
+
+    private FrameLayout root;
+    private FakePager pager;
+    private TestAdapter adapter;
+
+    @Before
+    public void setUp() {
+        root = createRoot();
+        pager = new FakePager();
+        adapter = new TestAdapter(root.getContext(), root, pager);
+    }
+
+    @Test
+    public void firstPage_isRequestedOnSetup() {
+        assertEquals(1, pager.requests);
+        assertEquals(0, root.getChildCount());
+
+        advance(PAGE_LATENCY_MILLIS);
+
+        assertEquals(VIEW_POOL_SIZE, root.getChildCount());
+        assertEquals(Integer.valueOf(0), adapter.topItem());
+    }
+
+    @Test
+    public void swiping_neverStallsWhileAPageLoads() {
+        advance(PAGE_LATENCY_MILLIS);
+
+        int swipesWhileLoading = 0;
+        for (int item = 0; item < ITEM_COUNT; item++) {
+            assertTrue("no card left to swipe at item " + item, root.getChildCount() > 0);
+            assertEquals(Integer.valueOf(item), adapter.topItem());
+            assertTrue(adapter.getRetainedItemCount() <= 2 * PAGE_SIZE);
+            if (pager.inFlight) {
+                swipesWhileLoading++;
+            }
+
+            adapter.selectRight();
+            advance(SWIPE_MILLIS);
+        }
+
+        assertTrue(swipesWhileLoading > 0);
+        assertEquals(0, root.getChildCount());
+        assertEquals(4, pager.requests);
+        assertTrue(adapter.isLastPageLoaded());
+        assertEquals(0, adapter.getRetainedItemCount());
+    }
+
+    @Test
+    public void appendingAPage_keepsTheStackedCards() {
+        advance(PAGE_LATENCY_MILLIS);
+        for (int i = 0; i < 5; i++) {
+            adapter.selectRight();
+            advance(SWIPE_MILLIS);
+        }
+        View topCard = root.getChildAt(root.getChildCount() - 1);
+        int bindCount = adapter.bindCount;
+
+        // the second page has been requested by the last swipe
+        assertTrue(pager.inFlight);
+        advance(PAGE_LATENCY_MILLIS);
+
+        assertFalse(pager.inFlight);
+        assertEquals(topCard, root.getChildAt(root.getChildCount() - 1));
+        assertEquals(bindCount, adapter.bindCount);
+        assertEquals(20, adapter.getItemCount());
+    }
+
+    /**
+     * Serves the integers from 0 until {@link #ITEM_COUNT}, each page {@link #PAGE_LATENCY_MILLIS} after being asked for
+     */
+    private static class FakePager implements PageLoader<Integer> {
+        private final Handler handler = new Handler(Looper.getMainLooper());
+        int requests;
+        boolean inFlight;
+
+        @Override
+        public void loadPage(final int page, final int pageSize, final PageCallback<Integer> callback) {
+            requests++;
+            inFlight = true;
+            handler.postDelayed(new Runnable() {
+                @Override
+                public void run() {
+                    inFlight = false;
+                    List<Integer> items = new ArrayList<>();
+                    for (int i = page * pageSize; i < Math.min((page + 1) * pageSize, ITEM_COUNT); i++) {
+                        items.add(i);
+                    }
+                    callback.onPageLoaded(items, (page + 1) * pageSize >= ITEM_COUNT);
+                }
+            }, PAGE_LATENCY_MILLIS);
+        }
+    }
+
+    private static class TestAdapter extends PagedSwipeableAdapter<TestAdapter.Holder, Integer> {
+        private final FrameLayout root;
+        private final Map<View, Holder> holders = new HashMap<>();
+        int bindCount;
+
+        TestAdapter(Context context, FrameLayout root, FakePager pager) {
+            super(context, root, pager, PAGE_SIZE, PREFETCH_DISTANCE, 15f, true, true, true, true);
+            this.root = root;
+            setupAdapter();
+        }
+
+        Integer topItem() {
+            return holders.get(root.getChildAt(root.getChildCount() - 1)).item;
+        }
+
+        @Override
+        protected Holder createViewHolder(ViewGroup parentView, int position) {
+            View card = createCard(parentView);
+            Holder holder = new Holder(card);
+            holders.put(card, holder);
+            return holder;
+        }
+
+        @Override
+        protected void onBindItem(Holder viewHolder, Integer item, int position) {
+            bindCount++;
+            viewHolder.item = item;
+        }
+
+        @Override
+        protected int getViewPoolSize() {
+            return VIEW_POOL_SIZE;
+        }
+
+        static class Holder extends SwipeableAdapter.ViewHolder {
+            Integer item;
+
+            Holder(View itemView) {
+                super(itemView);
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.focusedswipeablelistitem.core;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.TestAdapter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.SWIPE_MILLIS;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.advance;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createRoot;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.layOut;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.topCard;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Checks that every measuring point of the adapter reports to its {@link SwipeMetricsRecorder}, and only once
+ * per event
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SwipeableAdapterMetricsTest {
+    private static final int ITEM_COUNT = 10;
+    private static final int VIEW_POOL_SIZE = 3;
+    private static final long FRAME_MILLIS = 16;
+
+    private FrameLayout root;
+    private TestAdapter adapter;
+    private final SwipeMetricsRecorder metrics = new SwipeMetricsRecorder();
+
+    @Before
+    public void setUp() {
+        root = createRoot();
+        adapter = new TestAdapter(root.getContext(), root, ITEM_COUNT, VIEW_POOL_SIZE, VIEW_POOL_SIZE, metrics);
+        layOut(root);
+        advance(SWIPE_MILLIS);
+    }
+
+    @Test
+    public void setup_measuresEveryCreatedAndBoundCard() {
+        assertEquals(VIEW_POOL_SIZE, metrics.getPoolMissCount());
+        assertEquals(0, metrics.getPoolHitCount());
+        assertEquals(VIEW_POOL_SIZE, metrics.getCreateDurations().getCount());
+        assertEquals(VIEW_POOL_SIZE, metrics.getBindDurations().getCount());
+    }
+
+    @Test
+    public void selectDuringAnExit_isCountedAsDropped() {
+        adapter.selectRight();
+        adapter.selectRight();
+
+        assertEquals(1, metrics.getDroppedSelectCount());
+        advance(SWIPE_MILLIS);
+        assertEquals(1, metrics.getCommitToExit().getCount());
+
+        adapter.selectRight();
+        advance(SWIPE_MILLIS);
+
+        assertEquals(1, metrics.getDroppedSelectCount());
+        assertEquals(2, metrics.getCommitToExit().getCount());
+        // only a release measures the time to the commit
+        assertEquals(0, metrics.getReleaseToCommit().getCount());
+        // the card swiped first was recycled by the time the second one got committed
+        assertEquals(VIEW_POOL_SIZE + 1, metrics.getPoolMissCount());
+        assertEquals(1, metrics.getPoolHitCount());
+        assertEquals(VIEW_POOL_SIZE + 2, metrics.getBindDurations().getCount());
+    }
+
+    @Test
+    public void fling_measuresTheReleaseAndItsTouchEvents() {
+        View topCard = topCard(root);
+        View.OnTouchListener touchListener = shadowOf(topCard).getOnTouchListener();
+
+        long downTime = SystemClock.uptimeMillis();
+        long eventTime = downTime;
+        send(touchListener, topCard, MotionEvent.obtain(downTime, eventTime, MotionEvent.ACTION_DOWN, 250, 400, 0));
+        for (int i = 1; i <= 6; i++) {
+            eventTime += FRAME_MILLIS;
+            send(touchListener, topCard,
+                    MotionEvent.obtain(downTime, eventTime, MotionEvent.ACTION_MOVE, 250 + i * 100, 400, 0));
+        }
+        send(touchListener, topCard, MotionEvent.obtain(downTime, eventTime, MotionEvent.ACTION_UP, 850, 400, 0));
+
+        assertEquals(1, metrics.getTouchEventsPerGesture().getCount());
+        assertEquals(8, metrics.getTouchEventsPerGesture().getMax());
+        assertEquals(1, metrics.getReleaseToCommit().getCount());
+
+        advance(SWIPE_MILLIS);
+        assertEquals(1, metrics.getCommitToExit().getCount());
+        assertTrue(metrics.getCommitToExit().getMax() > 0);
+    }
+
+    @Test
+    public void noMetrics_recordsNothing() {
+        adapter.setSwipeMetrics(null);
+        metrics.reset();
+
+        adapter.selectRight();
+        adapter.selectRight();
+        advance(SWIPE_MILLIS);
+
+        assertEquals(0, metrics.getDroppedSelectCount());
+        assertEquals(0, metrics.getCommitToExit().getCount());
+        assertEquals(0, metrics.getBindDurations().getCount());
+        assertEquals(0, metrics.getPoolMissCount());
+    }
+
+    @Test
+    public void histogram_keepsPercentilesWithinTheirPowerOfTwo() {
+        SwipeMetricsRecorder.Histogram histogram = new SwipeMetricsRecorder().getBindDurations();
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i * 1000);
+        }
+
+        assertEquals(100, histogram.getCount());
+        assertEquals(100_000, histogram.getMax());
+        assertEquals(50_500.0, histogram.getMean(), 0.0);
+        // 50 000 falls in the bucket from 32 768 to 65 535
+        assertEquals(65_535, histogram.percentile(50));
+        assertEquals(100_000, histogram.percentile(99));
+        assertEquals(0, new SwipeMetricsRecorder().getBindDurations().percentile(50));
+    }
+
+    private static void send(View.OnTouchListener touchListener, View card, MotionEvent event) {
+        touchListener.onTouch(card, event);
+        event.recycle();
+    }
+}
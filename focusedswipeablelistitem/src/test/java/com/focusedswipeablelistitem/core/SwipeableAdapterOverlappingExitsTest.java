@@ -0,0 +1,168 @@
+package com.focusedswipeablelistitem.core;
+
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.focusedswipeablelistitem.api.FlingExitListener;
+import com.focusedswipeablelistitem.api.SwipeCommandCallback;
+import com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.TestAdapter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.SWIPE_MILLIS;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.advance;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createRoot;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Swipes cards while the previous ones are still leaving the stack, and checks that every one of them exits
+ * with the right position
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SwipeableAdapterOverlappingExitsTest {
+    private static final int ITEM_COUNT = 10;
+    private static final int VIEW_POOL_SIZE = 3;
+
+    private FrameLayout root;
+    private TestAdapter adapter;
+    private final List<Integer> exitedPositions = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        root = createRoot();
+        adapter = new TestAdapter(root.getContext(), root, ITEM_COUNT, VIEW_POOL_SIZE);
+        adapter.setOverlappingExits(true);
+        adapter.setFlingExitListener(new RecordingExitListener());
+        advance(SWIPE_MILLIS);
+    }
+
+    @Test
+    public void commit_handsTheTouchesToTheCardBelow() {
+        View leavingCard = root.getChildAt(VIEW_POOL_SIZE - 1);
+        View cardBelow = root.getChildAt(VIEW_POOL_SIZE - 2);
+
+        adapter.selectRight();
+
+        assertNull(shadowOf(leavingCard).getOnTouchListener());
+        assertNotNull(shadowOf(cardBelow).getOnTouchListener());
+    }
+
+    @Test
+    public void selectDuringAnExit_swipesTheNextCard() {
+        adapter.selectRight();
+        adapter.selectLeft();
+        adapter.selectTop();
+
+        assertEquals(VIEW_POOL_SIZE + 3, root.getChildCount());
+        assertEquals(6, adapter.topPosition);
+
+        advance(SWIPE_MILLIS);
+
+        assertEquals(Arrays.asList(9, 8, 7), sorted(exitedPositions));
+        assertEquals(Arrays.asList(4, 5, 6), adapter.stackedPositions());
+
+        // the bookkeeping carries on from there
+        adapter.selectRight();
+        advance(SWIPE_MILLIS);
+        assertEquals(Arrays.asList(3, 4, 5), adapter.stackedPositions());
+        assertEquals(5, adapter.topPosition);
+    }
+
+    @Test
+    public void queuedBurst_runsAtOnce() {
+        final List<Integer> completed = new ArrayList<>();
+        SwipeCommandCallback callback = new SwipeCommandCallback() {
+            @Override
+            public void onSwipeCompleted(int direction, int position, boolean isSwiped) {
+                if (isSwiped) {
+                    completed.add(position);
+                }
+            }
+        };
+        for (int i = 0; i < 5; i++) {
+            adapter.enqueueSwipe(SwipeableAdapter.DIRECTION_RIGHT, callback);
+        }
+        assertEquals(0, adapter.getQueuedSwipeCount());
+
+        // one after the other they would take five times as long
+        advance(SWIPE_MILLIS);
+
+        assertEquals(Arrays.asList(9, 8, 7, 6, 5), sorted(completed));
+        assertEquals(Arrays.asList(2, 3, 4), adapter.stackedPositions());
+    }
+
+    @Test
+    public void undo_waitsForTheExitsToEnd() {
+        adapter.setUndoHistorySize(2);
+        adapter.selectRight();
+        adapter.selectRight();
+
+        assertFalse(adapter.undo());
+        advance(SWIPE_MILLIS);
+
+        adapter.undo();
+        adapter.undo();
+        advance(SWIPE_MILLIS);
+        assertEquals(Arrays.asList(7, 8, 9), adapter.stackedPositions());
+    }
+
+    @Test
+    public void swipingEveryCard_emptiesTheStack() {
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            adapter.selectRight();
+        }
+        advance(SWIPE_MILLIS);
+
+        assertEquals(ITEM_COUNT, exitedPositions.size());
+        assertEquals(0, root.getChildCount());
+        assertEquals(-1, adapter.topPosition);
+    }
+
+    /**
+     * The cards exit at their own pace, so their callbacks come in any order
+     */
+    private static List<Integer> sorted(List<Integer> positions) {
+        List<Integer> sorted = new ArrayList<>(positions);
+        Collections.sort(sorted, Collections.<Integer>reverseOrder());
+        return sorted;
+    }
+
+    private class RecordingExitListener implements FlingExitListener {
+        @Override
+        public void onCardExited(View view, float objectX, float objectY, int position) {
+            exitedPositions.add(position);
+        }
+
+        @Override
+        public void leftExit(View view, Object dataObject, int position) {
+        }
+
+        @Override
+        public void rightExit(View view, Object dataObject, int position) {
+        }
+
+        @Override
+        public void topExit(View view, Object dataObject, int position) {
+        }
+
+        @Override
+        public void bottomExit(View view, Object dataObject, int position) {
+        }
+
+        @Override
+        public void onScroll(View view, float scrollProgressPercentX, float scrollProgressPercentY, int position) {
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.focusedswipeablelistitem.core;
+
+import android.os.Looper;
+import android.os.MessageQueue;
+import android.widget.FrameLayout;
+
+import com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.TestAdapter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.util.ReflectionHelpers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.SWIPE_MILLIS;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.advance;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createRoot;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.topCard;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Checks that the prefetched cards are bound while the main thread is idle, and not when they get attached
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SwipeableAdapterPrefetchTest {
+    private static final int ITEM_COUNT = 6;
+    private static final int VIEW_POOL_SIZE = 2;
+    private static final int PREFETCH_DEPTH = 2;
+
+    private FrameLayout root;
+    private TestAdapter adapter;
+
+    @Before
+    public void setUp() {
+        root = createRoot();
+        adapter = new TestAdapter(root.getContext(), root, ITEM_COUNT, VIEW_POOL_SIZE);
+        adapter.setPrefetchDepth(PREFETCH_DEPTH);
+        advance(SWIPE_MILLIS);
+    }
+
+    @Test
+    public void prefetchedCards_areBoundWhileIdle() {
+        assertEquals(VIEW_POOL_SIZE, adapter.boundPositions.size());
+
+        runIdleHandlers();
+
+        assertEquals(VIEW_POOL_SIZE + PREFETCH_DEPTH, adapter.boundPositions.size());
+        assertEquals(VIEW_POOL_SIZE, root.getChildCount());
+    }
+
+    @Test
+    public void exit_attachesThePrefetchedCardWithoutBinding() {
+        runIdleHandlers();
+        List<Integer> boundBeforeExit = new ArrayList<>(adapter.boundPositions);
+
+        adapter.selectRight();
+        advance(SWIPE_MILLIS);
+
+        assertEquals(boundBeforeExit, adapter.boundPositions);
+        assertEquals(Integer.valueOf(ITEM_COUNT - 1 - VIEW_POOL_SIZE), adapter.positionOf(root.getChildAt(0)));
+
+        runIdleHandlers();
+        assertEquals(boundBeforeExit.size() + 1, adapter.boundPositions.size());
+    }
+
+    @Test
+    public void swipingEveryCard_emptiesTheStack() {
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            runIdleHandlers();
+            assertEquals(Integer.valueOf(ITEM_COUNT - 1 - i), adapter.positionOf(topCard(root)));
+            adapter.selectRight();
+            advance(SWIPE_MILLIS);
+        }
+
+        assertEquals(0, root.getChildCount());
+        assertEquals(ITEM_COUNT, adapter.boundPositions.size());
+    }
+
+    /**
+     * The scheduler never lets the queue go idle, so the idle handlers are run by hand the way the looper would,
+     * a few times in a row for the ones that keep themselves registered
+     */
+    private static void runIdleHandlers() {
+        MessageQueue queue = Looper.myQueue();
+        List<MessageQueue.IdleHandler> idleHandlers = ReflectionHelpers.getField(queue, "mIdleHandlers");
+        for (int round = 0; round < 10 && !idleHandlers.isEmpty(); round++) {
+            for (MessageQueue.IdleHandler idleHandler : new ArrayList<>(idleHandlers)) {
+                if (!idleHandler.queueIdle()) {
+                    queue.removeIdleHandler(idleHandler);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.focusedswipeablelistitem.core;
+
+import android.widget.FrameLayout;
+
+import com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.TestAdapter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.SWIPE_MILLIS;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.advance;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createRoot;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Swipes through many more cards than the stack holds and checks that the swiped away view holders are reused
+ * instead of new ones being created
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SwipeableAdapterRecyclingTest {
+    private static final int VIEW_POOL_SIZE = 3;
+    private static final int ITEM_COUNT = 10 * VIEW_POOL_SIZE;
+
+    private FrameLayout root;
+    private TestAdapter adapter;
+
+    @Before
+    public void setUp() {
+        root = createRoot();
+        adapter = new TestAdapter(root.getContext(), root, ITEM_COUNT, VIEW_POOL_SIZE);
+        advance(SWIPE_MILLIS);
+    }
+
+    @Test
+    public void swiping_stopsCreatingViewHoldersOnceThePoolIsWarm() {
+        assertEquals(VIEW_POOL_SIZE, adapter.createCount);
+
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            adapter.selectRight();
+            advance(SWIPE_MILLIS);
+            // the next card is bound while the swiped one is still leaving, which takes one more view holder
+            assertEquals(VIEW_POOL_SIZE + 1, adapter.createCount);
+        }
+
+        assertEquals(0, root.getChildCount());
+        assertEquals(ITEM_COUNT, adapter.bindCount);
+        assertEquals(adapter.createCount, adapter.getInflationCount());
+    }
+}
@@ -0,0 +1,156 @@
+package com.focusedswipeablelistitem.core;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.focusedswipeablelistitem.api.FlingExitListener;
+import com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.TestAdapter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.SWIPE_MILLIS;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.advance;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createRoot;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.layOut;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.topCard;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Drags the top card with {@link SwipeableAdapter#SCROLL_DISPATCH_PER_FRAME} and checks that the scroll progress
+ * is delivered at most once per frame, never after the exit callbacks of its card
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SwipeableAdapterScrollDispatchTest {
+    private static final int ITEM_COUNT = 10;
+    private static final int VIEW_POOL_SIZE = 3;
+    private static final int MOVE_COUNT = 5;
+    private static final long FRAME_MILLIS = 16;
+    // way past the spring back or the exit that follows a cancelled drag
+    private static final long SETTLE_MILLIS = 1000;
+
+    private FrameLayout root;
+    private TestAdapter adapter;
+    private final List<String> events = new ArrayList<>();
+    private final List<Float> progressesX = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        root = createRoot();
+        adapter = new TestAdapter(root.getContext(), root, ITEM_COUNT, VIEW_POOL_SIZE);
+        adapter.setFlingExitListener(new RecordingExitListener());
+        layOut(root);
+        advance(SWIPE_MILLIS);
+    }
+
+    @Test
+    public void movesWithinAFrame_areDeliveredOnceWithTheLatestProgress() {
+        // the same drag delivered right away gives every progress, the last one is the latest
+        dragLeft();
+        List<Float> immediateProgresses = new ArrayList<>(progressesX);
+        cancelDrag();
+        advance(SETTLE_MILLIS);
+        progressesX.clear();
+
+        adapter.setScrollDispatchMode(SwipeableAdapter.SCROLL_DISPATCH_PER_FRAME);
+        dragLeft();
+        assertTrue(progressesX.isEmpty());
+        advance(FRAME_MILLIS);
+
+        assertEquals(MOVE_COUNT, immediateProgresses.size());
+        assertEquals(Collections.singletonList(immediateProgresses.get(MOVE_COUNT - 1)), progressesX);
+    }
+
+    @Test
+    public void pendingProgress_isDeliveredBeforeTheExitCallbacks() {
+        adapter.setScrollDispatchMode(SwipeableAdapter.SCROLL_DISPATCH_PER_FRAME);
+        dragLeft();
+        events.clear();
+
+        adapter.selectLeft();
+        advance(SWIPE_MILLIS);
+
+        assertEquals(Arrays.asList("scroll 9", "left 9", "exited 9"), events);
+    }
+
+    @Test
+    public void release_dropsThePendingProgress() {
+        adapter.setScrollDispatchMode(SwipeableAdapter.SCROLL_DISPATCH_PER_FRAME);
+        dragLeft();
+
+        adapter.release();
+        advance(FRAME_MILLIS);
+
+        assertTrue(progressesX.isEmpty());
+    }
+
+    /**
+     * Drags the top card to the left without letting it go, every move in the same frame
+     */
+    private void dragLeft() {
+        View topCard = topCard(root);
+        View.OnTouchListener touchListener = shadowOf(topCard).getOnTouchListener();
+        long downTime = SystemClock.uptimeMillis();
+        send(touchListener, topCard, MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, 250, 400, 0));
+        for (int i = 1; i <= MOVE_COUNT; i++) {
+            send(touchListener, topCard,
+                    MotionEvent.obtain(downTime, downTime + i, MotionEvent.ACTION_MOVE, 250 - i * 20, 400, 0));
+        }
+    }
+
+    private void cancelDrag() {
+        View topCard = topCard(root);
+        long eventTime = SystemClock.uptimeMillis();
+        send(shadowOf(topCard).getOnTouchListener(), topCard,
+                MotionEvent.obtain(eventTime, eventTime, MotionEvent.ACTION_CANCEL, 150, 400, 0));
+    }
+
+    private static void send(View.OnTouchListener touchListener, View card, MotionEvent event) {
+        touchListener.onTouch(card, event);
+        event.recycle();
+    }
+
+    private class RecordingExitListener implements FlingExitListener {
+        @Override
+        public void onCardExited(View view, float objectX, float objectY, int position) {
+            events.add("exited " + position);
+        }
+
+        @Override
+        public void leftExit(View view, Object dataObject, int position) {
+            events.add("left " + position);
+        }
+
+        @Override
+        public void rightExit(View view, Object dataObject, int position) {
+            events.add("right " + position);
+        }
+
+        @Override
+        public void topExit(View view, Object dataObject, int position) {
+            events.add("top " + position);
+        }
+
+        @Override
+        public void bottomExit(View view, Object dataObject, int position) {
+            events.add("bottom " + position);
+        }
+
+        @Override
+        public void onScroll(View view, float scrollProgressPercentX, float scrollProgressPercentY, int position) {
+            events.add("scroll " + position);
+            progressesX.add(scrollProgressPercentX);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.focusedswipeablelistitem.core;
+
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.focusedswipeablelistitem.api.SeekListener;
+import com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.TestAdapter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.SWIPE_MILLIS;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.advance;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createRoot;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.topCard;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Seeks far into a large deck and checks that only the cards of the new stack get bound, with a single callback
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SwipeableAdapterSeekTest {
+    private static final int ITEM_COUNT = 1000;
+    private static final int VIEW_POOL_SIZE = 3;
+
+    private FrameLayout root;
+    private TestAdapter adapter;
+    private final List<int[]> seeks = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        root = createRoot();
+        adapter = new TestAdapter(root.getContext(), root, ITEM_COUNT, VIEW_POOL_SIZE);
+        adapter.setSeekListener(new SeekListener() {
+            @Override
+            public void onSeek(int fromPosition, int toPosition) {
+                seeks.add(new int[]{fromPosition, toPosition});
+            }
+        });
+        advance(SWIPE_MILLIS);
+    }
+
+    @Test
+    public void seekTo_onlyBindsTheNewStack() {
+        int bindCount = adapter.bindCount;
+        int inflationCount = adapter.getInflationCount();
+
+        adapter.seekTo(500);
+        advance(SWIPE_MILLIS);
+
+        assertEquals(Arrays.asList(498, 499, 500), adapter.stackedPositions());
+        assertEquals(bindCount + VIEW_POOL_SIZE, adapter.bindCount);
+        assertEquals(inflationCount, adapter.getInflationCount());
+        assertEquals(1, seeks.size());
+        assertEquals(ITEM_COUNT - 1, seeks.get(0)[0]);
+        assertEquals(500, seeks.get(0)[1]);
+
+        // the new top card is touchable
+        adapter.selectRight();
+        advance(SWIPE_MILLIS);
+        assertEquals(Arrays.asList(497, 498, 499), adapter.stackedPositions());
+    }
+
+    @Test
+    public void seekTo_keepsTheCardsAlreadyInTheNewStack() {
+        View card998 = root.getChildAt(1);
+        int bindCount = adapter.bindCount;
+
+        adapter.seekTo(998);
+        advance(SWIPE_MILLIS);
+
+        assertEquals(Arrays.asList(996, 997, 998), adapter.stackedPositions());
+        assertSame(card998, root.getChildAt(2));
+        assertEquals(bindCount + 1, adapter.bindCount);
+    }
+
+    @Test
+    public void seekTo_duringAnExit_stopsIt() {
+        adapter.selectRight();
+        advance(SWIPE_MILLIS / 3);
+
+        adapter.seekTo(200);
+        advance(SWIPE_MILLIS);
+
+        assertEquals(Arrays.asList(198, 199, 200), adapter.stackedPositions());
+        assertEquals(200, adapter.topPosition);
+        for (int i = 0; i < root.getChildCount(); i++) {
+            assertEquals(0f, root.getChildAt(i).getRotation(), 0.01f);
+        }
+    }
+
+    @Test
+    public void seekTo_backUp_bringsTheSwipedCardsBack() {
+        adapter.seekTo(10);
+        adapter.seekTo(ITEM_COUNT - 1);
+        advance(SWIPE_MILLIS);
+
+        assertEquals(Arrays.asList(997, 998, 999), adapter.stackedPositions());
+        assertEquals(2, seeks.size());
+        assertEquals(10, seeks.get(1)[0]);
+    }
+
+    @Test
+    public void seekTo_keepsTheTopCardTouchableWhenItsHolderIsReusedOnTop() {
+        // a pool large enough to hold the whole stack and the last swiped card
+        FrameLayout root = createRoot();
+        TestAdapter adapter = new TestAdapter(root.getContext(), root, ITEM_COUNT, VIEW_POOL_SIZE,
+                VIEW_POOL_SIZE + 3, null);
+        advance(SWIPE_MILLIS);
+        for (int i = 0; i < 3; i++) {
+            adapter.selectRight();
+            advance(SWIPE_MILLIS);
+        }
+        View previousTopCard = topCard(root);
+
+        adapter.seekTo(500);
+        advance(SWIPE_MILLIS);
+
+        // the stack went back to the pool and came out of it in reverse order, the old top card first
+        assertSame(previousTopCard, topCard(root));
+        assertEquals(Arrays.asList(498, 499, 500), adapter.stackedPositions());
+        assertNotNull(shadowOf(topCard(root)).getOnTouchListener());
+        adapter.selectRight();
+        advance(SWIPE_MILLIS);
+        assertEquals(Arrays.asList(497, 498, 499), adapter.stackedPositions());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void seekTo_outOfRange_throws() {
+        adapter.seekTo(ITEM_COUNT);
+    }
+}
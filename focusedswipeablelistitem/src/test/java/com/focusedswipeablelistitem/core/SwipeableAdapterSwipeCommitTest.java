@@ -0,0 +1,169 @@
+package com.focusedswipeablelistitem.core;
+
+import android.os.SystemClock;
+import android.view.MotionEvent;
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.focusedswipeablelistitem.api.FlingExitListener;
+import com.focusedswipeablelistitem.api.SwipeCommitListener;
+import com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.TestAdapter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.SWIPE_MILLIS;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.advance;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createRoot;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.layOut;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.topCard;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.robolectric.Shadows.shadowOf;
+
+/**
+ * Checks that a swipe is committed before its exit animation runs, with the next card already attached by then
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SwipeableAdapterSwipeCommitTest {
+    private static final int ITEM_COUNT = 10;
+    private static final int VIEW_POOL_SIZE = 3;
+
+    private FrameLayout root;
+    private TestAdapter adapter;
+    private final List<String> events = new ArrayList<>();
+
+    @Before
+    public void setUp() {
+        root = createRoot();
+        adapter = new TestAdapter(root.getContext(), root, ITEM_COUNT, VIEW_POOL_SIZE) {
+            @Override
+            protected void onTopCardChanged(int position) {
+                super.onTopCardChanged(position);
+                events.add("top card " + position);
+            }
+        };
+        adapter.setSwipeCommitListener(new SwipeCommitListener() {
+            @Override
+            public void onSwipeCommitted(int direction, int position, Object dataObject) {
+                events.add("commit " + direction + " " + position);
+            }
+        });
+        adapter.setFlingExitListener(new RecordingExitListener());
+        layOut(root);
+        advance(SWIPE_MILLIS);
+        events.clear();
+    }
+
+    @Test
+    public void commit_comesBeforeTheExitCallbacks() {
+        adapter.selectRight();
+        advance(SWIPE_MILLIS);
+        adapter.selectTop();
+        advance(SWIPE_MILLIS);
+
+        assertEquals(Arrays.asList(
+                "commit " + SwipeableAdapter.DIRECTION_RIGHT + " 9", "top card 8", "right 9", "exited 9",
+                "commit " + SwipeableAdapter.DIRECTION_TOP + " 8", "top card 7", "top 8", "exited 8"), events);
+    }
+
+    @Test
+    public void commit_attachesTheNextCardDuringTheExit() {
+        View leavingCard = root.getChildAt(VIEW_POOL_SIZE - 1);
+
+        adapter.selectRight();
+
+        // the leaving card is still drawn on top of the stack, the next one is already under it
+        assertEquals(VIEW_POOL_SIZE + 1, root.getChildCount());
+        assertSame(leavingCard, root.getChildAt(VIEW_POOL_SIZE));
+        assertEquals(Arrays.asList(6, 7, 8, 9), adapter.stackedPositions());
+        assertEquals(8, adapter.topPosition);
+
+        advance(SWIPE_MILLIS);
+
+        assertEquals(Arrays.asList(6, 7, 8), adapter.stackedPositions());
+    }
+
+    @Test
+    public void lastCard_isCommittedWithoutAttachingAnything() {
+        adapter.seekTo(0);
+        advance(SWIPE_MILLIS);
+        events.clear();
+
+        adapter.selectLeft();
+        assertEquals(1, root.getChildCount());
+        advance(SWIPE_MILLIS);
+
+        assertEquals(Arrays.asList("commit " + SwipeableAdapter.DIRECTION_LEFT + " 0", "top card -1", "left 0",
+                "exited 0"), events);
+        assertEquals(0, root.getChildCount());
+    }
+
+    @Test
+    public void touchingAnExitingCard_doesNotStopItsExit() {
+        View leavingCard = topCard(root);
+        View.OnTouchListener touchListener = shadowOf(leavingCard).getOnTouchListener();
+
+        adapter.selectRight();
+        adapter.enqueueSwipe(SwipeableAdapter.DIRECTION_TOP, null);
+        advance(SWIPE_MILLIS / 3);
+
+        // a drag too short to swipe would spring the card back if it were still handled
+        long downTime = SystemClock.uptimeMillis();
+        send(touchListener, leavingCard, MotionEvent.obtain(downTime, downTime, MotionEvent.ACTION_DOWN, 250, 400, 0));
+        send(touchListener, leavingCard,
+                MotionEvent.obtain(downTime, downTime + 16, MotionEvent.ACTION_MOVE, 260, 400, 0));
+        send(touchListener, leavingCard,
+                MotionEvent.obtain(downTime, downTime + 32, MotionEvent.ACTION_UP, 260, 400, 0));
+        advance(2 * SWIPE_MILLIS);
+
+        // the queued swipe ran once the touched card was gone
+        assertEquals(Arrays.asList(
+                "commit " + SwipeableAdapter.DIRECTION_RIGHT + " 9", "top card 8", "right 9", "exited 9",
+                "commit " + SwipeableAdapter.DIRECTION_TOP + " 8", "top card 7", "top 8", "exited 8"), events);
+        assertEquals(0, adapter.getQueuedSwipeCount());
+        assertEquals(Arrays.asList(5, 6, 7), adapter.stackedPositions());
+    }
+
+    private static void send(View.OnTouchListener touchListener, View card, MotionEvent event) {
+        touchListener.onTouch(card, event);
+        event.recycle();
+    }
+
+    private class RecordingExitListener implements FlingExitListener {
+        @Override
+        public void onCardExited(View view, float objectX, float objectY, int position) {
+            events.add("exited " + position);
+        }
+
+        @Override
+        public void leftExit(View view, Object dataObject, int position) {
+            events.add("left " + position);
+        }
+
+        @Override
+        public void rightExit(View view, Object dataObject, int position) {
+            events.add("right " + position);
+        }
+
+        @Override
+        public void topExit(View view, Object dataObject, int position) {
+            events.add("top " + position);
+        }
+
+        @Override
+        public void bottomExit(View view, Object dataObject, int position) {
+            events.add("bottom " + position);
+        }
+
+        @Override
+        public void onScroll(View view, float scrollProgressPercentX, float scrollProgressPercentY, int position) {
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.focusedswipeablelistitem.core;
+
+import android.widget.FrameLayout;
+
+import com.focusedswipeablelistitem.api.SwipeCommandCallback;
+import com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.TestAdapter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.SWIPE_MILLIS;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.advance;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createRoot;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Queues bursts of swipes faster than the cards can exit, and checks that every one of them runs and completes
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SwipeableAdapterSwipeQueueTest {
+    private static final int ITEM_COUNT = 10;
+    private static final int VIEW_POOL_SIZE = 3;
+
+    private TestAdapter adapter;
+    private RecordingCallback callback;
+
+    @Before
+    public void setUp() {
+        FrameLayout root = createRoot();
+        adapter = new TestAdapter(root.getContext(), root, ITEM_COUNT, VIEW_POOL_SIZE);
+        callback = new RecordingCallback();
+        advance(SWIPE_MILLIS);
+    }
+
+    @Test
+    public void burst_runsEverySwipeInOrder() {
+        for (int i = 0; i < 5; i++) {
+            adapter.enqueueSwipe(SwipeableAdapter.DIRECTION_RIGHT, callback);
+        }
+        assertEquals(4, adapter.getQueuedSwipeCount());
+
+        advance(5 * SWIPE_MILLIS);
+
+        assertEquals(Arrays.asList(9, 8, 7, 6, 5), callback.positions);
+        for (boolean isSwiped : callback.swiped) {
+            assertTrue(isSwiped);
+        }
+        assertEquals(0, adapter.getQueuedSwipeCount());
+    }
+
+    @Test
+    public void fastForward_goesThroughEveryDirectionQuickly() {
+        adapter.setFastForwardSwipes(true);
+        int[] directions = {SwipeableAdapter.DIRECTION_LEFT, SwipeableAdapter.DIRECTION_RIGHT,
+                SwipeableAdapter.DIRECTION_TOP, SwipeableAdapter.DIRECTION_BOTTOM};
+        for (int direction : directions) {
+            adapter.enqueueSwipe(direction, callback);
+        }
+
+        // the four exits would take 700 ms at their usual durations
+        advance(SWIPE_MILLIS);
+
+        assertEquals(Arrays.asList(SwipeableAdapter.DIRECTION_LEFT, SwipeableAdapter.DIRECTION_RIGHT,
+                SwipeableAdapter.DIRECTION_TOP, SwipeableAdapter.DIRECTION_BOTTOM), callback.directions);
+        assertEquals(Arrays.asList(9, 8, 7, 6), callback.positions);
+    }
+
+    @Test
+    public void swipeQueuedDuringAnExit_runsOnTheNextCard() {
+        adapter.selectRight();
+        adapter.selectRight();
+        adapter.enqueueSwipe(SwipeableAdapter.DIRECTION_LEFT, callback);
+
+        advance(2 * SWIPE_MILLIS);
+
+        // the second selectRight was dropped, the queued swipe was not
+        assertEquals(Arrays.asList(8), callback.positions);
+        assertEquals(ITEM_COUNT - 3, adapter.topPosition);
+    }
+
+    @Test
+    public void swipesBeyondTheLastCard_completeWithoutSwiping() {
+        for (int i = 0; i < ITEM_COUNT + 2; i++) {
+            adapter.enqueueSwipe(SwipeableAdapter.DIRECTION_RIGHT, callback);
+        }
+
+        advance(ITEM_COUNT * SWIPE_MILLIS);
+
+        assertEquals(ITEM_COUNT + 2, callback.positions.size());
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            assertTrue(callback.swiped.get(i));
+        }
+        assertFalse(callback.swiped.get(ITEM_COUNT));
+        assertEquals(Integer.valueOf(-1), callback.positions.get(ITEM_COUNT + 1));
+    }
+
+    private static class RecordingCallback implements SwipeCommandCallback {
+        final List<Integer> directions = new ArrayList<>();
+        final List<Integer> positions = new ArrayList<>();
+        final List<Boolean> swiped = new ArrayList<>();
+
+        @Override
+        public void onSwipeCompleted(int direction, int position, boolean isSwiped) {
+            directions.add(direction);
+            positions.add(position);
+            swiped.add(isSwiped);
+        }
+    }
+}
@@ -0,0 +1,155 @@
+package com.focusedswipeablelistitem.core;
+
+import android.app.Activity;
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+
+import com.focusedswipeablelistitem.api.SwipeMetrics;
+
+import org.robolectric.Robolectric;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * What the adapter tests share: a deck layout in a window, the Robolectric clock and a plain adapter whose cards
+ * remember the position they are bound to
+ */
+final class SwipeableAdapterTestSupport {
+    // a bit longer than the 250 ms exit animation of select* and than the undo animation
+    static final long SWIPE_MILLIS = 300;
+
+    private SwipeableAdapterTestSupport() {
+    }
+
+    /**
+     * Returns an empty deck layout set as the content of an activity. The cards get their touch listener through
+     * View.post, which only runs once attached to a window
+     */
+    static FrameLayout createRoot() {
+        Activity activity = Robolectric.setupActivity(Activity.class);
+        FrameLayout root = new FrameLayout(activity);
+        activity.setContentView(root);
+        return root;
+    }
+
+    /**
+     * Measures and lays the deck out at a fixed size, for the tests handing touch events to the cards
+     */
+    static void layOut(FrameLayout root) {
+        root.measure(View.MeasureSpec.makeMeasureSpec(1000, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(1600, View.MeasureSpec.EXACTLY));
+        root.layout(0, 0, 1000, 1600);
+    }
+
+    static View createCard(ViewGroup parentView) {
+        View card = new View(parentView.getContext());
+        card.setLayoutParams(new FrameLayout.LayoutParams(500, 800));
+        return card;
+    }
+
+    static View topCard(FrameLayout root) {
+        return root.getChildAt(root.getChildCount() - 1);
+    }
+
+    static void advance(long millis) {
+        Robolectric.getForegroundThreadScheduler().advanceBy(millis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * A deck of plain cards counting its binds and keeping track of its top card
+     */
+    static class TestAdapter extends SwipeableAdapter<TestHolder> {
+        final Map<View, TestHolder> holders = new HashMap<>();
+        final List<Integer> boundPositions = new ArrayList<>();
+        private final FrameLayout root;
+        private final int viewPoolSize;
+        private final int recycledViewsPoolSize;
+        int itemCount;
+        int createCount;
+        int bindCount;
+        int topPosition;
+
+        TestAdapter(Context context, FrameLayout root, int itemCount, int viewPoolSize) {
+            this(context, root, itemCount, viewPoolSize, viewPoolSize, null);
+        }
+
+        /**
+         * @param recycledViewsPoolSize how many swiped away view holders are kept for reuse
+         * @param metrics               set before the stack is filled so that its first binds are measured too
+         */
+        TestAdapter(Context context, FrameLayout root, int itemCount, int viewPoolSize, int recycledViewsPoolSize,
+                    SwipeMetrics metrics) {
+            super(context, root, 15f, true, true, true, true);
+            this.root = root;
+            this.itemCount = itemCount;
+            this.viewPoolSize = viewPoolSize;
+            this.recycledViewsPoolSize = recycledViewsPoolSize;
+            setSwipeMetrics(metrics);
+            setupAdapter();
+        }
+
+        Integer positionOf(View card) {
+            return holders.get(card).boundPosition;
+        }
+
+        /**
+         * @return the positions bound to the children of the deck layout, from the bottom of the stack to its top
+         */
+        List<Integer> stackedPositions() {
+            List<Integer> positions = new ArrayList<>();
+            for (int i = 0; i < root.getChildCount(); i++) {
+                positions.add(positionOf(root.getChildAt(i)));
+            }
+            return positions;
+        }
+
+        @Override
+        public int getItemCount() {
+            return itemCount;
+        }
+
+        @Override
+        protected TestHolder createViewHolder(ViewGroup parentView, int position) {
+            createCount++;
+            TestHolder holder = new TestHolder(createCard(parentView));
+            holders.put(holder.getItemView(), holder);
+            return holder;
+        }
+
+        @Override
+        protected void onBindView(TestHolder viewHolder, int position) {
+            bindCount++;
+            boundPositions.add(position);
+            viewHolder.boundPosition = position;
+        }
+
+        @Override
+        protected void onTopCardChanged(int position) {
+            topPosition = position;
+        }
+
+        @Override
+        protected int getViewPoolSize() {
+            return viewPoolSize;
+        }
+
+        @Override
+        protected int getRecycledViewsPoolSize(int viewType) {
+            return recycledViewsPoolSize;
+        }
+    }
+
+    static class TestHolder extends SwipeableAdapter.ViewHolder {
+        Integer boundPosition;
+
+        TestHolder(View itemView) {
+            super(itemView);
+        }
+    }
+}
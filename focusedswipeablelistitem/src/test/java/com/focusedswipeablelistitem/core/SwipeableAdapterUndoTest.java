@@ -0,0 +1,164 @@
+package com.focusedswipeablelistitem.core;
+
+import android.view.View;
+import android.widget.FrameLayout;
+
+import com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.TestAdapter;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+import java.util.Arrays;
+
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.SWIPE_MILLIS;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.advance;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createRoot;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.topCard;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Swipes cards away in every direction and brings them back, and checks that the very same bound views come back
+ * to where they were without anything being inflated or bound
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SwipeableAdapterUndoTest {
+    private static final int ITEM_COUNT = 10;
+    private static final int VIEW_POOL_SIZE = 3;
+    private static final int UNDO_HISTORY_SIZE = 3;
+
+    private FrameLayout root;
+    private TestAdapter adapter;
+
+    @Before
+    public void setUp() {
+        root = createRoot();
+        adapter = new TestAdapter(root.getContext(), root, ITEM_COUNT, VIEW_POOL_SIZE);
+        adapter.setUndoHistorySize(UNDO_HISTORY_SIZE);
+        advance(SWIPE_MILLIS);
+    }
+
+    @Test
+    public void undo_bringsBackTheSameBoundView() {
+        View topCard = topCard(root);
+        float restX = topCard.getX();
+        float restY = topCard.getY();
+
+        adapter.selectRight();
+        advance(SWIPE_MILLIS);
+        assertEquals(Arrays.asList(6, 7, 8), adapter.stackedPositions());
+        int bindCount = adapter.bindCount;
+        int inflationCount = adapter.getInflationCount();
+
+        assertTrue(adapter.undo());
+        advance(SWIPE_MILLIS);
+
+        assertSame(topCard, topCard(root));
+        assertEquals(Arrays.asList(7, 8, 9), adapter.stackedPositions());
+        assertEquals(bindCount, adapter.bindCount);
+        assertEquals(inflationCount, adapter.getInflationCount());
+        assertEquals(restX, topCard.getX(), 0.01f);
+        assertEquals(restY, topCard.getY(), 0.01f);
+        assertEquals(0f, topCard.getRotation(), 0.01f);
+    }
+
+    @Test
+    public void undo_worksForEveryDirection() {
+        int[] directions = {SwipeableAdapter.DIRECTION_LEFT, SwipeableAdapter.DIRECTION_RIGHT,
+                SwipeableAdapter.DIRECTION_TOP, SwipeableAdapter.DIRECTION_BOTTOM};
+        for (int direction : directions) {
+            View topCard = topCard(root);
+            float restX = topCard.getX();
+            float restY = topCard.getY();
+
+            swipe(direction);
+            assertEquals(direction, adapter.getUndoDirection());
+            assertTrue(adapter.undo());
+            advance(SWIPE_MILLIS);
+
+            assertSame(topCard, topCard(root));
+            assertEquals(restX, topCard.getX(), 0.01f);
+            assertEquals(restY, topCard.getY(), 0.01f);
+        }
+        assertEquals(Arrays.asList(7, 8, 9), adapter.stackedPositions());
+    }
+
+    @Test
+    public void rapidUndo_finishesEachUndoBeforeTheNextOne() {
+        for (int i = 0; i < UNDO_HISTORY_SIZE; i++) {
+            adapter.selectRight();
+            advance(SWIPE_MILLIS);
+        }
+        assertEquals(Arrays.asList(4, 5, 6), adapter.stackedPositions());
+
+        for (int i = 0; i < UNDO_HISTORY_SIZE; i++) {
+            assertTrue(adapter.undo());
+        }
+        advance(SWIPE_MILLIS);
+
+        assertEquals(Arrays.asList(7, 8, 9), adapter.stackedPositions());
+        for (int i = 0; i < root.getChildCount(); i++) {
+            assertEquals(0f, root.getChildAt(i).getRotation(), 0.01f);
+        }
+
+        // the card brought back last is touchable again
+        adapter.selectRight();
+        advance(SWIPE_MILLIS);
+        assertEquals(Arrays.asList(6, 7, 8), adapter.stackedPositions());
+    }
+
+    @Test
+    public void undo_isLimitedToTheHistorySize() {
+        adapter.setUndoHistorySize(2);
+        for (int i = 0; i < 3; i++) {
+            adapter.selectLeft();
+            advance(SWIPE_MILLIS);
+        }
+        assertEquals(2, adapter.getUndoCount());
+
+        assertTrue(adapter.undo());
+        assertTrue(adapter.undo());
+        assertFalse(adapter.undo());
+        advance(SWIPE_MILLIS);
+
+        assertEquals(Arrays.asList(6, 7, 8), adapter.stackedPositions());
+    }
+
+    @Test
+    public void insertedCard_isVisibleOnceBackFromEveryDirection() {
+        int[] directions = {SwipeableAdapter.DIRECTION_LEFT, SwipeableAdapter.DIRECTION_RIGHT,
+                SwipeableAdapter.DIRECTION_TOP, SwipeableAdapter.DIRECTION_BOTTOM, SwipeableAdapter.DIRECTION_NONE};
+        for (int direction : directions) {
+            adapter.itemCount++;
+            adapter.notifyItemInserted(adapter.itemCount - 1, direction);
+            advance(SWIPE_MILLIS);
+
+            View topCard = topCard(root);
+            assertEquals(adapter.itemCount - 1, (int) adapter.positionOf(topCard));
+            assertEquals(View.VISIBLE, topCard.getVisibility());
+            assertEquals(0f, topCard.getRotation(), 0.01f);
+        }
+    }
+
+    private void swipe(int direction) {
+        switch (direction) {
+            case SwipeableAdapter.DIRECTION_LEFT:
+                adapter.selectLeft();
+                break;
+            case SwipeableAdapter.DIRECTION_RIGHT:
+                adapter.selectRight();
+                break;
+            case SwipeableAdapter.DIRECTION_TOP:
+                adapter.selectTop();
+                break;
+            default:
+                adapter.selectBottom();
+                break;
+        }
+        advance(SWIPE_MILLIS);
+    }
+}
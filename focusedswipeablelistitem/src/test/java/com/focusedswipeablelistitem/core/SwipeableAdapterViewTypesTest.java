@@ -0,0 +1,123 @@
+package com.focusedswipeablelistitem.core;
+
+import android.content.Context;
+import android.view.View;
+import android.view.ViewGroup;
+import android.widget.FrameLayout;
+import android.widget.TextView;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+
+
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.SWIPE_MILLIS;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.advance;
+import static com.focusedswipeablelistitem.core.SwipeableAdapterTestSupport.createRoot;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Swipes through a deck mixing content cards with an ad every third card, and checks that every card is bound
+ * to a view holder of its own type
+ */
+@RunWith(RobolectricTestRunner.class)
+public class SwipeableAdapterViewTypesTest {
+    private static final int ITEM_COUNT = 30;
+    private static final int VIEW_POOL_SIZE = 3;
+    private static final int TYPE_CONTENT = 0;
+    private static final int TYPE_AD = 1;
+
+    private TestAdapter adapter;
+
+    @Before
+    public void setUp() {
+        FrameLayout root = createRoot();
+        adapter = new TestAdapter(root.getContext(), root);
+        advance(SWIPE_MILLIS);
+    }
+
+    @Test
+    public void everyCard_isBoundToAHolderOfItsType() {
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            adapter.selectRight();
+            advance(SWIPE_MILLIS);
+        }
+
+        assertEquals(ITEM_COUNT, adapter.bindCount);
+        assertEquals(0, adapter.mismatchCount);
+    }
+
+    @Test
+    public void poolStats_countHitsAndMissesPerType() {
+        assertNull(adapter.getPoolStats(7));
+
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            adapter.selectRight();
+            advance(SWIPE_MILLIS);
+        }
+
+        SwipeableAdapter.PoolStats content = adapter.getPoolStats(TYPE_CONTENT);
+        SwipeableAdapter.PoolStats ads = adapter.getPoolStats(TYPE_AD);
+        assertEquals(ITEM_COUNT, content.getHitCount() + content.getMissCount()
+                + ads.getHitCount() + ads.getMissCount());
+        assertEquals(ITEM_COUNT / 3, ads.getHitCount() + ads.getMissCount());
+        assertTrue(content.getHitCount() > content.getMissCount());
+        assertTrue(ads.getHitCount() > ads.getMissCount());
+        assertEquals(content.getMissCount() + ads.getMissCount(), adapter.getInflationCount());
+    }
+
+    private static class TestAdapter extends SwipeableAdapter<TestAdapter.Holder> {
+        int bindCount;
+        int mismatchCount;
+
+        TestAdapter(Context context, FrameLayout root) {
+            super(context, root, 15f, true, true, true, true);
+            setupAdapter();
+        }
+
+        @Override
+        public int getItemCount() {
+            return ITEM_COUNT;
+        }
+
+        @Override
+        protected int getItemViewType(int position) {
+            return position % 3 == 0 ? TYPE_AD : TYPE_CONTENT;
+        }
+
+        @Override
+        protected Holder createViewHolder(ViewGroup parentView, int position, int viewType) {
+            View card = viewType == TYPE_AD
+                    ? new TextView(parentView.getContext())
+                    : new View(parentView.getContext());
+            card.setLayoutParams(new FrameLayout.LayoutParams(500, 800));
+            return new Holder(card, viewType);
+        }
+
+        @Override
+        protected void onBindView(Holder viewHolder, int position) {
+            bindCount++;
+            if (viewHolder.createdForType != getItemViewType(position)
+                    || viewHolder.getItemViewType() != viewHolder.createdForType) {
+                mismatchCount++;
+            }
+        }
+
+        @Override
+        protected int getViewPoolSize() {
+            return VIEW_POOL_SIZE;
+        }
+
+        static class Holder extends SwipeableAdapter.ViewHolder {
+            final int createdForType;
+
+            Holder(View itemView, int createdForType) {
+                super(itemView);
+                this.createdForType = createdForType;
+            }
+        }
+    }
+}
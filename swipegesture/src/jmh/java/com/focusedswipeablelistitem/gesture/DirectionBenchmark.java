@@ -0,0 +1,65 @@
+package com.focusedswipeablelistitem.gesture;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares classifying a fling through its angle, as {@link Direction#fromAngle(double)} does, with
+ * {@link DirectionClassifier}, every operation being one classification
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DirectionBenchmark {
+
+    private static final int VECTORS = 1024;
+
+    private final float[] dx = new float[VECTORS];
+    private final float[] dy = new float[VECTORS];
+
+    private final DirectionClassifier eightWay = new DirectionClassifier(45);
+
+    @Setup
+    public void setUp() {
+        // fixed seed so that every run classifies the same velocities
+        Random random = new Random(42);
+        for (int i = 0; i < VECTORS; i++) {
+            dx[i] = (random.nextFloat() - 0.5f) * 8000;
+            dy[i] = (random.nextFloat() - 0.5f) * 8000;
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VECTORS)
+    public void angle(Blackhole blackhole) {
+        for (int i = 0; i < VECTORS; i++) {
+            blackhole.consume(Direction.fromAngle(Direction.getAngle(0, 0, dx[i], dy[i])));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VECTORS)
+    public void fourWay(Blackhole blackhole) {
+        for (int i = 0; i < VECTORS; i++) {
+            blackhole.consume(DirectionClassifier.FOUR_WAY.classify(dx[i], dy[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VECTORS)
+    public void eightWay(Blackhole blackhole) {
+        for (int i = 0; i < VECTORS; i++) {
+            blackhole.consume(eightWay.classify(dx[i], dy[i]));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.focusedswipeablelistitem.gesture;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeping the fit of the last {@link #WINDOW} touch samples up to date, every operation being one new sample.
+ * <p>
+ * {@link #batch()} refits the window with {@link LinearRegression} the way the exit point used to be computed,
+ * {@link #streaming()} slides a {@link StreamingLinearRegression} over it
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LinearRegressionBenchmark {
+
+    private static final int WINDOW = 20;
+    private static final int SAMPLES = 1024;
+
+    private final float[] xs = new float[SAMPLES];
+    private final float[] ys = new float[SAMPLES];
+    private final StreamingLinearRegression streaming = new StreamingLinearRegression();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < SAMPLES; i++) {
+            xs[i] = 300 + i * 2.5f;
+            ys[i] = 500 + (i % 200) * (i % 200) / 60f;
+        }
+        for (int i = 0; i < WINDOW; i++) {
+            streaming.add(xs[i], ys[i]);
+        }
+        next = WINDOW;
+    }
+
+    @Benchmark
+    public double batch() {
+        int end = advance();
+        float[] windowX = new float[WINDOW];
+        float[] windowY = new float[WINDOW];
+        for (int i = 0; i < WINDOW; i++) {
+            windowX[i] = xs[(end - i + SAMPLES) % SAMPLES];
+            windowY[i] = ys[(end - i + SAMPLES) % SAMPLES];
+        }
+        return new LinearRegression(windowX, windowY).slope();
+    }
+
+    @Benchmark
+    public double streaming() {
+        int end = advance();
+        int oldest = (end - WINDOW + SAMPLES) % SAMPLES;
+        streaming.remove(xs[oldest], ys[oldest]);
+        streaming.add(xs[end], ys[end]);
+        return streaming.slope();
+    }
+
+    private int advance() {
+        int end = next;
+        next = (next + 1) % SAMPLES;
+        return end;
+    }
+}
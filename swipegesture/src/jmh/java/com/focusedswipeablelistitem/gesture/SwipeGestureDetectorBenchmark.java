@@ -0,0 +1,78 @@
+package com.focusedswipeablelistitem.gesture;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Replays a recorded-like swipe through {@link SwipeGestureDetector}.
+ * <p>
+ * {@link #events()} reports the throughput in touch events per second, {@link #gesture()} reports one whole
+ * gesture per operation so that the gc profiler gives the bytes allocated per gesture, which should be 0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class SwipeGestureDetectorBenchmark {
+
+    private static final int MOVES = 60;
+    private static final int HISTORICAL_PER_MOVE = 3;
+
+    /**
+     * The down, every move with its batched samples and the up
+     */
+    private static final int EVENTS_PER_GESTURE = 2 + MOVES * (1 + HISTORICAL_PER_MOVE);
+
+    private static final long FRAME_MILLIS = 16;
+
+    private final float[] moveX = new float[MOVES * (1 + HISTORICAL_PER_MOVE)];
+    private final float[] moveY = new float[moveX.length];
+    private final long[] moveTime = new long[moveX.length];
+
+    private SwipeGestureDetector detector;
+
+    @Setup
+    public void setUp() {
+        detector = new SwipeGestureDetector(16, 100);
+        detector.setCardBounds(300, 500, 480, 800, 1080, 1920);
+
+        // a slightly curved drag towards the right, sampled four times per frame
+        for (int i = 0; i < moveX.length; i++) {
+            moveX[i] = 240 + i * 2.5f;
+            moveY[i] = 400 + (i * i) / 60f;
+            moveTime[i] = i * FRAME_MILLIS / (1 + HISTORICAL_PER_MOVE);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EVENTS_PER_GESTURE)
+    public int events() {
+        return swipe();
+    }
+
+    @Benchmark
+    public int gesture() {
+        return swipe();
+    }
+
+    private int swipe() {
+        detector.resetPosition();
+        detector.onDown(240, 400, 0, 300, 500);
+        for (int i = 0; i < moveX.length; i++) {
+            if ((i + 1) % (1 + HISTORICAL_PER_MOVE) == 0) {
+                detector.onMove(moveX[i], moveY[i], moveTime[i]);
+            } else {
+                detector.onHistoricalMove(moveX[i], moveY[i], moveTime[i]);
+            }
+        }
+        int release = detector.onUp(moveTime[moveTime.length - 1] + FRAME_MILLIS, 3000, 400);
+        return release == SwipeGestureDetector.RELEASE_FLING ? detector.getFlingDirection() : detector.getSettleDirection();
+    }
+}
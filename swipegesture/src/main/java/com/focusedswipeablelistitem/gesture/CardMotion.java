@@ -0,0 +1,159 @@
+package com.focusedswipeablelistitem.gesture;
+
+/**
+ * The motion of a card once it has been let go, seeded with the velocity of the release so that the card keeps
+ * moving the way the finger did instead of starting over at a fixed speed.
+ * <p>
+ * A card leaving the stack keeps the release speed all the way out, see {@link #getExitDuration}. A card going
+ * back in place follows a damped spring started from its offset and the release velocity, see {@link #startSpring}
+ * and {@link #computeSpring}. It does not allocate after construction.
+ */
+public class CardMotion {
+
+    /**
+     * The stiffness of the spring, the same as the medium stiffness of the Android spring animations
+     */
+    public static final float DEFAULT_STIFFNESS = 1500f;
+
+    /**
+     * Slightly bouncy, the card overshoots its place a little when let go with some speed
+     */
+    public static final float DEFAULT_DAMPING_RATIO = 0.75f;
+
+    /**
+     * The spring is considered at rest once it cannot move the card by more than this many pixels anymore
+     */
+    private static final float REST_THRESHOLD = 0.5f;
+
+    private final float naturalFrequency;
+    private final float dampingRatio;
+    private final float dampedFrequency;
+
+    private float startX;
+    private float startY;
+    private float startVelocityX;
+    private float startVelocityY;
+    private float springX;
+    private float springY;
+    private long springDuration;
+
+    public CardMotion() {
+        this(DEFAULT_STIFFNESS, DEFAULT_DAMPING_RATIO);
+    }
+
+    /**
+     * @param stiffness    the stiffness of the spring pulling the card back, for a card of mass 1
+     * @param dampingRatio how fast the spring loses its energy, between 0 excluded and 1 excluded
+     */
+    public CardMotion(float stiffness, float dampingRatio) {
+        if (stiffness <= 0 || dampingRatio <= 0 || dampingRatio >= 1) {
+            throw new IllegalArgumentException("The spring needs a positive stiffness and a damping ratio in ]0, 1[");
+        }
+        this.naturalFrequency = (float) Math.sqrt(stiffness);
+        this.dampingRatio = dampingRatio;
+        this.dampedFrequency = naturalFrequency * (float) Math.sqrt(1 - dampingRatio * dampingRatio);
+    }
+
+    /**
+     * The duration of an exit that covers the given distance at the release speed, kept within the given bounds
+     * so that hard flings still show a few frames and slow drags do not crawl out
+     *
+     * @param distance    the distance left to the exit position, in pixels
+     * @param speed       the release speed towards the exit position, in pixels per second
+     * @param minDuration the shortest exit, in milliseconds
+     * @param maxDuration the longest exit, also used when the card is not moving towards the exit at all
+     */
+    public static long getExitDuration(float distance, float speed, long minDuration, long maxDuration) {
+        if (speed <= 0 || distance <= 0) {
+            return distance <= 0 ? minDuration : maxDuration;
+        }
+        long duration = (long) (1000 * distance / speed);
+        return Math.max(minDuration, Math.min(maxDuration, duration));
+    }
+
+    /**
+     * The speed of the given velocity along the line going from (fromX, fromY) to (toX, toY), negative when
+     * moving away from (toX, toY)
+     */
+    public static float getSpeedTowards(float fromX, float fromY, float toX, float toY,
+                                        float velocityX, float velocityY) {
+        float dx = toX - fromX;
+        float dy = toY - fromY;
+        float distance = (float) Math.hypot(dx, dy);
+        if (distance == 0) {
+            return 0;
+        }
+        return (velocityX * dx + velocityY * dy) / distance;
+    }
+
+    /**
+     * Starts the spring of a card let go at the given offset from its place
+     *
+     * @param offsetX   where the card is relative to its place on the x axis, in pixels
+     * @param offsetY   where the card is relative to its place on the y axis, in pixels
+     * @param velocityX the release velocity on the x axis, in pixels per second
+     * @param velocityY the release velocity on the y axis, in pixels per second
+     */
+    public void startSpring(float offsetX, float offsetY, float velocityX, float velocityY) {
+        startX = offsetX;
+        startY = offsetY;
+        startVelocityX = velocityX;
+        startVelocityY = velocityY;
+        springX = offsetX;
+        springY = offsetY;
+
+        // both axes decay within the same envelope, the one with the largest amplitude settles last
+        float amplitude = Math.max(getAmplitude(offsetX, velocityX), getAmplitude(offsetY, velocityY));
+        if (amplitude <= REST_THRESHOLD) {
+            springDuration = 0;
+        } else {
+            double seconds = Math.log(amplitude / REST_THRESHOLD) / (dampingRatio * naturalFrequency);
+            springDuration = (long) Math.ceil(seconds * 1000);
+        }
+    }
+
+    /**
+     * Moves the spring to the given time since {@link #startSpring}, the offsets are then read with
+     * {@link #getSpringX()} and {@link #getSpringY()}
+     *
+     * @return true once the spring is at rest, the offsets are exactly 0 then
+     */
+    public boolean computeSpring(long elapsedMillis) {
+        if (elapsedMillis >= springDuration) {
+            springX = 0;
+            springY = 0;
+            return true;
+        }
+        float seconds = elapsedMillis / 1000f;
+        float decay = (float) Math.exp(-dampingRatio * naturalFrequency * seconds);
+        float cos = (float) Math.cos(dampedFrequency * seconds);
+        float sin = (float) Math.sin(dampedFrequency * seconds);
+        springX = decay * (startX * cos + getSineCoefficient(startX, startVelocityX) * sin);
+        springY = decay * (startY * cos + getSineCoefficient(startY, startVelocityY) * sin);
+        return false;
+    }
+
+    /**
+     * @return the time the spring started by {@link #startSpring} takes to come to rest, in milliseconds
+     */
+    public long getSpringDuration() {
+        return springDuration;
+    }
+
+    public float getSpringX() {
+        return springX;
+    }
+
+    public float getSpringY() {
+        return springY;
+    }
+
+    private float getSineCoefficient(float offset, float velocity) {
+        return (velocity + dampingRatio * naturalFrequency * offset) / dampedFrequency;
+    }
+
+    private float getAmplitude(float offset, float velocity) {
+        float sineCoefficient = getSineCoefficient(offset, velocity);
+        return (float) Math.sqrt(offset * offset + sineCoefficient * sineCoefficient);
+    }
+}
@@ -0,0 +1,87 @@
+package com.focusedswipeablelistitem.gesture;
+
+/**
+ * The directions a card can be flung to, with the y axis pointing up as in the usual trigonometric circle.
+ * The diagonal ones are only returned by a {@link DirectionClassifier} that has diagonal sectors
+ */
+public enum Direction {
+    up,
+    down,
+    left,
+    right,
+    upRight,
+    upLeft,
+    downLeft,
+    downRight;
+
+    /**
+     * Given two points in the plane p1=(x1, x2) and p2=(y1, y1), this method
+     * returns the direction that an arrow pointing from p1 to p2 would have.
+     *
+     * @param x1 the x position of the first point
+     * @param y1 the y position of the first point
+     * @param x2 the x position of the second point
+     * @param y2 the y position of the second point
+     * @return the direction
+     * @see DirectionClassifier#FOUR_WAY
+     */
+    public static Direction between(float x1, float y1, float x2, float y2) {
+        return DirectionClassifier.FOUR_WAY.classify(x2 - x1, y2 - y1);
+    }
+
+    /**
+     * Finds the angle between two points in the plane (x1,y1) and (x2, y2)
+     * The angle is measured with 0/360 being the X-axis to the right, angles
+     * increase counter clockwise.
+     *
+     * @param x1 the x position of the first point
+     * @param y1 the y position of the first point
+     * @param x2 the x position of the second point
+     * @param y2 the y position of the second point
+     * @return the angle between two points
+     */
+    public static double getAngle(float x1, float y1, float x2, float y2) {
+        float angle = (float) Math.toDegrees(Math.atan2(y2 - y1, x2 - x1));
+        if (angle < 0) {
+            angle += 360;
+        }
+
+        return angle;
+    }
+
+    /**
+     * Returns a direction given an angle.
+     * Directions are defined as follows:
+     * <p>
+     * Up: [45, 135]
+     * Right: [0,45] and [315, 360]
+     * Down: [225, 315]
+     * Left: [135, 225]
+     *
+     * @param angle an angle from 0 to 360 - e
+     * @return the direction of an angle
+     * @see DirectionClassifier for the same classification without going through an angle
+     */
+    public static Direction fromAngle(double angle) {
+        if (inRange(angle, 45, 135)) {
+            return Direction.up;
+        } else if (inRange(angle, 0, 45) || inRange(angle, 315, 360)) {
+            return Direction.right;
+        } else if (inRange(angle, 225, 315)) {
+            return Direction.down;
+        } else {
+            return Direction.left;
+        }
+
+    }
+
+    /**
+     * @param angle an angle
+     * @param init  the initial bound
+     * @param end   the final bound
+     * @return returns true if the given angle is in the interval [init, end).
+     */
+    private static boolean inRange(double angle, float init, float end) {
+        return (angle >= init) && (angle < end);
+    }
+}
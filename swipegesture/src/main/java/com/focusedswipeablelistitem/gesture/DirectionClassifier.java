@@ -0,0 +1,94 @@
+package com.focusedswipeablelistitem.gesture;
+
+/**
+ * Classifies a movement into a {@link Direction} by comparing the absolute values and the signs of its
+ * components, without any trigonometry.
+ * <p>
+ * Every quadrant is split between its two straight directions and an optional diagonal sector centered on
+ * its diagonal. A sector starts at its lowest angle going counter clockwise and ends just before the next one,
+ * which gives exactly the same result as {@link Direction#fromAngle(double)} when there are no diagonal sectors.
+ * <p>
+ * The y axis points up, flip the y component of screen coordinates before classifying them.
+ * Instances are immutable and can be shared.
+ */
+public final class DirectionClassifier {
+
+    /**
+     * Up, down, left and right only, each of them covering 90 degrees
+     */
+    public static final DirectionClassifier FOUR_WAY = new DirectionClassifier(0);
+
+    private static final float MAX_SECTOR_DEGREES = 90;
+
+    // tan(45 - width / 2) of each diagonal sector, a movement of the quadrant that is closer to an axis than
+    // that stays on the straight direction of the axis
+    private final float upRightTan;
+    private final float upLeftTan;
+    private final float downLeftTan;
+    private final float downRightTan;
+
+    /**
+     * @param diagonalSectorDegrees the angular width of every diagonal sector, 0 for a {@link #FOUR_WAY} classifier
+     *                              and 45 for eight directions of the same width
+     */
+    public DirectionClassifier(float diagonalSectorDegrees) {
+        this(diagonalSectorDegrees, diagonalSectorDegrees, diagonalSectorDegrees, diagonalSectorDegrees);
+    }
+
+    /**
+     * Creates a classifier with diagonal sectors of different widths, the straight directions take what is left
+     * of their quadrants. Every width must be in [0, 90)
+     */
+    public DirectionClassifier(float upRightDegrees, float upLeftDegrees, float downLeftDegrees, float downRightDegrees) {
+        this.upRightTan = halfQuadrantTan(upRightDegrees);
+        this.upLeftTan = halfQuadrantTan(upLeftDegrees);
+        this.downLeftTan = halfQuadrantTan(downLeftDegrees);
+        this.downRightTan = halfQuadrantTan(downRightDegrees);
+    }
+
+    private static float halfQuadrantTan(float sectorDegrees) {
+        if (!(sectorDegrees >= 0 && sectorDegrees < MAX_SECTOR_DEGREES)) {
+            throw new IllegalArgumentException("A diagonal sector must be in [0, 90) degrees, was " + sectorDegrees);
+        }
+        if (sectorDegrees == 0) {
+            // tan(45) is not exactly 1 in floating point, and the ties on the diagonals must stay exact
+            return 1f;
+        }
+        return (float) Math.tan(Math.toRadians(45 - sectorDegrees / 2));
+    }
+
+    /**
+     * @return the direction of the movement (dx, dy), a movement of (0, 0) is {@link Direction#right} like an angle of 0
+     */
+    public Direction classify(float dx, float dy) {
+        float ax = Math.abs(dx);
+        float ay = Math.abs(dy);
+
+        if (dx > 0 && dy >= 0) {
+            // [0, 90)
+            if (ay < upRightTan * ax) {
+                return Direction.right;
+            }
+            return ax <= upRightTan * ay ? Direction.up : Direction.upRight;
+        } else if (dx <= 0 && dy > 0) {
+            // [90, 180)
+            if (ax < upLeftTan * ay) {
+                return Direction.up;
+            }
+            return ay <= upLeftTan * ax ? Direction.left : Direction.upLeft;
+        } else if (dx < 0) {
+            // [180, 270)
+            if (ay < downLeftTan * ax) {
+                return Direction.left;
+            }
+            return ax <= downLeftTan * ay ? Direction.down : Direction.downLeft;
+        } else if (dy < 0) {
+            // [270, 360)
+            if (ax < downRightTan * ay) {
+                return Direction.down;
+            }
+            return ay <= downRightTan * ax ? Direction.right : Direction.downRight;
+        }
+        return Direction.right;
+    }
+}
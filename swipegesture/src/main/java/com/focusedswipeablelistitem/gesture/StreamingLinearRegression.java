@@ -0,0 +1,126 @@
+package com.focusedswipeablelistitem.gesture;
+
+/**
+ * Simple linear regression y = &alpha; + &beta; x updated one point at a time.
+ * <p>
+ * The means and the centered sums of squares and products are kept up to date with Welford's method,
+ * so adding or removing a point is O(1), does not allocate and stays accurate when the values are large
+ * compared to their spread, as timestamps are. The fit and its statistics are only computed when asked for,
+ * with the same definitions as the batch {@code LinearRegression} of the tests.
+ * <p>
+ * Removing points allows a sliding window, only points that were added before may be removed.
+ */
+public class StreamingLinearRegression {
+    private int n;
+    private double meanX;
+    private double meanY;
+    // centered sums: sum((x - meanX)^2), sum((y - meanY)^2) and sum((x - meanX) * (y - meanY))
+    private double sxx;
+    private double syy;
+    private double sxy;
+
+    public void add(double x, double y) {
+        n++;
+        double dx = x - meanX;
+        double dy = y - meanY;
+        meanX += dx / n;
+        meanY += dy / n;
+        sxx += dx * (x - meanX);
+        syy += dy * (y - meanY);
+        sxy += dx * (y - meanY);
+    }
+
+    /**
+     * Takes back a point given to {@link #add(double, double)}
+     */
+    public void remove(double x, double y) {
+        if (n <= 1) {
+            reset();
+            return;
+        }
+        n--;
+        double dx = x - meanX;
+        double dy = y - meanY;
+        meanX -= dx / n;
+        meanY -= dy / n;
+        sxx -= dx * (x - meanX);
+        syy -= dy * (y - meanY);
+        sxy -= dx * (y - meanY);
+    }
+
+    public void reset() {
+        n = 0;
+        meanX = 0;
+        meanY = 0;
+        sxx = 0;
+        syy = 0;
+        sxy = 0;
+    }
+
+    public int count() {
+        return n;
+    }
+
+    public double meanX() {
+        return meanX;
+    }
+
+    public double meanY() {
+        return meanY;
+    }
+
+    /**
+     * @return the sum of the squared distances of x to its mean, 0 means the slope is undefined
+     */
+    public double sumOfSquaresX() {
+        return sxx;
+    }
+
+    /**
+     * Returns the slope &beta; of the best-fit line, NaN if all the points have the same x
+     */
+    public double slope() {
+        return sxy / sxx;
+    }
+
+    /**
+     * Returns the <em>y</em>-intercept &alpha; of the best-fit line
+     */
+    public double intercept() {
+        return meanY - slope() * meanX;
+    }
+
+    /**
+     * Returns the coefficient of determination <em>R</em><sup>2</sup>, a real number between 0 and 1
+     */
+    public double R2() {
+        return sxy * sxy / (sxx * syy);
+    }
+
+    /**
+     * Returns the standard error of the estimate for the intercept, it needs at least 3 points
+     */
+    public double interceptStdErr() {
+        return Math.sqrt(residualVariance() / n + meanX * meanX * residualVariance() / sxx);
+    }
+
+    /**
+     * Returns the standard error of the estimate for the slope, it needs at least 3 points
+     */
+    public double slopeStdErr() {
+        return Math.sqrt(residualVariance() / sxx);
+    }
+
+    /**
+     * Returns the expected response <tt>y</tt> given the value of the predictor variable <tt>x</tt>
+     */
+    public double predict(double x) {
+        return slope() * x + intercept();
+    }
+
+    private double residualVariance() {
+        // residual sum of squares over the degrees of freedom, clamped since rounding can make it slightly negative
+        double rss = Math.max(0, syy - sxy * sxy / sxx);
+        return rss / (n - 2);
+    }
+}
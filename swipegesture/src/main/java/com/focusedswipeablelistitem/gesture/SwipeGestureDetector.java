@@ -0,0 +1,462 @@
+package com.focusedswipeablelistitem.gesture;
+
+/**
+ * The decision making part of swiping a card, free of any Android dependency.
+ * <p>
+ * It is fed with primitive touch samples expressed in the coordinates of the card, keeps track of where the card
+ * should be, and decides on release whether the touch was a click, a fling towards one of the directions or
+ * whether the card should settle according to where it has been dragged. It does not allocate after construction.
+ * <p>
+ * A typical gesture is {@link #onDown}, any number of {@link #onHistoricalMove} and {@link #onMove},
+ * then {@link #onUp} followed by {@link #getFlingDirection()} or {@link #getSettleDirection()}
+ */
+public class SwipeGestureDetector {
+
+    public static final int DIRECTION_NONE = -1;
+    public static final int DIRECTION_RIGHT = 0;
+    public static final int DIRECTION_LEFT = 1;
+    public static final int DIRECTION_TOP = 2;
+    public static final int DIRECTION_BOTTOM = 3;
+
+    /**
+     * The touch was short and did not move, see {@link #getClickRegion(float, float)}
+     */
+    public static final int RELEASE_CLICK = 1;
+
+    /**
+     * The card was flung hard enough to leave, see {@link #getFlingDirection()}
+     */
+    public static final int RELEASE_FLING = 2;
+
+    /**
+     * The card either goes back in place or leaves depending on where it was dragged, see {@link #getSettleDirection()}
+     */
+    public static final int RELEASE_SETTLE = 3;
+
+    /**
+     * Max allowed duration for a "click", in milliseconds.
+     */
+    public static final long MAX_CLICK_DURATION = 100;
+
+    /**
+     * Number of touch samples kept to estimate the velocity and the trajectory of a fling
+     */
+    private static final int TOUCH_SAMPLES_CAPACITY = 20;
+
+    /**
+     * Only the samples this recent, in milliseconds, are used to estimate the velocity and the trajectory of a fling
+     */
+    private static final long TOUCH_SAMPLES_WINDOW_MILLIS = 100;
+
+    private static final float MAX_COS = (float) Math.cos(Math.toRadians(45));
+
+    private final int touchSlop;
+    private final int minimumFlingVelocity;
+    private final int xDirectionThreshold;
+    private final int yDirectionThreshold;
+    private final TouchSampleBuffer touchSamples = new TouchSampleBuffer(TOUCH_SAMPLES_CAPACITY,
+            TOUCH_SAMPLES_WINDOW_MILLIS);
+
+    private float baseRotationDegrees = 15f;
+    private boolean allowLeftSwipe = true;
+    private boolean allowTopSwipe = true;
+    private boolean allowRightSwipe = true;
+    private boolean allowBottomSwipe = true;
+
+    private float objectX;
+    private float objectY;
+    private int objectW;
+    private int objectH;
+    private float halfWidth;
+    private float halfHeight;
+    private int parentWidth;
+    private int parentHeight;
+
+    private float aPosX;
+    private float aPosY;
+    private float initialX;
+    private float initialY;
+    private float aDownTouchX;
+    private float aDownTouchY;
+    private long downTime;
+    private boolean touchedBelowHalf;
+    private boolean dragging;
+    private int flingDirection = DIRECTION_NONE;
+
+    /**
+     * @param touchSlop            the distance a touch can wander before it is considered a drag
+     * @param minimumFlingVelocity the velocity, in pixels per second, needed on either axis for a release to be a fling
+     */
+    public SwipeGestureDetector(int touchSlop, int minimumFlingVelocity) {
+        this.touchSlop = touchSlop;
+        this.minimumFlingVelocity = minimumFlingVelocity;
+        this.xDirectionThreshold = touchSlop * 2;
+        this.yDirectionThreshold = touchSlop * 2;
+    }
+
+    public void setBaseRotation(float degrees) {
+        this.baseRotationDegrees = degrees;
+    }
+
+    public void setAllowLeftSwipe(boolean allowLeftSwipe) {
+        this.allowLeftSwipe = allowLeftSwipe;
+    }
+
+    public void setAllowRightSwipe(boolean allowRightSwipe) {
+        this.allowRightSwipe = allowRightSwipe;
+    }
+
+    public void setAllowTopSwipe(boolean allowTopSwipe) {
+        this.allowTopSwipe = allowTopSwipe;
+    }
+
+    public void setAllowBottomSwipe(boolean allowBottomSwipe) {
+        this.allowBottomSwipe = allowBottomSwipe;
+    }
+
+    /**
+     * Sets the resting position and size of the card and the size of its container, and forgets any previous gesture
+     */
+    public void setCardBounds(float x, float y, int width, int height, int parentWidth, int parentHeight) {
+        this.objectX = x;
+        this.objectY = y;
+        this.objectW = width;
+        this.objectH = height;
+        this.halfWidth = width / 2f;
+        this.halfHeight = height / 2f;
+        this.parentWidth = parentWidth;
+        this.parentHeight = parentHeight;
+        resetPosition();
+    }
+
+    /**
+     * Forgets where the card has been dragged to, the next {@link #onDown} takes the card position as the new start
+     */
+    public void resetPosition() {
+        aPosX = 0;
+        aPosY = 0;
+        aDownTouchX = 0;
+        aDownTouchY = 0;
+        dragging = false;
+        touchSamples.clear();
+    }
+
+    /**
+     * @param touchX    the x position of the touch relative to the card
+     * @param touchY    the y position of the touch relative to the card
+     * @param eventTime the time of the event in milliseconds
+     * @param cardX     the current x position of the card in its container
+     * @param cardY     the current y position of the card in its container
+     */
+    public void onDown(float touchX, float touchY, long eventTime, float cardX, float cardY) {
+        downTime = eventTime;
+
+        // Remember where we started
+        aDownTouchX = touchX;
+        aDownTouchY = touchY;
+
+        //to prevent an initial jump of the magnifier, aposX and aPosY must
+        //have the values from the magnifier frame
+        if (aPosX == 0) {
+            aPosX = cardX;
+            initialX = cardX;
+        }
+        if (aPosY == 0) {
+            aPosY = cardY;
+            initialY = cardY;
+        }
+
+        touchedBelowHalf = touchY >= objectH / 2;
+
+        touchSamples.clear();
+        touchSamples.add(aPosX, aPosY, eventTime);
+    }
+
+    /**
+     * A sample batched before the latest {@link #onMove}, only used to refine the estimate of the fling.
+     * The card itself follows the latest sample
+     */
+    public void onHistoricalMove(float touchX, float touchY, long eventTime) {
+        touchSamples.add(aPosX + (touchX - aDownTouchX) * 0.5f,
+                aPosY + (touchY - aDownTouchY) * 0.5f,
+                eventTime);
+    }
+
+    /**
+     * Moves the card following the touch, read the new position with {@link #getCardX()}, {@link #getCardY()}
+     * and {@link #getRotation()}
+     *
+     * @return true if this move is the one that turned the touch into a drag
+     */
+    public boolean onMove(float touchX, float touchY, long eventTime) {
+        // Calculate the distance moved
+        final float dx = touchX - aDownTouchX;
+        final float dy = touchY - aDownTouchY;
+
+        //Check for slop on direct events
+        boolean startedDragging = false;
+        if (!dragging && (Math.abs(dy) > touchSlop || Math.abs(dx) > touchSlop)) {
+            dragging = true;
+            startedDragging = true;
+        }
+
+        // Move the frame
+        aPosX += dx * 0.5;
+        aPosY += dy * 0.5;
+        touchSamples.add(aPosX, aPosY, eventTime);
+        return startedDragging;
+    }
+
+    /**
+     * @param eventTime the time of the release in milliseconds
+     * @param velocityX the release velocity on the x axis in pixels per second
+     * @param velocityY the release velocity on the y axis in pixels per second
+     * @return one of {@link #RELEASE_CLICK}, {@link #RELEASE_FLING} or {@link #RELEASE_SETTLE}
+     */
+    public int onUp(long eventTime, float velocityX, float velocityY) {
+        long pressDuration = eventTime - downTime;
+        dragging = false;
+        flingDirection = DIRECTION_NONE;
+
+        float traveledDistanceOnX = aPosX - initialX;
+        float traveledDistanceOnY = aPosY - initialY;
+        if (pressDuration < MAX_CLICK_DURATION && ((Math.abs(traveledDistanceOnX) < touchSlop)
+                || (Math.abs(traveledDistanceOnY) < touchSlop))) {
+            return RELEASE_CLICK;
+        }
+
+        if (Math.abs(velocityX) > minimumFlingVelocity || Math.abs(velocityY) > minimumFlingVelocity) {
+            switch (getReleaseDirection()) {
+                case up:
+                    if (Math.abs(traveledDistanceOnY) >= yDirectionThreshold && movedBeyondTopBorder()) {
+                        flingDirection = DIRECTION_TOP;
+                    }
+                    break;
+                case down:
+                    if (Math.abs(traveledDistanceOnY) >= yDirectionThreshold && movedBeyondBottomBorder()) {
+                        flingDirection = DIRECTION_BOTTOM;
+                    }
+                    break;
+                case left:
+                    if (Math.abs(traveledDistanceOnX) >= xDirectionThreshold && movedBeyondLeftBorder()) {
+                        flingDirection = DIRECTION_LEFT;
+                    }
+                    break;
+                case right:
+                    if (Math.abs(traveledDistanceOnX) >= xDirectionThreshold && movedBeyondRightBorder()) {
+                        flingDirection = DIRECTION_RIGHT;
+                    }
+                    break;
+            }
+        }
+        return flingDirection != DIRECTION_NONE ? RELEASE_FLING : RELEASE_SETTLE;
+    }
+
+    /**
+     * @return the direction of the fling decided by the last {@link #onUp}, or {@link #DIRECTION_NONE}
+     */
+    public int getFlingDirection() {
+        return flingDirection;
+    }
+
+    /**
+     * @return the direction the card leaves to given where it has been dragged,
+     * or {@link #DIRECTION_NONE} if it goes back on the stack
+     */
+    public int getSettleDirection() {
+        if (movedBeyondLeftBorder()) {
+            return DIRECTION_LEFT;
+        } else if (movedBeyondRightBorder()) {
+            return DIRECTION_RIGHT;
+        } else if (movedBeyondTopBorder()) {
+            return DIRECTION_TOP;
+        } else if (movedBeyondBottomBorder()) {
+            return DIRECTION_BOTTOM;
+        }
+        return DIRECTION_NONE;
+    }
+
+    /**
+     * The part of the card a click landed on, the top and bottom quarters win over the left and right ones
+     *
+     * @param localX the x position of the click relative to where the card was when touched
+     * @param localY the y position of the click relative to where the card was when touched
+     * @return one of the directions, or {@link #DIRECTION_NONE} if the click landed in the middle
+     */
+    public int getClickRegion(float localX, float localY) {
+        if (localX < 0 || localX >= objectW || localY < 0 || localY >= objectH) {
+            return DIRECTION_NONE;
+        }
+        if (localY >= objectH * 0.75f) {
+            return DIRECTION_BOTTOM;
+        } else if (localY < objectH * 0.25f) {
+            return DIRECTION_TOP;
+        } else if (localX < objectW * 0.25f) {
+            return DIRECTION_LEFT;
+        } else if (localX >= objectW * 0.75f) {
+            return DIRECTION_RIGHT;
+        }
+        return DIRECTION_NONE;
+    }
+
+    /**
+     * The direction the card was moving to when it got released, estimated from the velocity over the
+     * most recent touch samples. The y axis is flipped so that {@link Direction#up} is up on the screen
+     */
+    private Direction getReleaseDirection() {
+        if (touchSamples.computeVelocity()) {
+            return Direction.between(0, 0, touchSamples.getVelocityX(), -touchSamples.getVelocityY());
+        }
+        return Direction.between(objectX + halfWidth, -(objectY + halfHeight),
+                aPosX + halfWidth, -(aPosY + halfHeight));
+    }
+
+    /**
+     * @return the y position the card crosses exitX at if it keeps its current trajectory
+     */
+    public float getExitY(float exitX) {
+        //Your typical y = ax+b linear regression, over the most recent positions of the card
+        if (touchSamples.fitTrajectory()) {
+            return touchSamples.getTrajectorySlope() * exitX + touchSamples.getTrajectoryIntercept();
+        }
+
+        float traveledDistanceOnX = aPosX - objectX;
+        if (traveledDistanceOnX == 0) {
+            return aPosY;
+        }
+
+        // not enough horizontal movement in the window, use the line through the initial and the current position
+        float slope = (aPosY - objectY) / traveledDistanceOnX;
+        float intercept = objectY - slope * objectX;
+        return slope * exitX + intercept;
+    }
+
+    /**
+     * @return the rotation of the card for its current position
+     */
+    public float getRotation() {
+        float distobjectX = aPosX - objectX;
+        float rotation = baseRotationDegrees * 2.f * distobjectX / parentWidth;
+        if (touchedBelowHalf) {
+            rotation = -rotation;
+        }
+        return rotation;
+    }
+
+    public float getExitRotation(boolean isLeft) {
+        float rotation = baseRotationDegrees * 2.f * (parentWidth - objectX) / parentWidth;
+        if (touchedBelowHalf) {
+            rotation = -rotation;
+        }
+        if (isLeft) {
+            rotation = -rotation;
+        }
+        return rotation;
+    }
+
+    /**
+     * When the object rotates it's width becomes bigger.
+     * The maximum width is at 45 degrees.
+     * <p/>
+     * The below method calculates the width offset of the rotation.
+     */
+    public float getRotationWidthOffset() {
+        return objectW / MAX_COS - objectW;
+    }
+
+    /**
+     * @return the horizontal progress of the card from -1 (left border) to 1 (right border)
+     */
+    public float getScrollProgressX() {
+        if (movedBeyondLeftBorder()) {
+            return -1f;
+        } else if (movedBeyondRightBorder()) {
+            return 1f;
+        } else {
+            float zeroToOneValue = (aPosX + halfWidth - leftBorder()) / (rightBorder() - leftBorder());
+            return zeroToOneValue * 2f - 1f;
+        }
+    }
+
+    /**
+     * @return the vertical progress of the card from -1 (top border) to 1 (bottom border)
+     */
+    public float getScrollProgressY() {
+        if (movedBeyondTopBorder()) {
+            return -1f;
+        } else if (movedBeyondBottomBorder()) {
+            return 1f;
+        } else {
+            float zeroToOneValue = (aPosY + halfHeight - topBorder()) / (bottomBorder() - topBorder());
+            return zeroToOneValue * 2f - 1f;
+        }
+    }
+
+    public boolean movedBeyondLeftBorder() {
+        return allowLeftSwipe && aPosX + halfWidth < leftBorder();
+    }
+
+    public boolean movedBeyondRightBorder() {
+        return allowRightSwipe && aPosX + halfWidth > rightBorder();
+    }
+
+    public boolean movedBeyondTopBorder() {
+        return allowTopSwipe && aPosY + halfHeight < topBorder();
+    }
+
+    public boolean movedBeyondBottomBorder() {
+        return allowBottomSwipe && aPosY + halfHeight > bottomBorder();
+    }
+
+    public float leftBorder() {
+        return parentWidth / 4.f;
+    }
+
+    public float rightBorder() {
+        return 3 * parentWidth / 4.f;
+    }
+
+    public float topBorder() {
+        return parentHeight / 4.f;
+    }
+
+    public float bottomBorder() {
+        return 3 * parentHeight / 4.f;
+    }
+
+    public boolean isDragging() {
+        return dragging;
+    }
+
+    public float getCardX() {
+        return aPosX;
+    }
+
+    public float getCardY() {
+        return aPosY;
+    }
+
+    public float getRestX() {
+        return objectX;
+    }
+
+    public float getRestY() {
+        return objectY;
+    }
+
+    public int getCardWidth() {
+        return objectW;
+    }
+
+    public int getCardHeight() {
+        return objectH;
+    }
+
+    public int getParentWidth() {
+        return parentWidth;
+    }
+
+    public int getParentHeight() {
+        return parentHeight;
+    }
+}
@@ -0,0 +1,161 @@
+package com.focusedswipeablelistitem.gesture;
+
+/**
+ * Fixed size ring buffer of card positions and their timestamps, once full the oldest sample is overwritten.
+ * <p>
+ * It is fed with every sample of a gesture, including the historical ones that Android batches between two frames,
+ * and keeps a running fit of the velocity and the trajectory of the card over the samples taken at most
+ * windowMillis before the latest one. Samples enter and leave the fits one at a time, so neither adding
+ * a sample nor reading a fit walks the buffer or allocates
+ */
+public class TouchSampleBuffer {
+    private final float[] xs;
+    private final float[] ys;
+    private final long[] times;
+    private final long windowMillis;
+    private int start;
+    private int size;
+    // logical index of the oldest sample that is part of the fits
+    private int first;
+    // the fits use the time elapsed since the first sample, the uptime itself would only cost precision
+    private long baseTime;
+
+    private final StreamingLinearRegression motionX = new StreamingLinearRegression();
+    private final StreamingLinearRegression motionY = new StreamingLinearRegression();
+    private final StreamingLinearRegression trajectory = new StreamingLinearRegression();
+
+    private float velocityX;
+    private float velocityY;
+    private float trajectorySlope;
+    private float trajectoryIntercept;
+
+    /**
+     * @param capacity     the maximum number of samples kept
+     * @param windowMillis only the samples this recent, in milliseconds, compared to the latest one are fitted
+     */
+    public TouchSampleBuffer(int capacity, long windowMillis) {
+        xs = new float[capacity];
+        ys = new float[capacity];
+        times = new long[capacity];
+        this.windowMillis = windowMillis;
+    }
+
+    public void clear() {
+        start = 0;
+        size = 0;
+        first = 0;
+        motionX.reset();
+        motionY.reset();
+        trajectory.reset();
+    }
+
+    public void add(float x, float y, long time) {
+        if (size == 0) {
+            baseTime = time;
+        }
+        int index;
+        if (size < xs.length) {
+            index = (start + size) % xs.length;
+            size++;
+        } else {
+            // the oldest sample is overwritten, it leaves the fits if it was still part of them
+            if (first == 0) {
+                exitFits(start);
+            } else {
+                first--;
+            }
+            index = start;
+            start = (start + 1) % xs.length;
+        }
+        xs[index] = x;
+        ys[index] = y;
+        times[index] = time;
+        enterFits(index);
+
+        long oldestAllowed = time - windowMillis;
+        while (first < size - 1 && times[indexOf(first)] < oldestAllowed) {
+            exitFits(indexOf(first));
+            first++;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of samples in the window, the ones used by the fits
+     */
+    public int windowSize() {
+        return size - first;
+    }
+
+    /**
+     * Reads the velocity from the fit of the position over time of the samples in the window,
+     * the result is read with {@link #getVelocityX()} and {@link #getVelocityY()}
+     *
+     * @return false if there are not enough samples in the window to estimate a velocity
+     */
+    public boolean computeVelocity() {
+        // integer timestamps give at least 0.5 as soon as two of them differ, below that they are all the same
+        // and only rounding left by the removed samples remains
+        if (windowSize() < 2 || motionX.sumOfSquaresX() < 0.5) {
+            return false;
+        }
+        // pixels per millisecond to pixels per second
+        velocityX = (float) (motionX.slope() * 1000);
+        velocityY = (float) (motionY.slope() * 1000);
+        return true;
+    }
+
+    /**
+     * Reads the line y = slope * x + intercept fitted through the samples in the window,
+     * the result is read with {@link #getTrajectorySlope()} and {@link #getTrajectoryIntercept()}
+     *
+     * @return false if there are not enough samples or they did not move horizontally
+     */
+    public boolean fitTrajectory() {
+        int count = windowSize();
+        // less than a pixel of spread on average, the slope would be mostly noise
+        if (count < 2 || trajectory.sumOfSquaresX() < count) {
+            return false;
+        }
+        trajectorySlope = (float) trajectory.slope();
+        trajectoryIntercept = (float) trajectory.intercept();
+        return true;
+    }
+
+    public float getVelocityX() {
+        return velocityX;
+    }
+
+    public float getVelocityY() {
+        return velocityY;
+    }
+
+    public float getTrajectorySlope() {
+        return trajectorySlope;
+    }
+
+    public float getTrajectoryIntercept() {
+        return trajectoryIntercept;
+    }
+
+    private void enterFits(int index) {
+        long t = times[index] - baseTime;
+        motionX.add(t, xs[index]);
+        motionY.add(t, ys[index]);
+        trajectory.add(xs[index], ys[index]);
+    }
+
+    private void exitFits(int index) {
+        long t = times[index] - baseTime;
+        motionX.remove(t, xs[index]);
+        motionY.remove(t, ys[index]);
+        trajectory.remove(xs[index], ys[index]);
+    }
+
+    private int indexOf(int i) {
+        return (start + i) % xs.length;
+    }
+}
@@ -0,0 +1,99 @@
+package com.focusedswipeablelistitem.gesture;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CardMotionTest {
+    private static final float DELTA = 1e-3f;
+    private static final long MIN_EXIT = 40;
+    private static final long MAX_EXIT = 300;
+
+    private CardMotion cardMotion;
+
+    @Before
+    public void setUp() {
+        cardMotion = new CardMotion();
+    }
+
+    @Test
+    public void exit_keepsTheReleaseSpeed() {
+        assertEquals(200, CardMotion.getExitDuration(400, 2000, MIN_EXIT, MAX_EXIT));
+        assertEquals(100, CardMotion.getExitDuration(400, 4000, MIN_EXIT, MAX_EXIT));
+    }
+
+    @Test
+    public void exit_staysWithinItsBounds() {
+        assertEquals(MIN_EXIT, CardMotion.getExitDuration(400, 100000, MIN_EXIT, MAX_EXIT));
+        assertEquals(MAX_EXIT, CardMotion.getExitDuration(400, 100, MIN_EXIT, MAX_EXIT));
+        // moving away from the exit, e.g. a slow drag let go while coming back
+        assertEquals(MAX_EXIT, CardMotion.getExitDuration(400, -2000, MIN_EXIT, MAX_EXIT));
+        assertEquals(MIN_EXIT, CardMotion.getExitDuration(0, 2000, MIN_EXIT, MAX_EXIT));
+    }
+
+    @Test
+    public void speedTowards_projectsTheVelocityOnThePath() {
+        assertEquals(300, CardMotion.getSpeedTowards(0, 0, 100, 0, 300, 500), DELTA);
+        assertEquals(-300, CardMotion.getSpeedTowards(0, 0, -100, 0, 300, 500), DELTA);
+        assertEquals(500, CardMotion.getSpeedTowards(0, 0, 30, 40, 300, 400), DELTA);
+        assertEquals(0, CardMotion.getSpeedTowards(10, 10, 10, 10, 300, 400), DELTA);
+    }
+
+    @Test
+    public void spring_startsFromTheOffsetAndEndsAtRest() {
+        cardMotion.startSpring(120, -40, 0, 0);
+        assertFalse(cardMotion.computeSpring(0));
+        assertEquals(120, cardMotion.getSpringX(), DELTA);
+        assertEquals(-40, cardMotion.getSpringY(), DELTA);
+
+        assertTrue(cardMotion.computeSpring(cardMotion.getSpringDuration()));
+        assertEquals(0, cardMotion.getSpringX(), 0);
+        assertEquals(0, cardMotion.getSpringY(), 0);
+    }
+
+    @Test
+    public void spring_keepsTheReleaseVelocity() {
+        // let go while still moving away from its place
+        cardMotion.startSpring(100, 0, 2000, 0);
+        cardMotion.computeSpring(1);
+        float velocity = (cardMotion.getSpringX() - 100) * 1000;
+
+        // the spring already pulls it back a little during that first millisecond
+        assertEquals(2000, velocity, 200);
+    }
+
+    @Test
+    public void spring_lastsLongerWhenReleasedFaster() {
+        cardMotion.startSpring(100, 0, 0, 0);
+        long slowDuration = cardMotion.getSpringDuration();
+        cardMotion.startSpring(100, 0, 5000, 0);
+        long fastDuration = cardMotion.getSpringDuration();
+
+        assertTrue(fastDuration > slowDuration);
+    }
+
+    @Test
+    public void spring_barelyOffset_isAlreadyAtRest() {
+        cardMotion.startSpring(0.1f, 0.2f, 0, 0);
+
+        assertEquals(0, cardMotion.getSpringDuration());
+        assertTrue(cardMotion.computeSpring(0));
+    }
+
+    @Test
+    public void spring_staysWithinTheEnvelope() {
+        cardMotion.startSpring(200, 0, -3000, 0);
+        for (long millis = 0; millis < cardMotion.getSpringDuration(); millis += 16) {
+            cardMotion.computeSpring(millis);
+            assertTrue(Math.abs(cardMotion.getSpringX()) < 250);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void criticalDamping_isRejected() {
+        new CardMotion(1500, 1f);
+    }
+}
@@ -0,0 +1,105 @@
+package com.focusedswipeablelistitem.gesture;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class DirectionClassifierTest {
+
+    @Test
+    public void fourWay_matchesTheAngleOverAGrid() {
+        // covers every ratio, the diagonals and the axes exactly
+        for (int dx = -300; dx <= 300; dx++) {
+            for (int dy = -300; dy <= 300; dy++) {
+                assertEquals("(" + dx + ", " + dy + ")",
+                        Direction.fromAngle(Direction.getAngle(0, 0, dx, dy)),
+                        DirectionClassifier.FOUR_WAY.classify(dx, dy));
+            }
+        }
+    }
+
+    @Test
+    public void fourWay_matchesTheAngleAroundTheCircle() {
+        for (int i = 0; i < 360 * 100; i++) {
+            double radians = Math.toRadians(i / 100d);
+            float dx = (float) (Math.cos(radians) * 1000);
+            float dy = (float) (Math.sin(radians) * 1000);
+            assertEquals("angle " + i / 100d,
+                    Direction.fromAngle(Direction.getAngle(0, 0, dx, dy)),
+                    DirectionClassifier.FOUR_WAY.classify(dx, dy));
+        }
+    }
+
+    @Test
+    public void between_usesTheDifferenceOfThePoints() {
+        assertEquals(Direction.up, Direction.between(10, 10, 12, 20));
+        assertEquals(Direction.left, Direction.between(10, 10, -5, 12));
+        assertEquals(Direction.right, Direction.between(10, 10, 10, 10));
+    }
+
+    @Test
+    public void eightWay_sameWidthForEveryDirection() {
+        DirectionClassifier classifier = new DirectionClassifier(45);
+
+        assertEquals(Direction.right, classifier.classify(100, 30));
+        assertEquals(Direction.upRight, classifier.classify(100, 50));
+        assertEquals(Direction.upRight, classifier.classify(100, 100));
+        assertEquals(Direction.up, classifier.classify(30, 100));
+        assertEquals(Direction.upLeft, classifier.classify(-100, 100));
+        assertEquals(Direction.left, classifier.classify(-100, -30));
+        assertEquals(Direction.downLeft, classifier.classify(-100, -100));
+        assertEquals(Direction.down, classifier.classify(-30, -100));
+        assertEquals(Direction.downRight, classifier.classify(100, -100));
+        assertEquals(Direction.right, classifier.classify(0, 0));
+    }
+
+    @Test
+    public void eightWay_sectorBoundaries() {
+        DirectionClassifier classifier = new DirectionClassifier(45);
+
+        // the sector of upRight is [22.5, 67.5)
+        assertEquals(Direction.right, classifier.classify(polarX(22.4), polarY(22.4)));
+        assertEquals(Direction.upRight, classifier.classify(polarX(22.6), polarY(22.6)));
+        assertEquals(Direction.upRight, classifier.classify(polarX(67.4), polarY(67.4)));
+        assertEquals(Direction.up, classifier.classify(polarX(67.6), polarY(67.6)));
+    }
+
+    @Test
+    public void eightWay_customWidths() {
+        DirectionClassifier classifier = new DirectionClassifier(10, 0, 80, 45);
+
+        // upRight is [40, 50)
+        assertEquals(Direction.right, classifier.classify(polarX(39), polarY(39)));
+        assertEquals(Direction.upRight, classifier.classify(polarX(45), polarY(45)));
+        assertEquals(Direction.up, classifier.classify(polarX(51), polarY(51)));
+        // no upLeft sector
+        assertEquals(Direction.up, classifier.classify(polarX(134), polarY(134)));
+        assertEquals(Direction.left, classifier.classify(polarX(135), polarY(135)));
+        // downLeft is [185, 265)
+        assertEquals(Direction.left, classifier.classify(polarX(184), polarY(184)));
+        assertEquals(Direction.downLeft, classifier.classify(polarX(186), polarY(186)));
+        assertEquals(Direction.downLeft, classifier.classify(polarX(264), polarY(264)));
+        assertEquals(Direction.down, classifier.classify(polarX(266), polarY(266)));
+        // downRight is [292.5, 337.5)
+        assertEquals(Direction.downRight, classifier.classify(polarX(300), polarY(300)));
+        assertEquals(Direction.right, classifier.classify(polarX(340), polarY(340)));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsASectorCoveringTheQuadrant() {
+        new DirectionClassifier(90);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsANegativeSector() {
+        new DirectionClassifier(0, 0, -1, 0);
+    }
+
+    private static float polarX(double degrees) {
+        return (float) (Math.cos(Math.toRadians(degrees)) * 1000);
+    }
+
+    private static float polarY(double degrees) {
+        return (float) (Math.sin(Math.toRadians(degrees)) * 1000);
+    }
+}
@@ -1,4 +1,4 @@
-package com.focusedswipeablelistitem.core;
+package com.focusedswipeablelistitem.gesture;
 
 
 /*************************************************************************
@@ -0,0 +1,116 @@
+package com.focusedswipeablelistitem.gesture;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class StreamingLinearRegressionTest {
+    private static final double TOLERANCE = 1e-9;
+    // a window slid over thousands of points accumulates the rounding of every removal
+    private static final double SLIDING_TOLERANCE = 1e-7;
+
+    @Test
+    public void matchesTheBatchRegression() {
+        Random random = new Random(7);
+        float[] x = new float[1000];
+        float[] y = new float[x.length];
+        StreamingLinearRegression regression = new StreamingLinearRegression();
+        for (int i = 0; i < x.length; i++) {
+            x[i] = random.nextFloat() * 1000;
+            y[i] = 3 * x[i] - 40 + (float) random.nextGaussian() * 25;
+            regression.add(x[i], y[i]);
+        }
+
+        assertSameFit(new LinearRegression(x, y), regression);
+    }
+
+    @Test
+    public void matchesTheBatchRegression_largeOffsets() {
+        // timestamps are far from 0 compared to how much they differ
+        Random random = new Random(11);
+        float[] x = new float[200];
+        float[] y = new float[x.length];
+        StreamingLinearRegression regression = new StreamingLinearRegression();
+        for (int i = 0; i < x.length; i++) {
+            x[i] = 1000000 + i * 8;
+            y[i] = 500 + i * 2.5f + random.nextInt(5);
+            regression.add(x[i], y[i]);
+        }
+
+        assertSameFit(new LinearRegression(x, y), regression);
+    }
+
+    @Test
+    public void slidingWindow_matchesTheBatchRegressionOfTheWindow() {
+        Random random = new Random(13);
+        int window = 20;
+        float[] x = new float[2000];
+        float[] y = new float[x.length];
+        StreamingLinearRegression regression = new StreamingLinearRegression();
+        for (int i = 0; i < x.length; i++) {
+            x[i] = i * 8 + random.nextInt(3);
+            y[i] = (float) (Math.sin(i / 50d) * 300 + random.nextGaussian());
+            regression.add(x[i], y[i]);
+            if (i >= window) {
+                regression.remove(x[i - window], y[i - window]);
+            }
+
+            if (i >= window) {
+                float[] windowX = new float[window];
+                float[] windowY = new float[window];
+                System.arraycopy(x, i - window + 1, windowX, 0, window);
+                System.arraycopy(y, i - window + 1, windowY, 0, window);
+                assertEquals(window, regression.count());
+                assertSameFit(new LinearRegression(windowX, windowY), regression, SLIDING_TOLERANCE);
+            }
+        }
+    }
+
+    @Test
+    public void removingEveryPoint_resets() {
+        StreamingLinearRegression regression = new StreamingLinearRegression();
+        regression.add(1, 2);
+        regression.add(3, 5);
+        regression.remove(1, 2);
+        regression.remove(3, 5);
+
+        assertEquals(0, regression.count());
+        assertEquals(0, regression.meanX(), 0);
+        assertEquals(0, regression.sumOfSquaresX(), 0);
+
+        regression.add(0, 1);
+        regression.add(2, 5);
+        assertEquals(2, regression.slope(), TOLERANCE);
+        assertEquals(1, regression.intercept(), TOLERANCE);
+        assertEquals(9, regression.predict(4), TOLERANCE);
+    }
+
+    @Test
+    public void sameX_hasNoSlope() {
+        StreamingLinearRegression regression = new StreamingLinearRegression();
+        regression.add(4, 1);
+        regression.add(4, 9);
+
+        assertEquals(0, regression.sumOfSquaresX(), 0);
+        assertTrue(Double.isNaN(regression.slope()) || Double.isInfinite(regression.slope()));
+    }
+
+    private static void assertSameFit(LinearRegression expected, StreamingLinearRegression actual) {
+        assertSameFit(expected, actual, TOLERANCE);
+    }
+
+    private static void assertSameFit(LinearRegression expected, StreamingLinearRegression actual, double tolerance) {
+        assertClose(expected.slope(), actual.slope(), tolerance);
+        assertClose(expected.intercept(), actual.intercept(), tolerance);
+        assertClose(expected.R2(), actual.R2(), tolerance);
+        assertClose(expected.slopeStdErr(), actual.slopeStdErr(), tolerance);
+        assertClose(expected.interceptStdErr(), actual.interceptStdErr(), tolerance);
+    }
+
+    private static void assertClose(double expected, double actual, double tolerance) {
+        assertEquals(expected, actual, Math.max(1, Math.abs(expected)) * tolerance);
+    }
+}
@@ -0,0 +1,118 @@
+package com.focusedswipeablelistitem.gesture;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class SwipeGestureDetectorTest {
+    private static final float DELTA = 1e-3f;
+    private static final int TOUCH_SLOP = 8;
+    private static final int MINIMUM_FLING_VELOCITY = 50;
+
+    private SwipeGestureDetector detector;
+
+    @Before
+    public void setUp() {
+        detector = new SwipeGestureDetector(TOUCH_SLOP, MINIMUM_FLING_VELOCITY);
+        // a 100x200 card resting in the middle of a 400x800 container
+        detector.setCardBounds(150, 300, 100, 200, 400, 800);
+    }
+
+    @Test
+    public void shortTouch_isAClick() {
+        detector.onDown(50, 50, 0, 150, 300);
+
+        assertEquals(SwipeGestureDetector.RELEASE_CLICK, detector.onUp(50, 0, 0));
+    }
+
+    @Test
+    public void clickRegions() {
+        assertEquals(SwipeGestureDetector.DIRECTION_BOTTOM, detector.getClickRegion(50, 190));
+        assertEquals(SwipeGestureDetector.DIRECTION_TOP, detector.getClickRegion(50, 10));
+        assertEquals(SwipeGestureDetector.DIRECTION_LEFT, detector.getClickRegion(10, 100));
+        assertEquals(SwipeGestureDetector.DIRECTION_RIGHT, detector.getClickRegion(90, 100));
+        assertEquals(SwipeGestureDetector.DIRECTION_NONE, detector.getClickRegion(50, 100));
+        assertEquals(SwipeGestureDetector.DIRECTION_NONE, detector.getClickRegion(150, 100));
+    }
+
+    @Test
+    public void slowDragBeyondTheBorder_settlesOutOfTheStack() {
+        detector.onDown(50, 100, 0, 150, 300);
+        assertTrue(detector.onMove(-250, 100, 300));
+        assertTrue(detector.movedBeyondLeftBorder());
+
+        assertEquals(SwipeGestureDetector.RELEASE_SETTLE, detector.onUp(500, 0, 0));
+        assertEquals(SwipeGestureDetector.DIRECTION_LEFT, detector.getSettleDirection());
+        assertEquals(-1f, detector.getScrollProgressX(), DELTA);
+    }
+
+    @Test
+    public void smallDrag_settlesBackOnTheStack() {
+        detector.onDown(50, 100, 0, 150, 300);
+        detector.onMove(70, 110, 300);
+
+        assertEquals(SwipeGestureDetector.RELEASE_SETTLE, detector.onUp(500, 0, 0));
+        assertEquals(SwipeGestureDetector.DIRECTION_NONE, detector.getSettleDirection());
+    }
+
+    @Test
+    public void fastDragToTheRight_isAFling() {
+        dragRight();
+
+        assertEquals(SwipeGestureDetector.RELEASE_FLING, detector.onUp(180, 2000, 0));
+        assertEquals(SwipeGestureDetector.DIRECTION_RIGHT, detector.getFlingDirection());
+    }
+
+    @Test
+    public void flingToADisallowedDirection_isNotAFling() {
+        detector.setAllowRightSwipe(false);
+        dragRight();
+
+        assertEquals(SwipeGestureDetector.RELEASE_SETTLE, detector.onUp(180, 2000, 0));
+        assertEquals(SwipeGestureDetector.DIRECTION_NONE, detector.getSettleDirection());
+    }
+
+    @Test
+    public void exitY_followsTheTrajectory() {
+        detector.onDown(50, 100, 0, 150, 300);
+        for (int i = 1; i <= 5; i++) {
+            detector.onMove(50 + i * 40, 100 + i * 20, i * 8);
+        }
+
+        // every position of the card is on y = 300 + (x - 150) / 2
+        assertEquals(425f, detector.getExitY(400), DELTA);
+    }
+
+    @Test
+    public void rotation_isFlippedWhenTouchedBelowHalf() {
+        detector.onDown(50, 50, 0, 150, 300);
+        detector.onMove(90, 50, 8);
+        float rotationAbove = detector.getRotation();
+
+        detector.resetPosition();
+        detector.onDown(50, 150, 0, 150, 300);
+        detector.onMove(90, 150, 8);
+
+        assertTrue(rotationAbove > 0);
+        assertEquals(-rotationAbove, detector.getRotation(), DELTA);
+    }
+
+    @Test
+    public void scrollProgress_isZeroAtRest() {
+        detector.onDown(50, 100, 0, 150, 300);
+
+        assertFalse(detector.isDragging());
+        assertEquals(0f, detector.getScrollProgressX(), DELTA);
+        assertEquals(0f, detector.getScrollProgressY(), DELTA);
+    }
+
+    private void dragRight() {
+        detector.onDown(50, 100, 0, 150, 300);
+        for (int i = 1; i <= 5; i++) {
+            detector.onMove(50 + i * 40, 100, i * 30);
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.focusedswipeablelistitem.gesture;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TouchSampleBufferTest {
+    private static final float DELTA = 1e-3f;
+
+    @Test
+    public void keepsOnlyTheMostRecentSamples() {
+        TouchSampleBuffer buffer = new TouchSampleBuffer(5, 100);
+        for (int i = 0; i < 12; i++) {
+            buffer.add(i, 0, i);
+        }
+        assertEquals(5, buffer.size());
+    }
+
+    @Test
+    public void computeVelocity_linearMotion() {
+        TouchSampleBuffer buffer = new TouchSampleBuffer(20, 100);
+        // 2px and 1.5px every 8ms
+        for (int i = 0; i < 12; i++) {
+            buffer.add(10 + i * 2, 3 + i * 1.5f, 1000 + i * 8);
+        }
+
+        assertTrue(buffer.computeVelocity());
+        assertEquals(250f, buffer.getVelocityX(), DELTA);
+        assertEquals(187.5f, buffer.getVelocityY(), DELTA);
+    }
+
+    @Test
+    public void computeVelocity_ignoresSamplesOutsideTheWindow() {
+        TouchSampleBuffer buffer = new TouchSampleBuffer(20, 50);
+        buffer.add(0, 0, 0);
+        buffer.add(500, 0, 10);
+        buffer.add(510, 0, 500);
+        buffer.add(520, 0, 510);
+
+        assertEquals(2, buffer.windowSize());
+        assertTrue(buffer.computeVelocity());
+        assertEquals(1000f, buffer.getVelocityX(), DELTA);
+    }
+
+    @Test
+    public void computeVelocity_needsTwoSamples() {
+        TouchSampleBuffer buffer = new TouchSampleBuffer(20, 100);
+        buffer.add(0, 0, 0);
+        assertFalse(buffer.computeVelocity());
+    }
+
+    @Test
+    public void fitTrajectory_linearMotion() {
+        TouchSampleBuffer buffer = new TouchSampleBuffer(20, 100);
+        for (int i = 0; i < 12; i++) {
+            buffer.add(10 + i * 2, 3 + i * 1.5f, 1000 + i * 8);
+        }
+
+        assertTrue(buffer.fitTrajectory());
+        assertEquals(0.75f, buffer.getTrajectorySlope(), DELTA);
+        assertEquals(-4.5f, buffer.getTrajectoryIntercept(), DELTA);
+    }
+
+    @Test
+    public void fitTrajectory_verticalMotionHasNoSlope() {
+        TouchSampleBuffer buffer = new TouchSampleBuffer(20, 100);
+        for (int i = 0; i < 12; i++) {
+            buffer.add(10, i * 10, i * 8);
+        }
+        assertFalse(buffer.fitTrajectory());
+    }
+
+    @Test
+    public void fits_followTheSamplesThroughTheRing() {
+        TouchSampleBuffer buffer = new TouchSampleBuffer(8, 100);
+        // a curve, so that every window has its own fit
+        for (int i = 0; i < 200; i++) {
+            float x = i * 3;
+            float y = i * i / 10f;
+            buffer.add(x, y, i * 8);
+
+            if (i >= 8) {
+                // the 8 samples left in the ring are all in the window
+                assertEquals(8, buffer.windowSize());
+                LinearRegression expected = new LinearRegression(
+                        new float[]{x - 21, x - 18, x - 15, x - 12, x - 9, x - 6, x - 3, x},
+                        new float[]{sq(i - 7), sq(i - 6), sq(i - 5), sq(i - 4), sq(i - 3), sq(i - 2), sq(i - 1), sq(i)});
+                assertTrue(buffer.fitTrajectory());
+                assertEquals(expected.slope(), buffer.getTrajectorySlope(), 1e-3);
+                assertEquals(expected.intercept(), buffer.getTrajectoryIntercept(), Math.abs(expected.intercept()) * 1e-5);
+            }
+        }
+    }
+
+    @Test
+    public void clear_forgetsTheFits() {
+        TouchSampleBuffer buffer = new TouchSampleBuffer(20, 100);
+        for (int i = 0; i < 12; i++) {
+            buffer.add(i * 100, 0, i * 8);
+        }
+        buffer.clear();
+        buffer.add(0, 0, 1000);
+        buffer.add(2, 1, 1008);
+
+        assertTrue(buffer.computeVelocity());
+        assertEquals(250f, buffer.getVelocityX(), DELTA);
+        assertEquals(125f, buffer.getVelocityY(), DELTA);
+    }
+
+    private static float sq(int i) {
+        return i * i / 10f;
+    }
+}